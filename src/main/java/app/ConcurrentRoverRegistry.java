@@ -0,0 +1,86 @@
+package app;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import model.Rover;
+import model.StripedOccupancyIndex;
+
+/**
+ * Thread safe registry for rovers that are moved by several threads at once.
+ * Positions are tracked in a {@link StripedOccupancyIndex}, so "check that the
+ * cell is free and move into it" is atomic and doesn't need a global lock.
+ * <p>
+ * Each rover has to be moved by one thread at a time, and rovers registered
+ * here must not be registered in the {@link RoverRegistry} as well.
+ */
+public class ConcurrentRoverRegistry {
+
+    private final ConcurrentMap<Long, Rover> roverMap = new ConcurrentHashMap<>();
+    private final StripedOccupancyIndex occupancyIndex;
+
+    public ConcurrentRoverRegistry() {
+        this(new StripedOccupancyIndex());
+    }
+
+    public ConcurrentRoverRegistry(StripedOccupancyIndex occupancyIndex) {
+        this.occupancyIndex = occupancyIndex;
+    }
+
+    /**
+     * Registers the rover under the given id, replacing any rover registered
+     * with that id before. The rover's cell is claimed atomically, so no two
+     * rovers are ever registered on the same cell. A rover may take over the
+     * cell of the rover it replaces; registrations under the same id must not
+     * happen at the same time.
+     * 
+     * @return {@code false} if the cell is occupied by another rover; the
+     *         rover isn't registered then
+     */
+    public boolean registerRover(long id, Rover rover) {
+        int xValue = rover.getxValue();
+        int yValue = rover.getyValue();
+        Rover replacedRover = roverMap.get(id);
+        boolean takesOverCell = replacedRover != null && replacedRover.getxValue() == xValue
+                && replacedRover.getyValue() == yValue;
+        if (!takesOverCell && !occupancyIndex.tryClaim(xValue, yValue)) {
+            return false;
+        }
+        roverMap.put(id, rover);
+        if (replacedRover != null && !takesOverCell) {
+            occupancyIndex.remove(replacedRover.getxValue(), replacedRover.getyValue());
+        }
+        return true;
+    }
+
+    public Collection<Rover> getDeployedRovers() {
+        return Collections.unmodifiableCollection(roverMap.values());
+    }
+
+    /**
+     * Returns the index holding the positions of all registered rovers.
+     */
+    public StripedOccupancyIndex getOccupancyIndex() {
+        return occupancyIndex;
+    }
+
+    public boolean isPositionOccupied(int xValue, int yValue) {
+        return occupancyIndex.isOccupied(xValue, yValue);
+    }
+
+    /**
+     * Atomically moves a registered rover to the given position if it's free.
+     * 
+     * @return {@code true} if the rover has been moved, {@code false} if the
+     *         position is occupied
+     */
+    public boolean tryMoveRover(Rover rover, int newXValue, int newYValue) {
+        if (!occupancyIndex.tryMove(rover.getxValue(), rover.getyValue(), newXValue, newYValue)) {
+            return false;
+        }
+        rover.getFleetStore().setPosition(rover.getFleetIndex(), newXValue, newYValue);
+        return true;
+    }
+}
@@ -2,6 +2,12 @@ package app;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
 
@@ -12,12 +18,41 @@ import com.google.common.collect.Lists;
 import constants.Instruction;
 import constants.Orientation;
 import constants.PlateauSize;
+import engine.ExecutionResult;
+import engine.InstructionEngine;
+import engine.InstructionProgram;
+import engine.SimulationResult;
+import engine.TickSimulator;
+import model.FleetStore;
 import model.Rover;
+import model.World;
+import output.ConsoleResultSink;
+import output.ResultSink;
 
 public class InputHandler {
     Scanner scanner;
+    private final World world;
+    private final ResultSink resultSink;
 
     public InputHandler() {
+        this(new ConsoleResultSink());
+    }
+
+    /**
+     * @param resultSink Sink that receives the results of the batch modes
+     */
+    public InputHandler(ResultSink resultSink) {
+        this(World.getDefault(), resultSink);
+    }
+
+    /**
+     * @param world World the plateau is configured in and the rovers are
+     *            deployed to
+     * @param resultSink Sink that receives the results of the batch modes
+     */
+    public InputHandler(World world, ResultSink resultSink) {
+        this.world = world;
+        this.resultSink = resultSink;
     }
 
     public void process() {
@@ -44,9 +79,63 @@ public class InputHandler {
 
         // Execute commands and register finished rovers
         rover1.executeInstructions(instructionsRover1);
-        RoverRegistry.registerRover(1L, rover1);
+        world.registerRover(1L, rover1);
         rover2.executeInstructions(instructionsRover2);
-        RoverRegistry.registerRover(2L, rover2);
+        world.registerRover(2L, rover2);
+    }
+
+    /**
+     * Batch mode: Reads a complete mission file (plateau line followed by any
+     * number of rover/instruction line pairs) and executes all rovers one
+     * after the other. The file is memory mapped and its instructions are
+     * executed right out of the mapping, so its size is not limited by the
+     * available heap.
+     * 
+     * @param missionFile Path of the mission file
+     * @throws IOException if the file can't be read
+     */
+    public void processMissionFile(Path missionFile) throws IOException {
+        new MappedMissionReader().read(missionFile, new MissionExecutor());
+        resultSink.flush();
+    }
+
+    /**
+     * Batch mode for a mission that is streamed, e.g. from standard input.
+     * 
+     * @see #processMissionFile(Path)
+     */
+    public void processMission(InputStream input) throws IOException {
+        new MissionFileParser(input).parse(new MissionExecutor());
+        resultSink.flush();
+    }
+
+    /**
+     * Parallel batch mode: Deploys all rovers of the mission file at once and
+     * lets them execute their instructions simultaneously in lock-step ticks
+     * (see {@link TickSimulator}). The results are written in the order of the
+     * rovers in the file.
+     * 
+     * @param missionFile Path of the mission file
+     * @throws IOException if the file can't be read
+     */
+    public void processMissionFileInParallel(Path missionFile) throws IOException {
+        MissionCollector collector = new MissionCollector();
+        new MappedMissionReader().read(missionFile, collector);
+
+        FleetStore fleet = world.getFleet();
+        InstructionProgram[] programs = new InstructionProgram[fleet.size()];
+        for (int i = 0; i < collector.rovers.size(); i++) {
+            programs[collector.rovers.get(i).getFleetIndex()] = collector.programs.get(i);
+        }
+        SimulationResult result = new TickSimulator().run(world, programs);
+        ExecutionResult roverResult = new ExecutionResult();
+        for (Rover rover : collector.rovers) {
+            int index = rover.getFleetIndex();
+            result.copyTo(index, roverResult);
+            resultSink.roverFinished(fleet.getId(index), rover.getxValue(), rover.getyValue(),
+                    rover.getOrientation(), roverResult);
+        }
+        resultSink.flush();
     }
 
     /**
@@ -75,8 +164,8 @@ public class InputHandler {
                 Integer.valueOf(plateauInput.get(1)) >= PlateauSize.minYValue, 
                 "Invalid plateau size!");
         // @formatter:on
-        PlateauSize.setMaxXValue(Integer.valueOf(plateauInput.get(0)));
-        PlateauSize.setMaxYValue(Integer.valueOf(plateauInput.get(1)));
+        world.getPlateau().setMaxXValue(Integer.valueOf(plateauInput.get(0)));
+        world.getPlateau().setMaxYValue(Integer.valueOf(plateauInput.get(1)));
     }
 
     /**
@@ -108,7 +197,7 @@ public class InputHandler {
      * @return The deployed rover
      */
     private Rover deployRover(String xValue, String yValue, Orientation orientation) {
-        Rover rover = new Rover();
+        Rover rover = new Rover(world);
         rover.setDeployPosition(Integer.valueOf(xValue), Integer.valueOf(yValue), orientation);
         return rover;
     }
@@ -122,17 +211,100 @@ public class InputHandler {
      */
     @VisibleForTesting
     List<Instruction> extractInstructions(String instructionInput) {
-        String[] splittedInput = instructionInput.toUpperCase().split(""); // splits into single characters as String
-        List<Instruction> instructionList = Lists.newArrayList();
-        try {
-            for (String instruction : splittedInput) {
-                if (!instruction.trim().isEmpty()) {
-                    instructionList.add(Instruction.valueOf(instruction));
-                }
-            }
-        } catch (Exception ex) {
-            throw new IllegalArgumentException("Invalid instructions given: " + instructionInput);
+        InstructionProgram program = InstructionProgram.compile(instructionInput);
+        List<Instruction> instructionList = Lists.newArrayListWithCapacity(program.length());
+        for (int step = 0; step < program.length(); step++) {
+            instructionList.add(program.instructionAt(step));
         }
         return instructionList;
     }
+
+    /**
+     * Deploys and registers the rovers of a mission file and collects their
+     * compiled instructions.
+     */
+    private class MissionCollector implements MissionListener {
+        private final List<Rover> rovers = Lists.newArrayList();
+        private final List<InstructionProgram> programs = Lists.newArrayList();
+        private byte[] code = new byte[64];
+        private int length;
+
+        @Override
+        public void plateau(String plateauLine) {
+            configurePlateau(plateauLine);
+        }
+
+        @Override
+        public void rover(String deployLine) {
+            Rover rover = checkInputValuesAndDeployRover(deployLine);
+            world.registerRover(rovers.size() + 1, rover);
+            rovers.add(rover);
+            length = 0;
+        }
+
+        @Override
+        public void instructions(byte[] chunk, int chunkLength) {
+            if (code.length - length < chunkLength) {
+                code = Arrays.copyOf(code, Math.max(code.length << 1, length + chunkLength));
+            }
+            System.arraycopy(chunk, 0, code, length, chunkLength);
+            length += chunkLength;
+        }
+
+        @Override
+        public void roverFinished() {
+            programs.add(InstructionProgram.wrap(Arrays.copyOf(code, length), length));
+        }
+    }
+
+    /**
+     * Executes the rovers of a mission file while it is being parsed. The
+     * instructions of each rover are executed chunk by chunk, each rover is
+     * registered after it has finished.
+     */
+    private class MissionExecutor implements MissionListener {
+        private final InstructionEngine engine = new InstructionEngine(world);
+        private final ExecutionResult result = new ExecutionResult();
+        private long nextRoverId = 1;
+        private Rover rover;
+
+        @Override
+        public void plateau(String plateauLine) {
+            configurePlateau(plateauLine);
+        }
+
+        @Override
+        public void rover(String deployLine) {
+            rover = checkInputValuesAndDeployRover(deployLine);
+            // the rover moves in its own store until it is registered
+            rover.getFleetStore().setCoverage(world.getFleet().getCoverage());
+            result.reset();
+        }
+
+        @Override
+        public void instructions(byte[] code, int length) {
+            if (result.isSucceeded()) {
+                engine.execute(rover, code, 0, length, result);
+            }
+        }
+
+        @Override
+        public void instructionText(ByteBuffer text, int from, int to) {
+            if (result.isSucceeded()) {
+                engine.execute(rover, text, from, to, result);
+            }
+        }
+
+        @Override
+        public void roverFinished() {
+            long roverId = nextRoverId++;
+            try {
+                resultSink.roverFinished(roverId, rover.getxValue(), rover.getyValue(), rover.getOrientation(),
+                        result);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            world.registerRover(roverId, rover);
+        }
+    }
 }
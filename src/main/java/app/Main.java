@@ -1,13 +1,167 @@
 package app;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import coverage.CoverageMap;
+import metrics.Metrics;
+import metrics.MetricsReporter;
+import model.Plateau;
+import model.TerrainMap;
+import model.World;
+import output.BinaryResultSink;
+import output.ConsoleResultSink;
+import output.CsvResultSink;
+import output.ResultSink;
+
 public class Main {
 
-    public static void main(String... a) {
+    /**
+     * Starts the interactive mode or, if the path of a mission file is given
+     * as argument, the batch mode. With {@code --parallel <file>} all rovers
+     * of the file move simultaneously. With {@code --format csv|binary} the
+     * batch results are written to standard output in that format instead of
+     * the console format. With {@code --server <port>} missions are read
+     * from loopback connections to the given port (see {@link MissionServer}).
+     * With {@code --metrics <seconds>} the {@link Metrics} are written to
+     * standard error periodically; they are available via JMX anyway. Metrics
+     * must be enabled by {@code -Drover.metrics.enabled=true}. With
+     * {@code --terrain <file>} the obstacles listed in the file are added to
+     * the plateau (see {@link TerrainMap#load(java.nio.file.Path)}); the
+     * server's missions don't support terrain, so it can't be combined with
+     * {@code --server}. With {@code --coverage <file>} the cells visited in
+     * batch mode are written to the file after the run, as heatmap if its name
+     * ends with {@code .pgm}, otherwise compressed (see {@link CoverageMap}).
+     */
+    public static void main(String... a) throws IOException {
+        boolean parallel = false;
+        String format = "text";
+        Integer serverPort = null;
+        Integer metricsPeriod = null;
+        Path coverageFile = null;
+        Path terrainFile = null;
+        int argument = 0;
+        while (argument < a.length && a[argument].startsWith("--")) {
+            if ("--parallel".equals(a[argument])) {
+                parallel = true;
+                argument++;
+            } else if ("--metrics".equals(a[argument]) && argument + 1 < a.length) {
+                metricsPeriod = Integer.valueOf(a[argument + 1]);
+                argument += 2;
+            } else if ("--server".equals(a[argument]) && argument + 1 < a.length) {
+                serverPort = Integer.valueOf(a[argument + 1]);
+                argument += 2;
+            } else if ("--coverage".equals(a[argument]) && argument + 1 < a.length) {
+                coverageFile = Paths.get(a[argument + 1]);
+                argument += 2;
+            } else if ("--terrain".equals(a[argument]) && argument + 1 < a.length) {
+                terrainFile = Paths.get(a[argument + 1]);
+                argument += 2;
+            } else {
+                checkArgument("--format".equals(a[argument]) && argument + 1 < a.length,
+                        "Unknown option: %s", a[argument]);
+                format = a[argument + 1];
+                argument += 2;
+            }
+        }
+
+        checkArgument(metricsPeriod == null || Metrics.ENABLED, "--metrics requires -Drover.metrics.enabled=true");
+        checkArgument(terrainFile == null || serverPort == null, "--terrain can't be combined with --server");
+        if (terrainFile != null) {
+            Plateau.global().getTerrain().load(terrainFile);
+        }
+
+        if (Metrics.ENABLED) {
+            Metrics.registerMBean();
+            if (metricsPeriod != null) {
+                // runs on a daemon thread until the JVM exits
+                new MetricsReporter(System.err, metricsPeriod, TimeUnit.SECONDS);
+            }
+        }
+
+        if (serverPort != null) {
+            MissionServer server = new MissionServer(serverPort);
+            server.start();
+            System.out.println("Waiting for missions on port " + server.getPort());
+            return;
+        }
+
+        if (argument < a.length) {
+            CoverageMap coverage = null;
+            if (coverageFile != null) {
+                coverage = new CoverageMap(true);
+                World.getDefault().getFleet().setCoverage(coverage);
+            }
+            try (ResultSink resultSink = createResultSink(format)) {
+                InputHandler inputHandler = new InputHandler(resultSink);
+                if (parallel) {
+                    inputHandler.processMissionFileInParallel(Paths.get(a[argument]));
+                } else {
+                    inputHandler.processMissionFile(Paths.get(a[argument]));
+                }
+            }
+            if (coverage != null) {
+                writeCoverage(coverage, coverageFile);
+            }
+            return;
+        }
+
         System.out.println("########################################");
         System.out.println("Mars Rover Coding Challenge");
         System.out.println("########################################\n\n");
 
-        InputHandler inputHandler = new InputHandler();
-        inputHandler.process();
+        new InputHandler().process();
+    }
+
+    private static void writeCoverage(CoverageMap coverage, Path coverageFile) throws IOException {
+        try (OutputStream output = Files.newOutputStream(coverageFile)) {
+            if (!coverageFile.toString().endsWith(".pgm")) {
+                coverage.writeCompressed(output);
+            } else if (coverage.getVisitedCount() > 0) {
+                coverage.writePgm(output);
+            } else {
+                coverage.writePgm(output, 0, 0, 0, 0);
+            }
+        }
+    }
+
+    private static ResultSink createResultSink(String format) {
+        switch (format) {
+            case "text":
+                return new ConsoleResultSink();
+            case "csv":
+                return new CsvResultSink(standardOutput());
+            case "binary":
+                return new BinaryResultSink(standardOutput());
+            default:
+                throw new IllegalArgumentException("Unknown output format: " + format);
+        }
+    }
+
+    /**
+     * Returns {@link System#out} wrapped so that closing a sink only flushes
+     * it, like closing a {@link ConsoleResultSink} does; later output, e.g.
+     * of the interactive mode, still gets through.
+     */
+    private static OutputStream standardOutput() {
+        return new FilterOutputStream(System.out) {
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                out.write(bytes, offset, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
     }
-}
\ No newline at end of file
+}
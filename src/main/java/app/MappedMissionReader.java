@@ -0,0 +1,144 @@
+package app;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import metrics.Metrics;
+
+/**
+ * Reads mission files (see {@link MissionFileParser} for the format) by
+ * memory mapping them. Plateau and rover lines are parsed straight out of the
+ * mapped buffer, instruction lines are handed to the
+ * {@link MissionListener#instructionText(java.nio.ByteBuffer, int, int)} as
+ * ranges of that buffer without copying them.
+ * <p>
+ * A single mapping is limited to 2 GB, so larger files are mapped in
+ * consecutive windows. An instruction line crossing a window border is handed
+ * over in two ranges.
+ */
+public class MappedMissionReader {
+
+    private static final long DEFAULT_WINDOW_SIZE = 1L << 30;
+    private static final int MAX_HEADER_LENGTH = 256;
+
+    private final long windowSize;
+
+    public MappedMissionReader() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    @VisibleForTesting
+    MappedMissionReader(long windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Reads the whole mission file and reports its content to the given
+     * listener.
+     * 
+     * @throws IOException if mapping the file fails
+     * @throws IllegalArgumentException if the file isn't a valid mission file
+     */
+    public void read(Path missionFile, MissionListener listener) throws IOException {
+        long startNanos = Metrics.ENABLED ? System.nanoTime() : 0;
+        try (FileChannel channel = FileChannel.open(missionFile, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long windowStart = 0;
+            MappedByteBuffer window = map(channel, windowStart, fileSize);
+            boolean plateauRead = false;
+            boolean expectingInstructions = false;
+            int position = 0;
+
+            while (true) {
+                int lineBreak = indexOfLineBreak(window, position);
+                boolean lastWindow = windowStart + window.limit() == fileSize;
+                if (lineBreak < 0 && !lastWindow) {
+                    // line continues in the next window
+                    if (expectingInstructions) {
+                        if (position < window.limit()) {
+                            listener.instructionText(window, position, window.limit());
+                        }
+                        position = window.limit();
+                    } else if (position == 0) {
+                        throw new IllegalArgumentException("Line at byte " + windowStart + " is too long!");
+                    }
+                    windowStart += position;
+                    position = 0;
+                    window = map(channel, windowStart, fileSize);
+                    continue;
+                }
+
+                int lineEnd = lineBreak < 0 ? window.limit() : lineBreak;
+                if (expectingInstructions) {
+                    if (position < lineEnd) {
+                        listener.instructionText(window, position, lineEnd);
+                    }
+                    listener.roverFinished();
+                    expectingInstructions = false;
+                } else {
+                    String line = headerLine(window, position, lineEnd);
+                    if (line.isEmpty()) {
+                        // blank lines between rovers are skipped
+                    } else if (!plateauRead) {
+                        listener.plateau(line);
+                        plateauRead = true;
+                    } else {
+                        listener.rover(line);
+                        expectingInstructions = true;
+                        if (Metrics.ENABLED) {
+                            Metrics.PARSED_ROVERS.increment();
+                        }
+                    }
+                }
+
+                if (lineBreak < 0) {
+                    break;
+                }
+                position = lineBreak + 1;
+            }
+
+            if (expectingInstructions) {
+                // last rover without instruction line
+                listener.roverFinished();
+            }
+            if (!plateauRead) {
+                throw new IllegalArgumentException("Invalid plateau size!");
+            }
+            if (Metrics.ENABLED) {
+                Metrics.PARSED_BYTES.add(fileSize);
+                Metrics.MISSION_NANOS.record(System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    private MappedByteBuffer map(FileChannel channel, long windowStart, long fileSize) throws IOException {
+        return channel.map(MapMode.READ_ONLY, windowStart, Math.min(windowSize, fileSize - windowStart));
+    }
+
+    private static int indexOfLineBreak(MappedByteBuffer window, int from) {
+        int limit = window.limit();
+        for (int position = from; position < limit; position++) {
+            if (window.get(position) == '\n') {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private static String headerLine(MappedByteBuffer window, int from, int to) {
+        if (to - from > MAX_HEADER_LENGTH) {
+            throw new IllegalArgumentException("Line is too long: " + (to - from) + " characters");
+        }
+        char[] characters = new char[to - from];
+        for (int i = 0; i < characters.length; i++) {
+            characters[i] = (char) (window.get(from + i) & 0xFF);
+        }
+        return new String(characters).trim();
+    }
+}
@@ -0,0 +1,55 @@
+package app;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import model.World;
+import output.ResultSink;
+
+/**
+ * Runs independent missions concurrently on a shared thread pool. Every
+ * mission gets its own {@link World}, so missions with different plateaus and
+ * rovers don't affect each other.
+ */
+public class MissionBatchRunner {
+
+    private final Executor executor;
+
+    /**
+     * Creates a runner that uses the common fork/join pool.
+     */
+    public MissionBatchRunner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public MissionBatchRunner(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Runs the mission in a new world. The input is read like by
+     * {@link InputHandler#processMission(InputStream)} and closed afterwards.
+     * 
+     * @param mission The mission (plateau line followed by rover/instruction
+     *            line pairs)
+     * @param resultSink Sink that receives the results of this mission only
+     * @return The world with the finished rovers registered
+     */
+    public CompletableFuture<World> submit(InputStream mission, ResultSink resultSink) {
+        return CompletableFuture.supplyAsync(() -> run(mission, resultSink), executor);
+    }
+
+    private static World run(InputStream mission, ResultSink resultSink) {
+        World world = new World();
+        try (InputStream input = mission) {
+            new InputHandler(world, resultSink).processMission(input);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return world;
+    }
+}
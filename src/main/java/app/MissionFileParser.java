@@ -0,0 +1,152 @@
+package app;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import engine.InstructionProgram;
+import metrics.Metrics;
+
+/**
+ * Streaming parser for mission files. A mission file consists of the plateau
+ * line followed by any number of rover/instruction line pairs:
+ * 
+ * <pre>
+ * 5 5
+ * 1 2 N
+ * LMLMLMLMM
+ * 3 3 E
+ * MMRMMRMRRM
+ * </pre>
+ * 
+ * The input is read block-wise and decoded byte by byte. Instructions are
+ * compiled straight into a fixed size op code buffer which is handed to the
+ * {@link MissionListener} whenever it is full, so memory consumption doesn't
+ * depend on the size of the file or the length of an instruction line.
+ */
+public class MissionFileParser {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_LENGTH = 256;
+
+    private enum Expecting {
+        PLATEAU, ROVER, INSTRUCTIONS
+    }
+
+    private final InputStream input;
+    private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+    private final byte[] headerBuffer = new byte[MAX_HEADER_LENGTH];
+    private final byte[] chunk;
+
+    public MissionFileParser(InputStream input) {
+        this(input, DEFAULT_CHUNK_SIZE);
+    }
+
+    @VisibleForTesting
+    MissionFileParser(InputStream input, int chunkSize) {
+        this.input = input;
+        this.chunk = new byte[chunkSize];
+    }
+
+    /**
+     * Parses the whole input and reports its content to the given listener.
+     * 
+     * @throws IOException if reading the input fails
+     * @throws IllegalArgumentException if the input isn't a valid mission file
+     */
+    public void parse(MissionListener listener) throws IOException {
+        long startNanos = Metrics.ENABLED ? System.nanoTime() : 0;
+        Expecting expecting = Expecting.PLATEAU;
+        int headerLength = 0;
+        int chunkLength = 0;
+        int lineNumber = 1;
+
+        int bytesRead;
+        while ((bytesRead = input.read(readBuffer)) != -1) {
+            if (Metrics.ENABLED) {
+                Metrics.PARSED_BYTES.add(bytesRead);
+            }
+            for (int i = 0; i < bytesRead; i++) {
+                byte character = readBuffer[i];
+                if (expecting == Expecting.INSTRUCTIONS) {
+                    if (character == '\n') {
+                        if (chunkLength > 0) {
+                            listener.instructions(chunk, chunkLength);
+                            chunkLength = 0;
+                        }
+                        listener.roverFinished();
+                        expecting = Expecting.ROVER;
+                        lineNumber++;
+                        continue;
+                    }
+                    byte op = InstructionProgram.decode(character);
+                    if (op == InstructionProgram.INVALID) {
+                        throw new IllegalArgumentException(String.format(
+                                "Invalid instructions given in line %s: %s", lineNumber, (char) (character & 0xFF)));
+                    }
+                    if (op != InstructionProgram.SKIP) {
+                        chunk[chunkLength++] = op;
+                        if (chunkLength == chunk.length) {
+                            listener.instructions(chunk, chunkLength);
+                            chunkLength = 0;
+                        }
+                    }
+                } else if (character == '\n') {
+                    expecting = dispatchHeader(listener, expecting, headerLength);
+                    headerLength = 0;
+                    lineNumber++;
+                } else {
+                    if (headerLength == MAX_HEADER_LENGTH) {
+                        throw new IllegalArgumentException("Line " + lineNumber + " is too long!");
+                    }
+                    headerBuffer[headerLength++] = character;
+                }
+            }
+        }
+
+        // input might not end with a line break
+        if (expecting == Expecting.INSTRUCTIONS) {
+            if (chunkLength > 0) {
+                listener.instructions(chunk, chunkLength);
+            }
+            listener.roverFinished();
+        } else {
+            expecting = dispatchHeader(listener, expecting, headerLength);
+            if (expecting == Expecting.PLATEAU) {
+                throw new IllegalArgumentException("Invalid plateau size!");
+            }
+            if (expecting == Expecting.INSTRUCTIONS) {
+                // last rover without instruction line
+                listener.roverFinished();
+            }
+        }
+        if (Metrics.ENABLED) {
+            Metrics.MISSION_NANOS.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Hands a complete plateau or rover line to the listener. Blank lines are
+     * skipped.
+     * 
+     * @return What the next line has to contain
+     */
+    private Expecting dispatchHeader(MissionListener listener, Expecting expecting, int headerLength) {
+        String line = new String(headerBuffer, 0, headerLength, StandardCharsets.US_ASCII).trim();
+        if (line.isEmpty()) {
+            return expecting;
+        }
+        if (expecting == Expecting.PLATEAU) {
+            listener.plateau(line);
+            return Expecting.ROVER;
+        }
+        listener.rover(line);
+        if (Metrics.ENABLED) {
+            Metrics.PARSED_ROVERS.increment();
+        }
+        return Expecting.INSTRUCTIONS;
+    }
+}
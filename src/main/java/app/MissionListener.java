@@ -0,0 +1,67 @@
+package app;
+
+import java.nio.ByteBuffer;
+
+import engine.InstructionProgram;
+
+/**
+ * Receives the content of a mission file from the {@link MissionFileParser}.
+ */
+public interface MissionListener {
+
+    /**
+     * Called once with the plateau line, e.g. "5 5".
+     */
+    void plateau(String plateauLine);
+
+    /**
+     * Called for every rover with its deploy line, e.g. "1 2 N".
+     */
+    void rover(String deployLine);
+
+    /**
+     * Called zero or more times per rover with the next chunk of its compiled
+     * instructions. The buffer is reused by the parser and must not be kept.
+     * 
+     * @param code Op codes as defined by {@link engine.InstructionProgram}
+     * @param length Number of valid op codes in the buffer
+     */
+    void instructions(byte[] code, int length);
+
+    /**
+     * Called zero or more times per rover with the next range of its raw
+     * instruction text, e.g. by the {@link MappedMissionReader}. The range
+     * doesn't contain line breaks but may contain whitespace and invalid
+     * characters. By default the text is compiled chunk by chunk and passed to
+     * {@link #instructions(byte[], int)}.
+     * 
+     * @param text Buffer holding the instruction text
+     * @param from Absolute index of the first character
+     * @param to Absolute index after the last character
+     */
+    default void instructionText(ByteBuffer text, int from, int to) {
+        byte[] code = new byte[Math.min(to - from, 4096)];
+        int length = 0;
+        for (int position = from; position < to; position++) {
+            byte op = InstructionProgram.decode(text.get(position));
+            if (op == InstructionProgram.INVALID) {
+                throw new IllegalArgumentException("Invalid instructions given: " + (char) (text.get(position) & 0xFF));
+            }
+            if (op != InstructionProgram.SKIP) {
+                code[length++] = op;
+                if (length == code.length) {
+                    instructions(code, length);
+                    length = 0;
+                }
+            }
+        }
+        if (length > 0) {
+            instructions(code, length);
+        }
+    }
+
+    /**
+     * Called after the last instruction chunk of a rover.
+     */
+    void roverFinished();
+}
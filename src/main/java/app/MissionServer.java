@@ -0,0 +1,361 @@
+package app;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.ByteArrayInputStream;
+import java.io.CharArrayWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import com.google.common.collect.Lists;
+
+import model.World;
+import output.TextResultSink;
+
+/**
+ * Long-running server that executes missions sent over a loopback TCP
+ * connection, so the JVM is started and warmed up only once for any number of
+ * missions.
+ * <p>
+ * A client sends missions in the format of a mission file (see
+ * {@link MissionFileParser}). Each mission is terminated by a line consisting
+ * of {@link #END_OF_MISSION} or by the end of the client's output. For every
+ * mission the server answers with the console output of its rovers followed
+ * by an {@link #END_OF_MISSION} line. Missions of one connection are answered
+ * in the order they were sent.
+ * <p>
+ * A single selector thread does all socket I/O. Missions that arrive within
+ * one selection round are handed to the executor together, in batches of up to
+ * {@code maxBatchSize} missions. Every mission runs in its own {@link World}.
+ * A failing connection is closed and a failed accept is reported to standard
+ * error; neither stops the server.
+ */
+public class MissionServer implements Closeable {
+
+    public static final String END_OF_MISSION = ".";
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Executor executor;
+    private final int maxBatchSize;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread selectorThread;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    /** missions read in the current selection round, only used by the selector thread */
+    private final List<Request> pending = Lists.newArrayList();
+    /** connections with finished missions */
+    private final Queue<Connection> answered = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+
+    /**
+     * Creates a server on the given loopback port that executes missions in
+     * the common fork/join pool.
+     */
+    public MissionServer(int port) throws IOException {
+        this(port, ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param port Loopback port to listen on, {@code 0} for any free port
+     * @param executor Executes the batches of missions
+     * @param maxBatchSize Maximum number of missions executed by one task
+     */
+    public MissionServer(int port, Executor executor, int maxBatchSize) throws IOException {
+        checkArgument(maxBatchSize > 0, "Invalid batch size: %s", maxBatchSize);
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.selectorThread = new Thread(this::serve, "mission-server");
+    }
+
+    public void start() {
+        checkState(!selectorThread.isAlive(), "The server has already been started!");
+        selectorThread.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Stops accepting and reading missions and closes all connections.
+     * Missions that are still being executed aren't answered anymore.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void serve() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid() && key.isAcceptable()) {
+                        try {
+                            accept();
+                        } catch (IOException ex) {
+                            // e.g. out of file descriptors, the server keeps serving its connections
+                            System.err.println("Accepting a connection failed: " + ex.getMessage());
+                        }
+                    } else if (key.isValid()) {
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isReadable()) {
+                                connection.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.write();
+                            }
+                        } catch (IOException | CancelledKeyException ex) {
+                            // the client is gone
+                            connection.close();
+                        }
+                    }
+                }
+                dispatchPending();
+                Connection connection;
+                while ((connection = answered.poll()) != null) {
+                    if (!connection.key.isValid()) {
+                        continue; // closed while its mission was executed
+                    }
+                    try {
+                        connection.write();
+                    } catch (IOException | CancelledKeyException ex) {
+                        connection.close();
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key.channel());
+            }
+            closeQuietly(selector);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    /**
+     * Hands the missions read in this selection round to the executor.
+     */
+    private void dispatchPending() {
+        for (int from = 0; from < pending.size(); from += maxBatchSize) {
+            List<Request> batch = Lists.newArrayList(pending.subList(from, Math.min(pending.size(), from
+                    + maxBatchSize)));
+            executor.execute(() -> execute(batch));
+        }
+        pending.clear();
+    }
+
+    private void execute(List<Request> batch) {
+        for (Request request : batch) {
+            request.response = run(request.mission);
+            answered.add(request.connection);
+        }
+        selector.wakeup();
+    }
+
+    /**
+     * Executes a single mission in a new world.
+     * 
+     * @return The response to send to the client
+     */
+    private static ByteBuffer run(byte[] mission) {
+        CharArrayWriter output = new CharArrayWriter();
+        try {
+            new InputHandler(new World(), new TextResultSink(output, output))
+                    .processMission(new ByteArrayInputStream(mission));
+        } catch (IOException | RuntimeException ex) {
+            output.append("Invalid mission: ").append(String.valueOf(ex.getMessage())).append('\n');
+        }
+        output.append(END_OF_MISSION).append('\n');
+        return StandardCharsets.US_ASCII.encode(CharBuffer.wrap(output.toCharArray()));
+    }
+
+    private static boolean isBlank(byte[] bytes, int length) {
+        for (int i = 0; i < length; i++) {
+            if (!Character.isWhitespace(bytes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ex) {
+            // nothing left to do
+        }
+    }
+
+    /**
+     * A mission and, once it has been executed, its response.
+     */
+    private static final class Request {
+        private final Connection connection;
+        private final byte[] mission;
+        private volatile ByteBuffer response;
+
+        Request(Connection connection, byte[] mission) {
+            this.connection = connection;
+            this.mission = mission;
+        }
+    }
+
+    /**
+     * State of a client connection. Only used by the selector thread.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        /** received bytes of the current mission */
+        private byte[] input = new byte[256];
+        private int inputLength;
+        private int lineStart;
+        /** missions in the order they were received, until they are answered */
+        private final Queue<Request> requests = new ArrayDeque<>();
+        private ByteBuffer output;
+        private boolean inputClosed;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void read() throws IOException {
+            readBuffer.clear();
+            int bytesRead = channel.read(readBuffer);
+            if (bytesRead < 0) {
+                inputClosed = true;
+                if (lineStart < inputLength) {
+                    // the last line may lack its line break
+                    append((byte) '\n');
+                }
+                if (!isBlank(input, inputLength)) {
+                    request(inputLength);
+                }
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                closeIfDone();
+                return;
+            }
+            for (int i = 0; i < bytesRead; i++) {
+                byte character = readBuffer.get(i);
+                append(character);
+                if (character == '\n') {
+                    int lineEnd = inputLength - 1;
+                    if (lineEnd > lineStart && input[lineEnd - 1] == '\r') {
+                        lineEnd--;
+                    }
+                    if (lineEnd - lineStart == 1 && input[lineStart] == END_OF_MISSION.charAt(0)) {
+                        request(lineStart);
+                    } else {
+                        lineStart = inputLength;
+                    }
+                }
+            }
+        }
+
+        private void append(byte character) {
+            if (inputLength == input.length) {
+                input = Arrays.copyOf(input, input.length << 1);
+            }
+            input[inputLength++] = character;
+        }
+
+        private void request(int missionLength) {
+            Request request = new Request(this, Arrays.copyOf(input, missionLength));
+            requests.add(request);
+            pending.add(request);
+            inputLength = 0;
+            lineStart = 0;
+        }
+
+        /**
+         * Sends the responses of all answered missions at the head of the
+         * queue, as far as the socket accepts them.
+         */
+        void write() throws IOException {
+            if (!channel.isOpen()) {
+                return;
+            }
+            while (true) {
+                if (output == null) {
+                    Request head = requests.peek();
+                    if (head == null || head.response == null) {
+                        break;
+                    }
+                    requests.remove();
+                    output = head.response;
+                }
+                channel.write(output);
+                if (output.hasRemaining()) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                    return;
+                }
+                output = null;
+            }
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            closeIfDone();
+        }
+
+        private void closeIfDone() {
+            if (inputClosed && output == null && requests.isEmpty()) {
+                close();
+            }
+        }
+
+        void close() {
+            key.cancel();
+            closeQuietly(channel);
+        }
+    }
+}
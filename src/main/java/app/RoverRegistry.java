@@ -1,20 +1,50 @@
 package app;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 
+import model.FleetStore;
 import model.Rover;
+import model.World;
 
+/**
+ * Registry of all rovers deployed in the default {@link World}. Use separate
+ * {@link World} instances to run independent missions side by side.
+ */
 public class RoverRegistry {
 
-    private static Map<Long, Rover> roverMap = new HashMap<Long, Rover>();
-
     public static void registerRover(long id, Rover rover) {
-        roverMap.put(id, rover);
+        World.getDefault().registerRover(id, rover);
+    }
+
+    /**
+     * Replaces all registered rovers by the active slots of the given fleet,
+     * e.g. after restoring a snapshot.
+     * 
+     * @see World#restore(FleetStore)
+     */
+    public static void restore(FleetStore restoredFleet) {
+        World.getDefault().restore(restoredFleet);
     }
 
+    /**
+     * Returns views on all currently registered rovers.
+     */
     public static Collection<Rover> getDeployedRovers() {
-        return roverMap.values();
+        return World.getDefault().getDeployedRovers();
+    }
+
+    /**
+     * Returns the store holding the state of all registered rovers, e.g. for
+     * bulk processing.
+     */
+    public static FleetStore getFleet() {
+        return World.getDefault().getFleet();
+    }
+
+    /**
+     * Checks in O(1) if any registered rover stands on the given position.
+     */
+    public static boolean isPositionOccupied(int xValue, int yValue) {
+        return World.getDefault().isPositionOccupied(xValue, yValue);
     }
 }
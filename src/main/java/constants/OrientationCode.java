@@ -0,0 +1,77 @@
+package constants;
+
+/**
+ * Packed 2-bit encoding of an {@link Orientation}: its ordinal, i.e. N=0,
+ * E=1, S=2, W=3. Turning is plain arithmetic on the code and the step of a
+ * move is looked up in precomputed tables, so none of the engines needs a
+ * {@code switch} over the enum.
+ */
+public final class OrientationCode {
+
+    public static final byte N = 0;
+    public static final byte E = 1;
+    public static final byte S = 2;
+    public static final byte W = 3;
+
+    private static final Orientation[] ORIENTATIONS = Orientation.values();
+    // indexed by code: N, E, S, W
+    private static final int[] DELTA_X = { 0, 1, 0, -1 };
+    private static final int[] DELTA_Y = { 1, 0, -1, 0 };
+
+    private OrientationCode() {
+    }
+
+    public static byte of(Orientation orientation) {
+        return (byte) orientation.ordinal();
+    }
+
+    public static Orientation toOrientation(int code) {
+        return ORIENTATIONS[code];
+    }
+
+    /**
+     * Returns the code after a quarter turn to the left.
+     */
+    public static int left(int code) {
+        return (code + 3) & 3;
+    }
+
+    /**
+     * Returns the code after a quarter turn to the right.
+     */
+    public static int right(int code) {
+        return (code + 1) & 3;
+    }
+
+    /**
+     * Returns the code after the given number of quarter turns to the right
+     * (negative for turns to the left).
+     */
+    public static int rotate(int code, int rightTurns) {
+        return (code + rightTurns) & 3;
+    }
+
+    /**
+     * Returns {@code true} for N and S, i.e. if a move changes the
+     * Y-coordinate.
+     */
+    public static boolean isAlongY(int code) {
+        return (code & 1) == 0;
+    }
+
+    public static int deltaX(int code) {
+        return DELTA_X[code];
+    }
+
+    public static int deltaY(int code) {
+        return DELTA_Y[code];
+    }
+
+    /**
+     * Returns +1 if a move increases the coordinate along the orientation
+     * (N, E), -1 otherwise (S, W).
+     */
+    public static int sign(int code) {
+        return 1 - (code & 2);
+    }
+}
@@ -0,0 +1,267 @@
+package coverage;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import model.ChunkedGrid;
+import model.FleetStore;
+import model.OccupancyIndex;
+
+/**
+ * Cells visited by the rovers of a {@link FleetStore}. Attached to a store by
+ * {@link FleetStore#setCoverage(CoverageMap)}, it receives every cell a rover
+ * moves onto from the {@link model.Rover}, the
+ * {@link engine.InstructionEngine} and the {@link engine.TickSimulator}.
+ * <p>
+ * Visited cells are bits of a {@link ChunkedGrid} of 64 x 64 cell tiles, so
+ * recording a step mostly sets a bit in the tile of the previous step. A
+ * counting map additionally counts the visits per cell for heatmaps in tiles
+ * of 32 x 32 int counters, allocated on demand the same way.
+ * <p>
+ * A map isn't thread safe. Threads record into maps of their own which are
+ * combined by {@link #merge(CoverageMap)} afterwards.
+ * <p>
+ * The compressed format written by {@link #writeCompressed(OutputStream)} is
+ * a GZIP stream of big-endian values:
+ * 
+ * <pre>
+ * int magic, short version, byte tileShift, byte counting, int tileCount,
+ * tileCount * (long tileKey, long[wordsPerTile] bits),
+ * if counting: int countTileCount, countTileCount * (long tileKey, int[1024] visits)
+ * </pre>
+ */
+public class CoverageMap {
+
+    /** "MRCV" */
+    public static final int MAGIC = 0x4D524356;
+    public static final short VERSION = 1;
+
+    /** Maximal number of pixels of an exported image */
+    public static final long MAX_IMAGE_PIXELS = 1L << 30;
+
+    private static final int TILE_SHIFT = ChunkedGrid.MAX_TILE_SHIFT;
+    private static final int COUNT_TILE_SHIFT = 5;
+
+    private final ChunkedGrid visitedCells = new ChunkedGrid(TILE_SHIFT);
+    private final VisitCounts visitCounts;
+
+    /**
+     * Creates a map that only records whether a cell has been visited.
+     */
+    public CoverageMap() {
+        this(false);
+    }
+
+    /**
+     * @param counting {@code true} if the visits per cell are counted
+     */
+    public CoverageMap(boolean counting) {
+        this.visitCounts = counting ? new VisitCounts(COUNT_TILE_SHIFT) : null;
+    }
+
+    /**
+     * Reads a map written by {@link #writeCompressed(OutputStream)}.
+     * 
+     * @throws IOException if the stream can't be read or isn't a coverage map
+     */
+    public static CoverageMap readCompressed(InputStream input) throws IOException {
+        DataInputStream data = new DataInputStream(new GZIPInputStream(input, 1 << 16));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("The stream doesn't hold a coverage map!");
+        }
+        short version = data.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported coverage map version: " + version);
+        }
+        if (data.readByte() != TILE_SHIFT) {
+            throw new IOException("Unsupported tile size!");
+        }
+        CoverageMap coverage = new CoverageMap(data.readBoolean());
+        long[] tileWords = new long[coverage.visitedCells.getWordsPerTile()];
+        for (int tile = data.readInt(); tile > 0; tile--) {
+            long tileKey = data.readLong();
+            for (int word = 0; word < tileWords.length; word++) {
+                tileWords[word] = data.readLong();
+            }
+            coverage.visitedCells.orTile(tileKey, tileWords, 0);
+        }
+        if (coverage.isCounting()) {
+            int[] tileCounts = new int[coverage.visitCounts.cellsPerTile()];
+            for (int tile = data.readInt(); tile > 0; tile--) {
+                long tileKey = data.readLong();
+                for (int cell = 0; cell < tileCounts.length; cell++) {
+                    tileCounts[cell] = data.readInt();
+                }
+                coverage.visitCounts.addTile(tileKey, tileCounts, 0);
+            }
+        }
+        return coverage;
+    }
+
+    public boolean isCounting() {
+        return visitCounts != null;
+    }
+
+    /**
+     * Records a visit of the given cell.
+     */
+    public void visited(int xValue, int yValue) {
+        visitedCells.set(xValue, yValue);
+        if (visitCounts != null) {
+            visitCounts.add(xValue, yValue, 1);
+        }
+    }
+
+    public boolean isVisited(int xValue, int yValue) {
+        return visitedCells.get(xValue, yValue);
+    }
+
+    /**
+     * Returns the number of visits of the given cell; a map that doesn't count
+     * returns one for every visited cell.
+     */
+    public int getVisits(int xValue, int yValue) {
+        if (visitCounts != null) {
+            return visitCounts.get(xValue, yValue);
+        }
+        return visitedCells.get(xValue, yValue) ? 1 : 0;
+    }
+
+    /**
+     * Returns the number of distinct visited cells.
+     */
+    public long getVisitedCount() {
+        return visitedCells.getCardinality();
+    }
+
+    /**
+     * Adds the visits recorded by the other map, e.g. the map of another
+     * thread. Visits of a map that doesn't count are counted once per cell.
+     */
+    public void merge(CoverageMap other) {
+        visitedCells.or(other.visitedCells);
+        if (visitCounts == null) {
+            return;
+        }
+        if (other.visitCounts != null) {
+            visitCounts.addAll(other.visitCounts);
+        } else {
+            other.visitedCells.forEachSetCell(
+                    cellKey -> visitCounts.add(OccupancyIndex.xValueOf(cellKey), OccupancyIndex.yValueOf(cellKey), 1));
+        }
+    }
+
+    public void clear() {
+        visitedCells.clear();
+        if (visitCounts != null) {
+            visitCounts.clear();
+        }
+    }
+
+    /**
+     * Returns the bounds of all visited cells (min X, min Y, max X, max Y) or
+     * {@code null} if no cell has been visited.
+     */
+    public int[] bounds() {
+        if (visitedCells.isEmpty()) {
+            return null;
+        }
+        int[] bounds = { Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE };
+        visitedCells.forEachSetCell(cellKey -> {
+            int xValue = OccupancyIndex.xValueOf(cellKey);
+            int yValue = OccupancyIndex.yValueOf(cellKey);
+            bounds[0] = Math.min(bounds[0], xValue);
+            bounds[1] = Math.min(bounds[1], yValue);
+            bounds[2] = Math.max(bounds[2], xValue);
+            bounds[3] = Math.max(bounds[3], yValue);
+        });
+        return bounds;
+    }
+
+    /**
+     * Writes the map in the compressed format described above. The stream
+     * isn't closed.
+     */
+    public void writeCompressed(OutputStream output) throws IOException {
+        GZIPOutputStream compressed = new GZIPOutputStream(output, 1 << 16);
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(compressed, 1 << 16));
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeByte(TILE_SHIFT);
+        data.writeBoolean(isCounting());
+        data.writeInt(visitedCells.getTileCount());
+        for (int slot = 0; slot < visitedCells.getTileCount(); slot++) {
+            data.writeLong(visitedCells.tileKeyAt(slot));
+            for (int word = 0; word < visitedCells.getWordsPerTile(); word++) {
+                data.writeLong(visitedCells.wordAt(slot, word));
+            }
+        }
+        if (isCounting()) {
+            data.writeInt(visitCounts.tileCount());
+            int[] counts = visitCounts.counts();
+            for (int slot = 0; slot < visitCounts.tileCount(); slot++) {
+                data.writeLong(visitCounts.tileKeyAt(slot));
+                for (int cell = slot * visitCounts.cellsPerTile(); cell < (slot + 1) * visitCounts.cellsPerTile();
+                        cell++) {
+                    data.writeInt(counts[cell]);
+                }
+            }
+        }
+        data.flush();
+        compressed.finish();
+    }
+
+    /**
+     * Writes the bounds of all visited cells as binary PGM image.
+     * 
+     * @throws IllegalStateException if no cell has been visited
+     * @see #writePgm(OutputStream, int, int, int, int)
+     */
+    public void writePgm(OutputStream output) throws IOException {
+        int[] bounds = bounds();
+        if (bounds == null) {
+            throw new IllegalStateException("No cell has been visited!");
+        }
+        writePgm(output, bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+
+    /**
+     * Writes the given rectangle (bounds included) as binary PGM image with
+     * north at the top. Unvisited cells are black, visited cells white or, if
+     * the visits are counted, the brighter the more often they have been
+     * visited. The stream isn't closed.
+     * 
+     * @throws IllegalArgumentException if the image would exceed
+     *             {@link #MAX_IMAGE_PIXELS}
+     */
+    public void writePgm(OutputStream output, int minXValue, int minYValue, int maxXValue, int maxYValue)
+        throws IOException {
+        checkArgument(minXValue <= maxXValue && minYValue <= maxYValue, "Invalid rectangle: %s %s %s %s",
+                minXValue, minYValue, maxXValue, maxYValue);
+        long width = (long) maxXValue - minXValue + 1;
+        long height = (long) maxYValue - minYValue + 1;
+        checkArgument(width * height <= MAX_IMAGE_PIXELS, "The image is too large: %s x %s", width, height);
+        int maxVisits = visitCounts == null ? 1 : Math.max(1, visitCounts.max());
+
+        BufferedOutputStream buffered = new BufferedOutputStream(output, 1 << 16);
+        buffered.write(String.format("P5\n%s %s\n255\n", width, height).getBytes(StandardCharsets.US_ASCII));
+        byte[] row = new byte[(int) width];
+        for (long yValue = maxYValue; yValue >= minYValue; yValue--) {
+            for (int column = 0; column < row.length; column++) {
+                int visits = getVisits(minXValue + column, (int) yValue);
+                row[column] = (byte) (visits == 0 ? 0 : Math.max(1, (long) visits * 255 / maxVisits));
+            }
+            buffered.write(row);
+        }
+        buffered.flush();
+    }
+}
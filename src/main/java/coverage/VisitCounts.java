@@ -0,0 +1,123 @@
+package coverage;
+
+import java.util.Arrays;
+
+import model.OccupancyIndex;
+import util.LongIntHashMap;
+
+/**
+ * Visit counters of the cells of an unbounded plateau, laid out like a
+ * {@link model.ChunkedGrid}: square tiles of {@code 2^tileShift} cells per
+ * side hold one int per cell and are allocated on the first visit of one of
+ * their cells. The counters of all tiles are kept in one array; the tile of
+ * the last visit is remembered, so a walk through neighbouring cells mostly
+ * increments a counter without any hash lookup.
+ */
+final class VisitCounts {
+
+    private static final int NO_SLOT = -1;
+    private static final int INITIAL_TILES = 4;
+
+    private final int tileShift;
+    private final int tileMask;
+    private final int cellsPerTile;
+    private final LongIntHashMap slotByTileKey = new LongIntHashMap();
+    private long[] tileKeys = new long[INITIAL_TILES];
+    private int[] counts;
+    private int tileCount;
+    private long lastTileKey;
+    private int lastSlot = NO_SLOT;
+
+    VisitCounts(int tileShift) {
+        this.tileShift = tileShift;
+        this.tileMask = (1 << tileShift) - 1;
+        this.cellsPerTile = 1 << (2 * tileShift);
+        this.counts = new int[INITIAL_TILES * cellsPerTile];
+    }
+
+    int cellsPerTile() {
+        return cellsPerTile;
+    }
+
+    int tileCount() {
+        return tileCount;
+    }
+
+    void add(int xValue, int yValue, int visits) {
+        long tileKey = OccupancyIndex.cellKey(xValue >> tileShift, yValue >> tileShift);
+        int slot = lastSlot != NO_SLOT && tileKey == lastTileKey ? lastSlot : slotForWrite(tileKey);
+        counts[slot * cellsPerTile + ((yValue & tileMask) << tileShift | (xValue & tileMask))] += visits;
+    }
+
+    int get(int xValue, int yValue) {
+        int slot = slotByTileKey.get(OccupancyIndex.cellKey(xValue >> tileShift, yValue >> tileShift), NO_SLOT);
+        if (slot == NO_SLOT) {
+            return 0;
+        }
+        return counts[slot * cellsPerTile + ((yValue & tileMask) << tileShift | (xValue & tileMask))];
+    }
+
+    /**
+     * Returns the highest count of any cell.
+     */
+    int max() {
+        int max = 0;
+        for (int i = 0; i < tileCount * cellsPerTile; i++) {
+            max = Math.max(max, counts[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Adds the counters of the given tile.
+     * 
+     * @param tileCounts {@link #cellsPerTile()} counters, row by row
+     */
+    void addTile(long tileKey, int[] tileCounts, int offset) {
+        int base = slotForWrite(tileKey) * cellsPerTile;
+        for (int cell = 0; cell < cellsPerTile; cell++) {
+            counts[base + cell] += tileCounts[offset + cell];
+        }
+    }
+
+    void addAll(VisitCounts other) {
+        for (int slot = 0; slot < other.tileCount; slot++) {
+            addTile(other.tileKeys[slot], other.counts, slot * cellsPerTile);
+        }
+    }
+
+    long tileKeyAt(int slot) {
+        return tileKeys[slot];
+    }
+
+    /**
+     * Returns the array holding the counters; those of tile {@code slot}
+     * start at {@code slot * cellsPerTile()}.
+     */
+    int[] counts() {
+        return counts;
+    }
+
+    void clear() {
+        slotByTileKey.clear();
+        Arrays.fill(counts, 0, tileCount * cellsPerTile, 0);
+        tileCount = 0;
+        lastSlot = NO_SLOT;
+    }
+
+    private int slotForWrite(long tileKey) {
+        int slot = slotByTileKey.get(tileKey, NO_SLOT);
+        if (slot == NO_SLOT) {
+            if (tileCount == tileKeys.length) {
+                tileKeys = Arrays.copyOf(tileKeys, tileCount * 2);
+                counts = Arrays.copyOf(counts, tileCount * 2 * cellsPerTile);
+            }
+            slot = tileCount++;
+            tileKeys[slot] = tileKey;
+            slotByTileKey.put(tileKey, slot, NO_SLOT);
+        }
+        lastTileKey = tileKey;
+        lastSlot = slot;
+        return slot;
+    }
+}
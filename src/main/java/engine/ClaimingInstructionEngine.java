@@ -0,0 +1,39 @@
+package engine;
+
+import app.ConcurrentRoverRegistry;
+import model.Plateau;
+import model.Rover;
+import model.exception.PlateauExceededException;
+import model.exception.PositionBlockedException;
+
+/**
+ * Variant of the {@link InstructionEngine} for rovers registered in a
+ * {@link ConcurrentRoverRegistry}. Every move atomically claims its target
+ * cell in the registry's occupancy index, so many threads can execute
+ * programs of different rovers at the same time without ever putting two
+ * rovers on one cell. Apart from that, programs are executed by the
+ * {@link InstructionEngine}.
+ */
+public class ClaimingInstructionEngine {
+
+    private final InstructionEngine engine;
+
+    public ClaimingInstructionEngine(ConcurrentRoverRegistry registry) {
+        this.engine = new InstructionEngine(Plateau.global(), registry.getOccupancyIndex()::tryMove);
+    }
+
+    /**
+     * Executes the whole program. On failure the rover stays at the position
+     * it had reached before the failing step.
+     * 
+     * @param rover A rover registered in the engine's registry
+     * @param program The compiled instructions
+     * @throws PlateauExceededException if a move would exceed the plateau
+     * @throws PositionBlockedException if a move is blocked by an obstacle or
+     *             another rover
+     */
+    public void execute(Rover rover, InstructionProgram program)
+        throws PlateauExceededException, PositionBlockedException {
+        engine.execute(rover, program);
+    }
+}
@@ -0,0 +1,146 @@
+package engine;
+
+import model.exception.PlateauExceededException;
+import model.exception.PositionBlockedException;
+
+/**
+ * Reusable outcome of an {@link InstructionEngine} run. A failed move is
+ * reported by a status code together with the failing step, the cell the
+ * rover tried to move to and the id of the blocking rover, so that failures
+ * neither create exceptions nor format messages. Exceptions are only created
+ * on demand by {@link #getFailure()}.
+ * <p>
+ * A succeeded result can be passed to several runs in a row, e.g. for the
+ * chunks of one long program; it counts the executed instructions across all
+ * of them until it is {@link #reset()}.
+ */
+public class ExecutionResult {
+
+    public static final byte SUCCEEDED = 0;
+    public static final byte X_VALUE_EXCEEDED = 1;
+    public static final byte Y_VALUE_EXCEEDED = 2;
+    public static final byte POSITION_BLOCKED = 3;
+    public static final byte OBSTACLE_HIT = 4;
+    /**
+     * The run stopped in front of the border of the engine (see
+     * {@link InstructionEngine.Border}); the failed step is the move onto
+     * the cell beyond it. This isn't a failure of the rover.
+     */
+    public static final byte BORDER_REACHED = 5;
+
+    /** Blocking rover id if the blocking rover isn't known */
+    public static final long UNKNOWN_ROVER = Long.MIN_VALUE;
+
+    private byte status;
+    private long executedSteps;
+    private long failedStep;
+    private int failedXValue;
+    private int failedYValue;
+    private long blockingRoverId = UNKNOWN_ROVER;
+
+    /**
+     * Marks the result as succeeded, e.g. before it is reused for another
+     * rover.
+     */
+    public void reset() {
+        status = SUCCEEDED;
+        executedSteps = 0;
+        blockingRoverId = UNKNOWN_ROVER;
+    }
+
+    void succeed(int steps) {
+        executedSteps += steps;
+    }
+
+    void fail(byte failureStatus, long step, int xValue, int yValue, long blockingRoverId) {
+        this.status = failureStatus;
+        this.executedSteps = step;
+        this.failedStep = step;
+        this.failedXValue = xValue;
+        this.failedYValue = yValue;
+        this.blockingRoverId = blockingRoverId;
+    }
+
+    public byte getStatus() {
+        return status;
+    }
+
+    public boolean isSucceeded() {
+        return status == SUCCEEDED;
+    }
+
+    /**
+     * Returns the number of instructions executed since the last reset,
+     * excluding a failed one.
+     */
+    public long getExecutedSteps() {
+        return executedSteps;
+    }
+
+    /**
+     * Returns the index of the instruction that failed, counted since the
+     * last reset.
+     */
+    public long getFailedStep() {
+        return failedStep;
+    }
+
+    /**
+     * Returns the X-coordinate the failed move tried to reach.
+     */
+    public int getFailedXValue() {
+        return failedXValue;
+    }
+
+    /**
+     * Returns the Y-coordinate the failed move tried to reach.
+     */
+    public int getFailedYValue() {
+        return failedYValue;
+    }
+
+    /**
+     * Returns the id of the rover that blocked the failed move or
+     * {@link #UNKNOWN_ROVER} if the move wasn't blocked or the engine doesn't
+     * know the rovers' ids.
+     */
+    public long getBlockingRoverId() {
+        return blockingRoverId;
+    }
+
+    /**
+     * Returns the exception the failed move would have thrown or {@code null}
+     * if the run succeeded or stopped at a border.
+     */
+    public Exception getFailure() {
+        return failureOf(status, failedXValue, failedYValue);
+    }
+
+    /**
+     * Throws the exception the failed move would have thrown, if any.
+     */
+    public void throwIfFailed() throws PlateauExceededException, PositionBlockedException {
+        Exception failure = getFailure();
+        if (failure instanceof PlateauExceededException) {
+            throw (PlateauExceededException) failure;
+        }
+        if (failure instanceof PositionBlockedException) {
+            throw (PositionBlockedException) failure;
+        }
+    }
+
+    static Exception failureOf(byte status, int failedXValue, int failedYValue) {
+        switch (status) {
+            case X_VALUE_EXCEEDED:
+                return PlateauExceededException.forXValue(failedXValue);
+            case Y_VALUE_EXCEEDED:
+                return PlateauExceededException.forYValue(failedYValue);
+            case POSITION_BLOCKED:
+                return PositionBlockedException.forPosition(failedXValue, failedYValue);
+            case OBSTACLE_HIT:
+                return PositionBlockedException.forObstacle(failedXValue, failedYValue);
+            default:
+                return null;
+        }
+    }
+}
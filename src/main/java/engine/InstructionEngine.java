@@ -0,0 +1,679 @@
+package engine;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+import constants.OrientationCode;
+import coverage.CoverageMap;
+import metrics.Metrics;
+import model.FleetStore;
+import model.OccupancyIndex;
+import model.Plateau;
+import model.Rover;
+import model.TerrainMap;
+import model.World;
+import model.exception.PlateauExceededException;
+import model.exception.PositionBlockedException;
+import snapshot.MoveJournal;
+
+/**
+ * Executes compiled {@link InstructionProgram}s in a tight loop. The rover's
+ * state is kept in local variables while running; movements and turns are
+ * computed from the {@link OrientationCode} instead of being dispatched by
+ * {@code switch} statements. Results and errors are the same as executing the
+ * instructions one by one on the {@link Rover}; a move is blocked by an
+ * obstacle of the plateau's {@link TerrainMap} or by another rover.
+ * <p>
+ * Every method is available in two flavours: one throws the same exceptions as
+ * a moving {@link Rover}, the other reports failures through a
+ * reusable {@link ExecutionResult} and allocates nothing when a move fails.
+ * If the rover's store has a {@link MoveJournal}, the executed instructions
+ * are appended to it after each run; if it has a {@link CoverageMap}, every
+ * cell moved onto is recorded in it. Each run is recorded in the
+ * {@link Metrics}.
+ */
+public class InstructionEngine {
+
+    private final OccupancyIndex occupancyIndex;
+    private final FleetStore fleet;
+    private final Plateau plateau;
+    private final TerrainMap terrain;
+    private final CellClaim cellClaim;
+    private final Border border;
+
+    /**
+     * Creates an engine that checks for rovers registered in the default
+     * {@link World}.
+     */
+    public InstructionEngine() {
+        this(World.getDefault());
+    }
+
+    /**
+     * Creates an engine that moves rovers on the plateau of the given world
+     * and checks for the rovers registered in it.
+     */
+    public InstructionEngine(World world) {
+        this(world.getFleet(), world.getPlateau());
+    }
+
+    /**
+     * Creates an engine that checks for the active rovers of the given fleet
+     * and reports their ids if they block a move. The rovers move on the
+     * plateau of the default world.
+     */
+    public InstructionEngine(FleetStore fleet) {
+        this(fleet, Plateau.global());
+    }
+
+    public InstructionEngine(FleetStore fleet, Plateau plateau) {
+        checkArgument(fleet.getOccupancyIndex() != null, "The fleet has no occupancy index!");
+        this.occupancyIndex = fleet.getOccupancyIndex();
+        this.fleet = fleet;
+        this.plateau = plateau;
+        this.terrain = plateau.getTerrain();
+        this.cellClaim = null;
+        this.border = null;
+    }
+
+    /**
+     * Creates an engine that moves rovers within the given border on the
+     * plateau of the given world and checks for the rovers registered in it.
+     * A move onto a cell beyond the border that isn't an obstacle stops the
+     * run with {@link ExecutionResult#BORDER_REACHED}; the rover stays in
+     * front of the border.
+     */
+    public InstructionEngine(World world, Border border) {
+        checkArgument(border != null, "No border given!");
+        this.occupancyIndex = world.getFleet().getOccupancyIndex();
+        this.fleet = world.getFleet();
+        this.plateau = world.getPlateau();
+        this.terrain = plateau.getTerrain();
+        this.cellClaim = null;
+        this.border = border;
+    }
+
+    public InstructionEngine(OccupancyIndex occupancyIndex) {
+        this.occupancyIndex = occupancyIndex;
+        this.fleet = null;
+        this.plateau = Plateau.global();
+        this.terrain = plateau.getTerrain();
+        this.cellClaim = null;
+        this.border = null;
+    }
+
+    /**
+     * Creates an engine whose rovers aren't tracked in an occupancy index of
+     * the engine. Every move that isn't blocked by the terrain claims its
+     * target cell instead, and fails if the claim doesn't succeed.
+     */
+    InstructionEngine(Plateau plateau, CellClaim cellClaim) {
+        this.occupancyIndex = new OccupancyIndex();
+        this.fleet = null;
+        this.plateau = plateau;
+        this.terrain = plateau.getTerrain();
+        this.cellClaim = cellClaim;
+        this.border = null;
+    }
+
+    /**
+     * Executes the whole program.
+     * 
+     * @see #execute(Rover, byte[], int, int)
+     */
+    public void execute(Rover rover, InstructionProgram program)
+        throws PlateauExceededException, PositionBlockedException {
+        execute(rover, program.code(), 0, program.length());
+    }
+
+    /**
+     * Executes the whole program without throwing on failed moves.
+     * 
+     * @see #execute(Rover, byte[], int, int, ExecutionResult)
+     */
+    public boolean execute(Rover rover, InstructionProgram program, ExecutionResult result) {
+        return execute(rover, program.code(), 0, program.length(), result);
+    }
+
+    /**
+     * Executes the op codes {@code code[from]} to {@code code[to - 1]}. On
+     * failure the rover stays at the position it had reached before the
+     * failing step.
+     * 
+     * @param rover The rover that executes the instructions
+     * @param code Compiled op codes (see {@link InstructionProgram})
+     * @param from Index of the first op code to execute
+     * @param to Index after the last op code to execute
+     * @throws PlateauExceededException if a move would exceed the plateau
+     * @throws PositionBlockedException if a move is blocked by another rover
+     */
+    public void execute(Rover rover, byte[] code, int from, int to)
+        throws PlateauExceededException, PositionBlockedException {
+        ExecutionResult result = new ExecutionResult();
+        execute(rover, code, from, to, result);
+        result.throwIfFailed();
+    }
+
+    /**
+     * Executes the op codes {@code code[from]} to {@code code[to - 1]} like
+     * {@link #execute(Rover, byte[], int, int)} does, but reports a failed
+     * move through the given result instead of an exception.
+     * 
+     * @param result Result to continue, it is reset first if it has failed
+     * @return {@code true} if all op codes have been executed
+     */
+    public boolean execute(Rover rover, byte[] code, int from, int to, ExecutionResult result) {
+        checkPositionIndexes(from, to, code.length);
+        continueResult(result);
+        if (from == to) {
+            return true;
+        }
+        long stepsBefore = result.getExecutedSteps();
+        long startNanos = Metrics.ENABLED ? System.nanoTime() : 0;
+        try {
+            return step(rover, code, from, to, result, plateau.signedLimits());
+        } finally {
+            if (Metrics.ENABLED) {
+                Metrics.recordRun(result, stepsBefore, startNanos);
+            }
+        }
+    }
+
+    /**
+     * Executes the op codes {@code code[from]} to {@code code[to - 1]} step by
+     * step without recording the run in the {@link Metrics}.
+     * 
+     * @param signedLimits {@link Plateau#signedLimits()} of the engine's
+     *            plateau
+     */
+    private boolean step(Rover rover, byte[] code, int from, int to, ExecutionResult result, long[] signedLimits) {
+        FleetStore store = rover.getFleetStore();
+        int index = rover.getFleetIndex();
+        checkState(store.getOrientationCode(index) != FleetStore.NO_ORIENTATION,
+                "The rover hasn't been deployed yet!");
+
+        int xValue = store.getxValue(index);
+        int yValue = store.getyValue(index);
+        int orientation = store.getOrientationCode(index);
+        boolean lifted = liftOut(store, index);
+        CoverageMap coverage = store.getCoverage();
+        int pc = from;
+        RuntimeException failure = null;
+        try {
+            for (; pc < to; pc++) {
+                byte op = code[pc];
+                if (op == InstructionProgram.MOVE) {
+                    int newXValue = xValue + OrientationCode.deltaX(orientation);
+                    int newYValue = yValue + OrientationCode.deltaY(orientation);
+                    boolean alongY = OrientationCode.isAlongY(orientation);
+                    long along = (long) (alongY ? yValue : xValue) * OrientationCode.sign(orientation);
+                    if (along >= signedLimits[orientation]) {
+                        failExceeded(result, alongY, pc - from, newXValue, newYValue);
+                        return false;
+                    }
+                    if (failIfBlocked(result, pc - from, xValue, yValue, newXValue, newYValue)) {
+                        return false;
+                    }
+                    xValue = newXValue;
+                    yValue = newYValue;
+                    if (coverage != null) {
+                        coverage.visited(xValue, yValue);
+                    }
+                } else if (op == InstructionProgram.TURN_LEFT) {
+                    orientation = OrientationCode.left(orientation);
+                } else if (op == InstructionProgram.TURN_RIGHT) {
+                    orientation = OrientationCode.right(orientation);
+                } else {
+                    throw new IllegalStateException("Invalid instruction occured!");
+                }
+            }
+            result.succeed(to - from);
+            return true;
+        } catch (RuntimeException ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            putBack(store, index, xValue, yValue, orientation, lifted);
+            if (store.getJournal() != null) {
+                try {
+                    store.getJournal().executed(store.getId(index), code, from, pc);
+                } catch (UncheckedIOException ex) {
+                    throwUnlessFailing(ex, failure);
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes raw instruction text, e.g. straight out of a memory mapped
+     * mission file, without compiling it first. Characters are decoded like
+     * {@link InstructionProgram#compile(CharSequence)} does; whitespace is
+     * skipped.
+     * 
+     * @param rover The rover that executes the instructions
+     * @param text Buffer holding the instruction characters
+     * @param from Absolute index of the first character to execute
+     * @param to Absolute index after the last character to execute
+     * @throws IllegalArgumentException if an invalid instruction is found. All
+     *             instructions before it have been executed.
+     * @see #execute(Rover, byte[], int, int)
+     */
+    public void execute(Rover rover, ByteBuffer text, int from, int to)
+        throws PlateauExceededException, PositionBlockedException {
+        ExecutionResult result = new ExecutionResult();
+        execute(rover, text, from, to, result);
+        result.throwIfFailed();
+    }
+
+    /**
+     * Executes raw instruction text like
+     * {@link #execute(Rover, ByteBuffer, int, int)} does, but reports a failed
+     * move through the given result instead of an exception. Skipped
+     * whitespace doesn't count as a step.
+     * 
+     * @param result Result to continue, it is reset first if it has failed
+     * @return {@code true} if all instructions have been executed
+     * @throws IllegalArgumentException if an invalid instruction is found
+     */
+    public boolean execute(Rover rover, ByteBuffer text, int from, int to, ExecutionResult result) {
+        checkPositionIndexes(from, to, text.limit());
+        continueResult(result);
+        if (from == to) {
+            return true;
+        }
+        FleetStore store = rover.getFleetStore();
+        int index = rover.getFleetIndex();
+        checkState(store.getOrientationCode(index) != FleetStore.NO_ORIENTATION,
+                "The rover hasn't been deployed yet!");
+
+        int xValue = store.getxValue(index);
+        int yValue = store.getyValue(index);
+        int orientation = store.getOrientationCode(index);
+        boolean lifted = liftOut(store, index);
+        long[] signedLimits = plateau.signedLimits();
+        CoverageMap coverage = store.getCoverage();
+        long stepsBefore = result.getExecutedSteps();
+        long startNanos = Metrics.ENABLED ? System.nanoTime() : 0;
+        int steps = 0;
+        int position = from;
+        RuntimeException failure = null;
+        try {
+            for (; position < to; position++) {
+                byte character = text.get(position);
+                byte op = InstructionProgram.decode(character);
+                if (op == InstructionProgram.MOVE) {
+                    int newXValue = xValue + OrientationCode.deltaX(orientation);
+                    int newYValue = yValue + OrientationCode.deltaY(orientation);
+                    boolean alongY = OrientationCode.isAlongY(orientation);
+                    long along = (long) (alongY ? yValue : xValue) * OrientationCode.sign(orientation);
+                    if (along >= signedLimits[orientation]) {
+                        failExceeded(result, alongY, steps, newXValue, newYValue);
+                        return false;
+                    }
+                    if (failIfBlocked(result, steps, xValue, yValue, newXValue, newYValue)) {
+                        return false;
+                    }
+                    xValue = newXValue;
+                    yValue = newYValue;
+                    if (coverage != null) {
+                        coverage.visited(xValue, yValue);
+                    }
+                    steps++;
+                } else if (op == InstructionProgram.TURN_LEFT) {
+                    orientation = OrientationCode.left(orientation);
+                    steps++;
+                } else if (op == InstructionProgram.TURN_RIGHT) {
+                    orientation = OrientationCode.right(orientation);
+                    steps++;
+                } else if (op == InstructionProgram.INVALID) {
+                    result.succeed(steps);
+                    throw new IllegalArgumentException("Invalid instructions given: " + (char) (character & 0xFF));
+                }
+            }
+            result.succeed(steps);
+            return true;
+        } catch (RuntimeException ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            putBack(store, index, xValue, yValue, orientation, lifted);
+            if (Metrics.ENABLED) {
+                Metrics.recordRun(result, stepsBefore, startNanos);
+            }
+            if (store.getJournal() != null) {
+                try {
+                    store.getJournal().executed(store.getId(index), text, from, position);
+                } catch (UncheckedIOException ex) {
+                    throwUnlessFailing(ex, failure);
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes a program prepared by the {@link ProgramOptimizer}. Each move
+     * run checks the plateau boundary once and consults the occupancy index
+     * only for the cells of the swept segment. The rover ends up at the same
+     * position and fails with the same exception as if the original program
+     * had been executed step by step.
+     * 
+     * @see #execute(Rover, byte[], int, int)
+     */
+    public void execute(Rover rover, OptimizedProgram program)
+        throws PlateauExceededException, PositionBlockedException {
+        ExecutionResult result = new ExecutionResult();
+        execute(rover, program, result);
+        result.throwIfFailed();
+    }
+
+    /**
+     * Executes a program prepared by the {@link ProgramOptimizer} like
+     * {@link #execute(Rover, OptimizedProgram)} does, but reports a failed
+     * move through the given result instead of an exception. Steps are
+     * counted like in the original program.
+     * 
+     * @param result Result to continue, it is reset first if it has failed
+     * @return {@code true} if the whole program has been executed
+     */
+    public boolean execute(Rover rover, OptimizedProgram program, ExecutionResult result) {
+        continueResult(result);
+        if (program.segmentCount() == 0) {
+            return true;
+        }
+        FleetStore store = rover.getFleetStore();
+        int index = rover.getFleetIndex();
+        checkState(store.getOrientationCode(index) != FleetStore.NO_ORIENTATION,
+                "The rover hasn't been deployed yet!");
+
+        int xValue = store.getxValue(index);
+        int yValue = store.getyValue(index);
+        int orientation = store.getOrientationCode(index);
+        boolean lifted = liftOut(store, index);
+        long[] signedLimits = plateau.signedLimits();
+        long stepsBefore = result.getExecutedSteps();
+        long startNanos = Metrics.ENABLED ? System.nanoTime() : 0;
+        int[] segments = program.segments();
+        int[] runStarts = program.runStarts();
+        MoveJournal journal = store.getJournal();
+        CoverageMap coverage = store.getCoverage();
+        long roverId = store.getId(index);
+        try {
+            for (int i = 0; i < program.segmentCount(); i++) {
+                int segment = segments[i];
+                int rotation = OptimizedProgram.rotationOf(segment);
+                orientation = OrientationCode.rotate(orientation, rotation);
+                int runLength = OptimizedProgram.runLengthOf(segment);
+                if (runLength == 0) {
+                    if (journal != null) {
+                        journal.executed(roverId, rotation, 0);
+                    }
+                    continue;
+                }
+                boolean alongY = OrientationCode.isAlongY(orientation);
+                int sign = OrientationCode.sign(orientation);
+                long allowedSteps = signedLimits[orientation] - (long) (alongY ? yValue : xValue) * sign;
+                int steps = (int) Math.max(0, Math.min(runLength, allowedSteps));
+                int deltaX = OrientationCode.deltaX(orientation);
+                int deltaY = OrientationCode.deltaY(orientation);
+                if (occupancyIndex.size() > 0 || !terrain.isEmpty() || coverage != null || cellClaim != null
+                        || border != null) {
+                    for (int step = 0; step < steps; step++) {
+                        int newXValue = xValue + deltaX;
+                        int newYValue = yValue + deltaY;
+                        if (failIfBlocked(result, runStarts[i] + step, xValue, yValue, newXValue, newYValue)) {
+                            if (journal != null) {
+                                journal.executed(roverId, rotation, step);
+                            }
+                            return false;
+                        }
+                        xValue = newXValue;
+                        yValue = newYValue;
+                        if (coverage != null) {
+                            coverage.visited(xValue, yValue);
+                        }
+                    }
+                } else {
+                    xValue += deltaX * steps;
+                    yValue += deltaY * steps;
+                }
+                if (journal != null) {
+                    journal.executed(roverId, rotation, steps);
+                }
+                if (steps < runLength) {
+                    failExceeded(result, alongY, runStarts[i] + steps, xValue + deltaX, yValue + deltaY);
+                    return false;
+                }
+            }
+            result.succeed(program.sourceLength());
+            return true;
+        } finally {
+            putBack(store, index, xValue, yValue, orientation, lifted);
+            if (Metrics.ENABLED) {
+                Metrics.recordRun(result, stepsBefore, startNanos);
+            }
+        }
+    }
+
+    /**
+     * Executes a summarized program. A chunk whose bounding box lies within
+     * the plateau and holds neither an obstacle nor another rover can't fail,
+     * so the rover jumps to its end position at once; any other chunk, and
+     * every chunk if the visited cells are recorded, is executed step by step.
+     * The rover ends up at the same position and fails with the same
+     * exception as if the program had been executed step by step.
+     * 
+     * @see #execute(Rover, InstructionProgram)
+     */
+    public void execute(Rover rover, ProgramSummary summary)
+        throws PlateauExceededException, PositionBlockedException {
+        ExecutionResult result = new ExecutionResult();
+        execute(rover, summary, result);
+        result.throwIfFailed();
+    }
+
+    /**
+     * Executes a summarized program like
+     * {@link #execute(Rover, ProgramSummary)} does, but reports a failed move
+     * through the given result instead of an exception.
+     * 
+     * @param result Result to continue, it is reset first if it has failed
+     * @return {@code true} if the whole program has been executed
+     */
+    public boolean execute(Rover rover, ProgramSummary summary, ExecutionResult result) {
+        continueResult(result);
+        FleetStore store = rover.getFleetStore();
+        int index = rover.getFleetIndex();
+        byte[] code = summary.program().code();
+        long[] signedLimits = plateau.signedLimits();
+        long stepsBefore = result.getExecutedSteps();
+        long startNanos = Metrics.ENABLED ? System.nanoTime() : 0;
+        try {
+            for (int chunk = 0; chunk < summary.chunkCount(); chunk++) {
+                if (!fastForward(store, index, summary, chunk, result, signedLimits)
+                        && !step(rover, code, summary.chunkStart(chunk), summary.chunkEnd(chunk), result,
+                                signedLimits)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            if (Metrics.ENABLED) {
+                Metrics.recordRun(result, stepsBefore, startNanos);
+            }
+        }
+    }
+
+    /**
+     * Moves the rover over the whole chunk if no step of it can fail and the
+     * cells in between needn't be recorded, claimed or checked against a
+     * border.
+     * 
+     * @return {@code false} if the chunk has to be executed step by step
+     */
+    private boolean fastForward(FleetStore store, int index, ProgramSummary summary, int chunk,
+            ExecutionResult result, long[] signedLimits) {
+        if (store.getCoverage() != null || cellClaim != null || border != null) {
+            return false;
+        }
+        checkState(store.getOrientationCode(index) != FleetStore.NO_ORIENTATION,
+                "The rover hasn't been deployed yet!");
+        int xValue = store.getxValue(index);
+        int yValue = store.getyValue(index);
+        int orientation = store.getOrientationCode(index);
+        long minXValue = (long) xValue + summary.minDisplacementX(chunk, orientation);
+        long minYValue = (long) yValue + summary.minDisplacementY(chunk, orientation);
+        long maxXValue = (long) xValue + summary.maxDisplacementX(chunk, orientation);
+        long maxYValue = (long) yValue + summary.maxDisplacementY(chunk, orientation);
+        if (maxYValue > signedLimits[OrientationCode.N] || maxXValue > signedLimits[OrientationCode.E]
+                || -minYValue > signedLimits[OrientationCode.S] || -minXValue > signedLimits[OrientationCode.W]) {
+            return false;
+        }
+        boolean lifted = liftOut(store, index);
+        if (terrain.isAnyBlocked((int) minXValue, (int) minYValue, (int) maxXValue, (int) maxYValue)
+                || occupancyIndex.isAnyOccupied((int) minXValue, (int) minYValue, (int) maxXValue, (int) maxYValue)) {
+            putBack(store, index, xValue, yValue, orientation, lifted);
+            return false;
+        }
+        int from = summary.chunkStart(chunk);
+        int to = summary.chunkEnd(chunk);
+        putBack(store, index, xValue + summary.displacementX(chunk, orientation),
+                yValue + summary.displacementY(chunk, orientation),
+                OrientationCode.rotate(orientation, summary.rotation(chunk)), lifted);
+        result.succeed(to - from);
+        if (store.getJournal() != null) {
+            store.getJournal().executed(store.getId(index), summary.program().code(), from, to);
+        }
+        return true;
+    }
+
+    /**
+     * Rethrows a failure of the journal after a run, unless the run itself
+     * failed with an exception: that exception isn't masked then, the
+     * journal's failure is added to it as suppressed.
+     */
+    private static void throwUnlessFailing(UncheckedIOException journalFailure, RuntimeException failure) {
+        if (failure == null) {
+            throw journalFailure;
+        }
+        failure.addSuppressed(journalFailure);
+    }
+
+    private static void continueResult(ExecutionResult result) {
+        if (!result.isSucceeded()) {
+            result.reset();
+        }
+    }
+
+    private static void failExceeded(ExecutionResult result, boolean alongY, int step, int xValue, int yValue) {
+        result.fail(alongY ? ExecutionResult.Y_VALUE_EXCEEDED : ExecutionResult.X_VALUE_EXCEEDED,
+                result.getExecutedSteps() + step, xValue, yValue, ExecutionResult.UNKNOWN_ROVER);
+    }
+
+    /**
+     * Checks the cell a move steps on like a moving {@link Rover} does (see
+     * {@link Plateau#blockage(OccupancyIndex, int, int)}), claims it if the
+     * engine has a {@link CellClaim} and fails the result if it is blocked. A
+     * free cell beyond the engine's {@link Border} stops the run instead.
+     * 
+     * @return {@code true} if the move is blocked or crosses the border
+     */
+    private boolean failIfBlocked(ExecutionResult result, int step, int fromXValue, int fromYValue, int xValue,
+            int yValue) {
+        int blockage = timedBlockage(plateau, occupancyIndex, xValue, yValue);
+        if (blockage == Plateau.FREE && border != null && !border.contains(xValue, yValue)) {
+            result.fail(ExecutionResult.BORDER_REACHED, result.getExecutedSteps() + step, xValue, yValue,
+                    ExecutionResult.UNKNOWN_ROVER);
+            return true;
+        }
+        if (blockage == Plateau.FREE && cellClaim != null
+                && !cellClaim.tryMove(fromXValue, fromYValue, xValue, yValue)) {
+            blockage = Plateau.OCCUPIED;
+        }
+        if (blockage == Plateau.OBSTACLE) {
+            result.fail(ExecutionResult.OBSTACLE_HIT, result.getExecutedSteps() + step, xValue, yValue,
+                    ExecutionResult.UNKNOWN_ROVER);
+        } else if (blockage == Plateau.OCCUPIED) {
+            failBlocked(result, step, xValue, yValue);
+        }
+        return blockage != Plateau.FREE;
+    }
+
+    /**
+     * Asks the plateau if a rover can step on the given cell and, if metrics
+     * are enabled, records how long the collision check took.
+     */
+    static int timedBlockage(Plateau plateau, OccupancyIndex occupancyIndex, int xValue, int yValue) {
+        if (!Metrics.ENABLED) {
+            return plateau.blockage(occupancyIndex, xValue, yValue);
+        }
+        long startNanos = System.nanoTime();
+        int blockage = plateau.blockage(occupancyIndex, xValue, yValue);
+        Metrics.COLLISION_CHECK_NANOS.record(System.nanoTime() - startNanos);
+        return blockage;
+    }
+
+    private void failBlocked(ExecutionResult result, int step, int xValue, int yValue) {
+        long blockingRoverId = ExecutionResult.UNKNOWN_ROVER;
+        if (fleet != null) {
+            int occupant = fleet.getOccupant(xValue, yValue);
+            if (occupant != FleetStore.NO_OCCUPANT) {
+                blockingRoverId = fleet.getId(occupant);
+            }
+        }
+        result.fail(ExecutionResult.POSITION_BLOCKED, result.getExecutedSteps() + step, xValue, yValue,
+                blockingRoverId);
+    }
+
+    /**
+     * Takes the rover's own cell out of the occupancy index because it can't
+     * block the rover itself.
+     * 
+     * @return {@code true} if the cell has to be put back afterwards
+     */
+    private boolean liftOut(FleetStore store, int index) {
+        boolean lifted = store.isActive(index) && store.getOccupancyIndex() == occupancyIndex;
+        if (lifted) {
+            store.deactivate(index);
+        }
+        return lifted;
+    }
+
+    private static void putBack(FleetStore store, int index, int xValue, int yValue, int orientation,
+            boolean lifted) {
+        store.setPosition(index, xValue, yValue);
+        store.setOrientationCode(index, (byte) orientation);
+        if (lifted) {
+            store.activate(index);
+        }
+    }
+
+    /**
+     * Moves a rover between cells of an occupancy index the engine doesn't
+     * know, e.g. a {@link model.StripedOccupancyIndex} shared by many threads.
+     */
+    @FunctionalInterface
+    interface CellClaim {
+
+        /**
+         * Atomically occupies the target cell if it's free and releases the
+         * source cell.
+         * 
+         * @return {@code false} if the target cell is occupied
+         */
+        boolean tryMove(int fromXValue, int fromYValue, int toXValue, int toYValue);
+    }
+
+    /**
+     * Part of the plateau an engine moves rovers on, e.g. the region of a
+     * partitioned plateau. Rovers on the other side are unknown to the engine.
+     */
+    @FunctionalInterface
+    public interface Border {
+
+        boolean contains(int xValue, int yValue);
+    }
+}
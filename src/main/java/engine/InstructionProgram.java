@@ -0,0 +1,110 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.List;
+
+import constants.Instruction;
+
+/**
+ * Compact, compiled form of a rover's instructions. Each instruction is stored
+ * as one byte holding the {@link Instruction#ordinal()} of the instruction, so
+ * the {@link InstructionEngine} can execute it without any enum dispatch.
+ */
+public final class InstructionProgram {
+
+    public static final byte MOVE = (byte) Instruction.M.ordinal();
+    public static final byte TURN_LEFT = (byte) Instruction.L.ordinal();
+    public static final byte TURN_RIGHT = (byte) Instruction.R.ordinal();
+
+    /** Marks characters that are skipped while compiling (whitespace). */
+    public static final byte SKIP = -1;
+    /** Marks characters that aren't valid instructions. */
+    public static final byte INVALID = -2;
+
+    private static final Instruction[] INSTRUCTIONS = Instruction.values();
+    private static final byte[] DECODING_TABLE = new byte[128];
+
+    static {
+        Arrays.fill(DECODING_TABLE, INVALID);
+        for (char c = 0; c <= ' '; c++) {
+            DECODING_TABLE[c] = SKIP;
+        }
+        for (Instruction instruction : INSTRUCTIONS) {
+            char upper = instruction.name().charAt(0);
+            DECODING_TABLE[upper] = (byte) instruction.ordinal();
+            DECODING_TABLE[Character.toLowerCase(upper)] = (byte) instruction.ordinal();
+        }
+    }
+
+    private final byte[] code;
+    private final int length;
+
+    private InstructionProgram(byte[] code, int length) {
+        this.code = code;
+        this.length = length;
+    }
+
+    /**
+     * Compiles the given user input. Instructions are case insensitive,
+     * whitespace characters are ignored.
+     * 
+     * @param instructionInput Given user input, e.g. "MMRMLM"
+     * @return The compiled program
+     * @throws IllegalArgumentException if the input contains invalid
+     *             instructions
+     */
+    public static InstructionProgram compile(CharSequence instructionInput) {
+        byte[] code = new byte[instructionInput.length()];
+        int length = 0;
+        for (int i = 0; i < instructionInput.length(); i++) {
+            byte op = decode(instructionInput.charAt(i));
+            if (op == INVALID) {
+                throw new IllegalArgumentException("Invalid instructions given: " + instructionInput);
+            }
+            if (op != SKIP) {
+                code[length++] = op;
+            }
+        }
+        return new InstructionProgram(code, length);
+    }
+
+    public static InstructionProgram compile(List<Instruction> instructions) {
+        byte[] code = new byte[instructions.size()];
+        int length = 0;
+        for (Instruction instruction : instructions) {
+            code[length++] = (byte) instruction.ordinal();
+        }
+        return new InstructionProgram(code, length);
+    }
+
+    /**
+     * Wraps already compiled op codes without copying them.
+     * 
+     * @param code Op codes as returned by {@link #decode(int)}
+     * @param length Number of valid op codes
+     */
+    public static InstructionProgram wrap(byte[] code, int length) {
+        return new InstructionProgram(code, length);
+    }
+
+    /**
+     * Decodes a single input character.
+     * 
+     * @return The op code, {@link #SKIP} or {@link #INVALID}
+     */
+    public static byte decode(int character) {
+        return character >= 0 && character < DECODING_TABLE.length ? DECODING_TABLE[character] : INVALID;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public Instruction instructionAt(int step) {
+        return INSTRUCTIONS[code[step]];
+    }
+
+    byte[] code() {
+        return code;
+    }
+}
@@ -0,0 +1,59 @@
+package engine;
+
+/**
+ * Instruction program whose turns have been folded and whose moves have been
+ * collapsed into runs by the {@link ProgramOptimizer}. Each segment is packed
+ * into one int: the net rotation (number of right turns mod 4) to apply first
+ * in the lowest two bits, followed by the number of moves to execute in the
+ * given direction. For every segment the index of its first move in the
+ * original program is kept, so failures can be traced back to their step.
+ */
+public final class OptimizedProgram {
+
+    static final int ROTATION_BITS = 2;
+    static final int ROTATION_MASK = (1 << ROTATION_BITS) - 1;
+    static final int MAX_RUN_LENGTH = Integer.MAX_VALUE >>> ROTATION_BITS;
+
+    private final int[] segments;
+    private final int[] runStarts;
+    private final int segmentCount;
+    private final int sourceLength;
+
+    OptimizedProgram(int[] segments, int[] runStarts, int segmentCount, int sourceLength) {
+        this.segments = segments;
+        this.runStarts = runStarts;
+        this.segmentCount = segmentCount;
+        this.sourceLength = sourceLength;
+    }
+
+    static int segment(int rotation, int runLength) {
+        return runLength << ROTATION_BITS | rotation;
+    }
+
+    static int rotationOf(int segment) {
+        return segment & ROTATION_MASK;
+    }
+
+    static int runLengthOf(int segment) {
+        return segment >>> ROTATION_BITS;
+    }
+
+    public int segmentCount() {
+        return segmentCount;
+    }
+
+    /**
+     * Returns the number of instructions of the original program.
+     */
+    public int sourceLength() {
+        return sourceLength;
+    }
+
+    int[] segments() {
+        return segments;
+    }
+
+    int[] runStarts() {
+        return runStarts;
+    }
+}
@@ -0,0 +1,60 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Optimizer pass for {@link InstructionProgram}s. Consecutive turns are folded
+ * into a single net rotation (e.g. "LLLL" and "RL" vanish, "LLL" becomes a
+ * single right turn) and consecutive moves are collapsed into one run which
+ * the {@link InstructionEngine} executes as a bounded segment move.
+ */
+public class ProgramOptimizer {
+
+    private ProgramOptimizer() {
+    }
+
+    public static OptimizedProgram optimize(InstructionProgram program) {
+        byte[] code = program.code();
+        int[] segments = new int[8];
+        int[] runStarts = new int[8];
+        int segmentCount = 0;
+        int runStart = 0;
+        int rotation = 0;
+        int runLength = 0;
+        for (int pc = 0; pc < program.length(); pc++) {
+            byte op = code[pc];
+            if (op == InstructionProgram.MOVE) {
+                if (runLength == OptimizedProgram.MAX_RUN_LENGTH) {
+                    runStarts = append(runStarts, segmentCount, runStart);
+                    segments = append(segments, segmentCount++, OptimizedProgram.segment(rotation, runLength));
+                    rotation = 0;
+                    runLength = 0;
+                }
+                if (runLength++ == 0) {
+                    runStart = pc;
+                }
+            } else if (op == InstructionProgram.TURN_LEFT || op == InstructionProgram.TURN_RIGHT) {
+                if (runLength > 0) {
+                    runStarts = append(runStarts, segmentCount, runStart);
+                    segments = append(segments, segmentCount++, OptimizedProgram.segment(rotation, runLength));
+                    rotation = 0;
+                    runLength = 0;
+                }
+                rotation = (rotation + (op == InstructionProgram.TURN_RIGHT ? 1 : 3)) & OptimizedProgram.ROTATION_MASK;
+            } else {
+                throw new IllegalStateException("Invalid instruction occured!");
+            }
+        }
+        if (rotation != 0 || runLength > 0) {
+            runStarts = append(runStarts, segmentCount, runLength > 0 ? runStart : program.length());
+            segments = append(segments, segmentCount++, OptimizedProgram.segment(rotation, runLength));
+        }
+        return new OptimizedProgram(segments, runStarts, segmentCount, program.length());
+    }
+
+    private static int[] append(int[] values, int position, int value) {
+        int[] target = position < values.length ? values : Arrays.copyOf(values, values.length << 1);
+        target[position] = value;
+        return target;
+    }
+}
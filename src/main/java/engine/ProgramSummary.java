@@ -0,0 +1,192 @@
+package engine;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import constants.OrientationCode;
+
+/**
+ * Closed-form summary of an {@link InstructionProgram}, split into chunks of a
+ * fixed number of op codes. For each chunk it holds the net displacement, the
+ * net rotation and the bounding box of the cells visited while executing it,
+ * relative to the rover's position at the start of the chunk. The values are
+ * computed once for a rover heading north; for any other orientation they
+ * follow by rotating them, so a single pass over the program suffices.
+ * <p>
+ * The {@link InstructionEngine} uses the summary to fast-forward a rover over
+ * a whole chunk if the chunk's bounding box lies within the plateau and holds
+ * no other rover.
+ */
+public final class ProgramSummary {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    // per chunk: displacement X and Y, bounding box min X, min Y, max X, max Y
+    private static final int VALUES_PER_CHUNK = 6;
+
+    private final InstructionProgram program;
+    private final int chunkSize;
+    private final int chunkCount;
+    private final int[] values;
+    private final byte[] rotations;
+
+    private ProgramSummary(InstructionProgram program, int chunkSize) {
+        this.program = program;
+        this.chunkSize = chunkSize;
+        this.chunkCount = (int) (((long) program.length() + chunkSize - 1) / chunkSize);
+        this.values = new int[chunkCount * VALUES_PER_CHUNK];
+        this.rotations = new byte[chunkCount];
+    }
+
+    public static ProgramSummary summarize(InstructionProgram program) {
+        return summarize(program, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize Number of op codes per chunk. Smaller chunks have
+     *            smaller bounding boxes but need more lookups.
+     */
+    public static ProgramSummary summarize(InstructionProgram program, int chunkSize) {
+        checkArgument(chunkSize > 0, "Invalid chunk size: %s", chunkSize);
+        ProgramSummary summary = new ProgramSummary(program, chunkSize);
+        byte[] code = program.code();
+        for (int chunk = 0; chunk < summary.chunkCount; chunk++) {
+            int xValue = 0;
+            int yValue = 0;
+            int minXValue = 0;
+            int minYValue = 0;
+            int maxXValue = 0;
+            int maxYValue = 0;
+            int orientation = OrientationCode.N;
+            for (int pc = summary.chunkStart(chunk); pc < summary.chunkEnd(chunk); pc++) {
+                byte op = code[pc];
+                if (op == InstructionProgram.MOVE) {
+                    xValue += OrientationCode.deltaX(orientation);
+                    yValue += OrientationCode.deltaY(orientation);
+                    minXValue = Math.min(minXValue, xValue);
+                    minYValue = Math.min(minYValue, yValue);
+                    maxXValue = Math.max(maxXValue, xValue);
+                    maxYValue = Math.max(maxYValue, yValue);
+                } else if (op == InstructionProgram.TURN_LEFT) {
+                    orientation = OrientationCode.left(orientation);
+                } else if (op == InstructionProgram.TURN_RIGHT) {
+                    orientation = OrientationCode.right(orientation);
+                } else {
+                    throw new IllegalStateException("Invalid instruction occured!");
+                }
+            }
+            int offset = chunk * VALUES_PER_CHUNK;
+            summary.values[offset] = xValue;
+            summary.values[offset + 1] = yValue;
+            summary.values[offset + 2] = minXValue;
+            summary.values[offset + 3] = minYValue;
+            summary.values[offset + 4] = maxXValue;
+            summary.values[offset + 5] = maxYValue;
+            summary.rotations[chunk] = (byte) orientation;
+        }
+        return summary;
+    }
+
+    public InstructionProgram program() {
+        return program;
+    }
+
+    public int chunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * Returns the index of the first op code of the chunk.
+     */
+    public int chunkStart(int chunk) {
+        return chunk * chunkSize;
+    }
+
+    /**
+     * Returns the index after the last op code of the chunk.
+     */
+    public int chunkEnd(int chunk) {
+        return (int) Math.min((long) (chunk + 1) * chunkSize, program.length());
+    }
+
+    /**
+     * Returns the number of right turns (mod 4) of the chunk.
+     */
+    public int rotation(int chunk) {
+        return rotations[chunk];
+    }
+
+    /**
+     * Returns the X-displacement of the chunk for a rover starting with the
+     * given orientation.
+     */
+    public int displacementX(int chunk, int orientation) {
+        int offset = chunk * VALUES_PER_CHUNK;
+        return rotatedX(values[offset], values[offset + 1], orientation);
+    }
+
+    public int displacementY(int chunk, int orientation) {
+        int offset = chunk * VALUES_PER_CHUNK;
+        return rotatedY(values[offset], values[offset + 1], orientation);
+    }
+
+    /**
+     * Returns the smallest X-displacement of the cells visited by the chunk,
+     * for a rover starting with the given orientation. Together with
+     * {@link #minDisplacementY(int, int)}, {@link #maxDisplacementX(int, int)}
+     * and {@link #maxDisplacementY(int, int)} it spans the chunk's bounding
+     * box relative to its start cell.
+     */
+    public int minDisplacementX(int chunk, int orientation) {
+        int offset = chunk * VALUES_PER_CHUNK;
+        return Math.min(rotatedX(values[offset + 2], values[offset + 3], orientation),
+                rotatedX(values[offset + 4], values[offset + 5], orientation));
+    }
+
+    public int minDisplacementY(int chunk, int orientation) {
+        int offset = chunk * VALUES_PER_CHUNK;
+        return Math.min(rotatedY(values[offset + 2], values[offset + 3], orientation),
+                rotatedY(values[offset + 4], values[offset + 5], orientation));
+    }
+
+    public int maxDisplacementX(int chunk, int orientation) {
+        int offset = chunk * VALUES_PER_CHUNK;
+        return Math.max(rotatedX(values[offset + 2], values[offset + 3], orientation),
+                rotatedX(values[offset + 4], values[offset + 5], orientation));
+    }
+
+    public int maxDisplacementY(int chunk, int orientation) {
+        int offset = chunk * VALUES_PER_CHUNK;
+        return Math.max(rotatedY(values[offset + 2], values[offset + 3], orientation),
+                rotatedY(values[offset + 4], values[offset + 5], orientation));
+    }
+
+    /**
+     * Rotates a vector given for heading north by the number of right turns
+     * from north to the orientation.
+     */
+    private static int rotatedX(int xValue, int yValue, int orientation) {
+        switch (orientation) {
+            case OrientationCode.N:
+                return xValue;
+            case OrientationCode.E:
+                return yValue;
+            case OrientationCode.S:
+                return -xValue;
+            default:
+                return -yValue;
+        }
+    }
+
+    private static int rotatedY(int xValue, int yValue, int orientation) {
+        switch (orientation) {
+            case OrientationCode.N:
+                return yValue;
+            case OrientationCode.E:
+                return -xValue;
+            case OrientationCode.S:
+                return -yValue;
+            default:
+                return xValue;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package engine;
+
+/**
+ * Outcome of a {@link TickSimulator} run. For every fleet index it holds a
+ * status code and, for failed rovers, the step and coordinates of the
+ * failure. Exceptions are only created on demand by
+ * {@link #getFailure(int)}.
+ */
+public class SimulationResult {
+
+    public static final byte SUCCEEDED = ExecutionResult.SUCCEEDED;
+    public static final byte X_VALUE_EXCEEDED = ExecutionResult.X_VALUE_EXCEEDED;
+    public static final byte Y_VALUE_EXCEEDED = ExecutionResult.Y_VALUE_EXCEEDED;
+    public static final byte POSITION_BLOCKED = ExecutionResult.POSITION_BLOCKED;
+    public static final byte OBSTACLE_HIT = ExecutionResult.OBSTACLE_HIT;
+
+    private final byte[] status;
+    private final int[] failedSteps;
+    private final int[] failedXValues;
+    private final int[] failedYValues;
+    private int ticks;
+    private int conflicts;
+
+    SimulationResult(int fleetSize) {
+        this.status = new byte[fleetSize];
+        this.failedSteps = new int[fleetSize];
+        this.failedXValues = new int[fleetSize];
+        this.failedYValues = new int[fleetSize];
+    }
+
+    void fail(int index, byte failureStatus, int step, int xValue, int yValue) {
+        status[index] = failureStatus;
+        failedSteps[index] = step;
+        failedXValues[index] = xValue;
+        failedYValues[index] = yValue;
+    }
+
+    void setTicks(int ticks) {
+        this.ticks = ticks;
+    }
+
+    void addConflicts(int count) {
+        this.conflicts += count;
+    }
+
+    public byte getStatus(int index) {
+        return status[index];
+    }
+
+    public boolean isSucceeded(int index) {
+        return status[index] == SUCCEEDED;
+    }
+
+    /**
+     * Returns the index of the instruction that failed.
+     */
+    public int getFailedStep(int index) {
+        return failedSteps[index];
+    }
+
+    /**
+     * Returns the exception the rover would have thrown when executing its
+     * instructions on its own or {@code null} if the rover succeeded.
+     */
+    public Exception getFailure(int index) {
+        return ExecutionResult.failureOf(status[index], failedXValues[index], failedYValues[index]);
+    }
+
+    /**
+     * Copies the outcome of the given rover into the target result. The
+     * blocking rover of a failed move isn't known.
+     */
+    public void copyTo(int index, ExecutionResult target) {
+        if (status[index] == SUCCEEDED) {
+            target.reset();
+        } else {
+            target.fail(status[index], failedSteps[index], failedXValues[index], failedYValues[index],
+                    ExecutionResult.UNKNOWN_ROVER);
+        }
+    }
+
+    /**
+     * Returns the number of simulated ticks.
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the number of moves that lost against another rover claiming the
+     * same cell in the same tick.
+     */
+    public int getConflicts() {
+        return conflicts;
+    }
+}
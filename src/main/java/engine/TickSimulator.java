@@ -0,0 +1,407 @@
+package engine;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+import constants.OrientationCode;
+import coverage.CoverageMap;
+import metrics.Metrics;
+import model.FleetStore;
+import model.OccupancyIndex;
+import model.PackedState;
+import model.Plateau;
+import model.World;
+import snapshot.MoveJournal;
+import util.LongIntHashMap;
+
+/**
+ * Advances all rovers of a fleet in lock-step ticks, executing one instruction
+ * per rover and tick on all cores.
+ * <p>
+ * Each tick runs in three phases:
+ * <ol>
+ * <li>Every running rover (partitioned by fleet index) turns or proposes the
+ * cell it wants to move to. A move fails if it would exceed the plateau, if
+ * the target cell is an obstacle of the plateau's terrain or if it is occupied
+ * at the beginning of the tick.</li>
+ * <li>Proposals are partitioned by target cell. If several rovers claim the
+ * same cell, the rover with the lowest fleet index wins; the others are
+ * blocked.</li>
+ * <li>Winners move to their cell, finished and failed rovers drop out.</li>
+ * </ol>
+ * A failed rover stops like it does when executing its instructions on its
+ * own. Rovers only see each other's positions at the beginning of a tick, so
+ * a rover may enter a cell another rover has left in an earlier tick. The
+ * result therefore differs from executing the rovers one after the other
+ * whenever their paths cross: sequentially, the first rover would block the
+ * second one with its final position.
+ * <p>
+ * If the fleet has a {@link MoveJournal}, the executed instructions of each
+ * rover are appended to it after the run, one rover after the other. Each run
+ * is recorded in the {@link Metrics}.
+ */
+public class TickSimulator {
+
+    private static final int RUNNING = -1;
+
+    private final ForkJoinPool pool;
+    private final int partitions;
+
+    /**
+     * Creates a simulator that uses the common fork/join pool.
+     */
+    public TickSimulator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public TickSimulator(ForkJoinPool pool) {
+        this.pool = pool;
+        this.partitions = Math.max(1, pool.getParallelism());
+    }
+
+    /**
+     * Simulates the given fleet. Active slots with a program are executed,
+     * all other active slots are stationary obstacles. Finally the new state
+     * is written back to the fleet.
+     * 
+     * @param fleet The fleet to simulate
+     * @param programs Programs indexed by fleet index, {@code null} for rovers
+     *            that don't move
+     * @return Status of every rover
+     */
+    public SimulationResult run(FleetStore fleet, InstructionProgram[] programs) {
+        return run(fleet, Plateau.global(), programs);
+    }
+
+    /**
+     * Simulates the rovers registered in the given world on its plateau.
+     * 
+     * @see #run(FleetStore, InstructionProgram[])
+     */
+    public SimulationResult run(World world, InstructionProgram[] programs) {
+        return run(world.getFleet(), world.getPlateau(), programs);
+    }
+
+    private SimulationResult run(FleetStore fleet, Plateau plateau, InstructionProgram[] programs) {
+        checkArgument(programs.length >= fleet.size(), "A program slot is required for each rover!");
+        long startNanos = Metrics.ENABLED ? System.nanoTime() : 0;
+        Run run = new Run(fleet, plateau, programs);
+        run.simulate();
+        run.writeBack();
+        if (Metrics.ENABLED) {
+            run.recordMetrics(startNanos);
+        }
+        return run.result;
+    }
+
+    /**
+     * State of a single simulation.
+     */
+    private class Run {
+        private final FleetStore fleet;
+        private final InstructionProgram[] programs;
+        private final SimulationResult result;
+        private final int fleetSize;
+
+        /** {@link PackedState} of the moving rovers */
+        private final long[] states;
+        private final int[] programCounters;
+        private final int[] status;
+        private final long[] targets;
+        private final boolean[] won;
+        private final OccupancyIndex occupancyIndex = new OccupancyIndex();
+        private final long[] signedLimits;
+        private final Plateau plateau;
+        private final CoverageMap coverage;
+
+        // running rovers per fleet index range
+        private final int[][] running = new int[partitions][];
+        private final int[] runningCount = new int[partitions];
+        // proposed moves per fleet index range and target cell bucket
+        private final int[][][] movers = new int[partitions][partitions][];
+        private final int[][] moverCount = new int[partitions][partitions];
+        private final LongIntHashMap[] claims = new LongIntHashMap[partitions];
+        private final int[] conflicts = new int[partitions];
+
+        Run(FleetStore fleet, Plateau plateau, InstructionProgram[] programs) {
+            this.fleet = fleet;
+            this.signedLimits = plateau.signedLimits();
+            this.plateau = plateau;
+            this.coverage = fleet.getCoverage();
+            this.programs = programs;
+            this.fleetSize = fleet.size();
+            this.result = new SimulationResult(fleetSize);
+            this.states = new long[fleetSize];
+            this.programCounters = new int[fleetSize];
+            this.status = new int[fleetSize];
+            this.targets = new long[fleetSize];
+            this.won = new boolean[fleetSize];
+
+            for (int index = 0; index < fleetSize; index++) {
+                status[index] = SimulationResult.SUCCEEDED;
+                if (fleet.isActive(index)) {
+                    occupancyIndex.add(fleet.getxValue(index), fleet.getyValue(index));
+                }
+            }
+            for (int range = 0; range < partitions; range++) {
+                int from = rangeStart(range);
+                int to = rangeStart(range + 1);
+                running[range] = new int[to - from];
+                for (int index = from; index < to; index++) {
+                    if (isMoving(index)) {
+                        checkArgument(fleet.getOrientationCode(index) != FleetStore.NO_ORIENTATION,
+                                "The rover hasn't been deployed yet!");
+                        states[index] = fleet.getPackedState(index);
+                        status[index] = RUNNING;
+                        running[range][runningCount[range]++] = index;
+                    }
+                }
+                for (int bucket = 0; bucket < partitions; bucket++) {
+                    movers[range][bucket] = new int[16];
+                }
+                claims[range] = new LongIntHashMap();
+            }
+        }
+
+        void simulate() {
+            int ticks = 0;
+            while (anyRunning()) {
+                inParallel(this::proposeMoves);
+                inParallel(this::resolveClaims);
+                updateOccupancy();
+                inParallel(this::applyMoves);
+                ticks++;
+            }
+            result.setTicks(ticks);
+            for (int count : conflicts) {
+                result.addConflicts(count);
+            }
+        }
+
+        void writeBack() {
+            MoveJournal journal = fleet.getJournal();
+            for (int index = 0; index < fleetSize; index++) {
+                if (isMoving(index)) {
+                    fleet.setPackedState(index, states[index]);
+                    if (journal != null) {
+                        // replay doesn't check moves, so the rovers' steps needn't be interleaved by tick
+                        journal.executed(fleet.getId(index), programs[index].code(), 0, programCounters[index]);
+                    }
+                    if (status[index] != SimulationResult.SUCCEEDED) {
+                        result.fail(index, (byte) status[index], programCounters[index],
+                                OccupancyIndex.xValueOf(targets[index]), OccupancyIndex.yValueOf(targets[index]));
+                    }
+                }
+            }
+        }
+
+        void recordMetrics(long startNanos) {
+            long steps = 0;
+            int plateauExceeded = 0;
+            int positionBlocked = 0;
+            for (int index = 0; index < fleetSize; index++) {
+                if (isMoving(index)) {
+                    steps += programCounters[index];
+                    byte failureStatus = result.getStatus(index);
+                    if (failureStatus == SimulationResult.X_VALUE_EXCEEDED
+                            || failureStatus == SimulationResult.Y_VALUE_EXCEEDED) {
+                        plateauExceeded++;
+                    } else if (failureStatus != SimulationResult.SUCCEEDED) {
+                        positionBlocked++;
+                    }
+                }
+            }
+            Metrics.recordSimulation(steps, plateauExceeded, positionBlocked, startNanos);
+        }
+
+        private boolean isMoving(int index) {
+            return fleet.isActive(index) && programs[index] != null && programs[index].length() > 0;
+        }
+
+        private boolean anyRunning() {
+            for (int count : runningCount) {
+                if (count > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Phase 1 for a range of fleet indices.
+         */
+        private void proposeMoves(int range) {
+            Arrays.fill(moverCount[range], 0);
+            int[] rovers = running[range];
+            for (int k = 0; k < runningCount[range]; k++) {
+                int index = rovers[k];
+                byte op = programs[index].code()[programCounters[index]];
+                long state = states[index];
+                if (op == InstructionProgram.TURN_LEFT) {
+                    states[index] = PackedState.turnLeft(state);
+                } else if (op == InstructionProgram.TURN_RIGHT) {
+                    states[index] = PackedState.turnRight(state);
+                } else if (op != InstructionProgram.MOVE) {
+                    throw new IllegalStateException("Invalid instruction occured!");
+                } else {
+                    int xValue = PackedState.xValueOf(state);
+                    int yValue = PackedState.yValueOf(state);
+                    int orientation = PackedState.orientationOf(state);
+                    boolean alongY = OrientationCode.isAlongY(orientation);
+                    int sign = OrientationCode.sign(orientation);
+                    if ((long) (alongY ? yValue : xValue) * sign >= signedLimits[orientation]) {
+                        status[index] = alongY ? SimulationResult.Y_VALUE_EXCEEDED
+                                : SimulationResult.X_VALUE_EXCEEDED;
+                        targets[index] = OccupancyIndex.cellKey(xValue + (alongY ? 0 : sign),
+                                yValue + (alongY ? sign : 0));
+                        continue;
+                    }
+                    long target = OccupancyIndex.cellKey(xValue + OrientationCode.deltaX(orientation),
+                            yValue + OrientationCode.deltaY(orientation));
+                    propose(range, index, target);
+                }
+            }
+        }
+
+        /**
+         * Records the target cell of a move; the move fails if the cell is
+         * blocked or occupied, otherwise it's handed to phase 2.
+         */
+        private void propose(int range, int index, long target) {
+            targets[index] = target;
+            int blockage = InstructionEngine.timedBlockage(plateau, occupancyIndex, OccupancyIndex.xValueOf(target),
+                    OccupancyIndex.yValueOf(target));
+            if (blockage != Plateau.FREE) {
+                status[index] = blockage == Plateau.OBSTACLE ? SimulationResult.OBSTACLE_HIT
+                        : SimulationResult.POSITION_BLOCKED;
+                return;
+            }
+            int bucket = bucketOf(target);
+            int count = moverCount[range][bucket];
+            if (count == movers[range][bucket].length) {
+                movers[range][bucket] = Arrays.copyOf(movers[range][bucket], count << 1);
+            }
+            movers[range][bucket][count] = index;
+            moverCount[range][bucket] = count + 1;
+        }
+
+        /**
+         * Phase 2 for a bucket of target cells. Ranges are visited in order of
+         * their fleet indices, so the first claim is the one of the lowest
+         * index.
+         */
+        private void resolveClaims(int bucket) {
+            LongIntHashMap bucketClaims = claims[bucket];
+            bucketClaims.clear();
+            for (int range = 0; range < partitions; range++) {
+                int[] bucketMovers = movers[range][bucket];
+                for (int k = 0; k < moverCount[range][bucket]; k++) {
+                    int index = bucketMovers[k];
+                    if (bucketClaims.put(targets[index], index, RUNNING) == RUNNING) {
+                        won[index] = true;
+                    } else {
+                        status[index] = SimulationResult.POSITION_BLOCKED;
+                        conflicts[bucket]++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Neither the occupancy index nor the coverage map are thread safe, so
+         * winners are moved in them one after the other.
+         */
+        private void updateOccupancy() {
+            for (int range = 0; range < partitions; range++) {
+                for (int bucket = 0; bucket < partitions; bucket++) {
+                    int[] bucketMovers = movers[range][bucket];
+                    for (int k = 0; k < moverCount[range][bucket]; k++) {
+                        int index = bucketMovers[k];
+                        if (won[index]) {
+                            occupancyIndex.remove(PackedState.xValueOf(states[index]),
+                                    PackedState.yValueOf(states[index]));
+                            occupancyIndex.add(targets[index]);
+                            if (coverage != null) {
+                                coverage.visited(OccupancyIndex.xValueOf(targets[index]),
+                                        OccupancyIndex.yValueOf(targets[index]));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Phase 3 for a range of fleet indices.
+         */
+        private void applyMoves(int range) {
+            int[] rovers = running[range];
+            int stillRunning = 0;
+            for (int k = 0; k < runningCount[range]; k++) {
+                int index = rovers[k];
+                if (status[index] != RUNNING) {
+                    continue; // failed
+                }
+                if (won[index]) {
+                    won[index] = false;
+                    states[index] = PackedState.move(states[index]);
+                }
+                if (++programCounters[index] == programs[index].length()) {
+                    status[index] = SimulationResult.SUCCEEDED;
+                } else {
+                    rovers[stillRunning++] = index;
+                }
+            }
+            runningCount[range] = stillRunning;
+        }
+
+        private int rangeStart(int range) {
+            return (int) ((long) fleetSize * range / partitions);
+        }
+
+        private int bucketOf(long cellKey) {
+            long h = cellKey * 0x9E3779B97F4A7C15L;
+            return (int) ((h >>> 33) % partitions);
+        }
+    }
+
+    private void inParallel(IntConsumer phase) {
+        if (partitions == 1) {
+            phase.accept(0);
+        } else {
+            pool.invoke(new PartitionAction(phase, 0, partitions));
+        }
+    }
+
+    /**
+     * Runs a phase for a range of partitions, splitting it until each task
+     * handles a single partition.
+     */
+    private static class PartitionAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntConsumer phase;
+        private final int from;
+        private final int to;
+
+        PartitionAction(IntConsumer phase, int from, int to) {
+            this.phase = phase;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                phase.accept(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PartitionAction(phase, from, middle), new PartitionAction(phase, middle, to));
+        }
+    }
+}
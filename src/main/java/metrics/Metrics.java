@@ -0,0 +1,225 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import engine.ExecutionResult;
+import model.World;
+
+/**
+ * Counters and latency histograms of the hot paths: executed instructions,
+ * failed moves and collision checks of the {@link engine.InstructionEngine}
+ * and the {@link engine.TickSimulator}, and parsed missions. All of them can
+ * be updated by many threads at once. Gauges of the default world's rovers are
+ * read when the metrics are queried.
+ * <p>
+ * Metrics are only collected if the system property
+ * {@code rover.metrics.enabled} is {@code true}, since timing every collision
+ * check costs more than the check itself. Callers guard every update with
+ * {@link #ENABLED}; since it's a constant, the JIT compiler drops the guarded
+ * code from the hot loops entirely when metrics are disabled.
+ */
+public final class Metrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("rover.metrics.enabled");
+    public static final String OBJECT_NAME = "mars.rover:type=Metrics";
+
+    public static final LongAdder EXECUTED_STEPS = new LongAdder();
+    public static final LongAdder PLATEAU_EXCEEDED = new LongAdder();
+    public static final LongAdder POSITION_BLOCKED = new LongAdder();
+    public static final LongAdder PARSED_ROVERS = new LongAdder();
+    public static final LongAdder PARSED_BYTES = new LongAdder();
+
+    /** Duration of a single engine run in nanoseconds */
+    public static final LatencyHistogram RUN_NANOS = new LatencyHistogram("run");
+    /**
+     * Duration of a collision check of the {@link engine.InstructionEngine} or
+     * the {@link engine.TickSimulator} in nanoseconds
+     */
+    public static final LatencyHistogram COLLISION_CHECK_NANOS = new LatencyHistogram("collisionCheck");
+    /** Duration of a whole {@link engine.TickSimulator} run in nanoseconds */
+    public static final LatencyHistogram SIMULATION_NANOS = new LatencyHistogram("simulation");
+    /** Duration of reading and processing a whole mission in nanoseconds */
+    public static final LatencyHistogram MISSION_NANOS = new LatencyHistogram("mission");
+
+    private static final long STARTED = System.nanoTime();
+
+    private Metrics() {
+    }
+
+    /**
+     * Records an engine run that continued the given result.
+     * 
+     * @param stepsBefore Executed steps of the result before the run
+     * @param startNanos {@link System#nanoTime()} at the start of the run
+     */
+    public static void recordRun(ExecutionResult result, long stepsBefore, long startNanos) {
+        RUN_NANOS.record(System.nanoTime() - startNanos);
+        EXECUTED_STEPS.add(result.getExecutedSteps() - stepsBefore);
+        byte status = result.getStatus();
+        if (status == ExecutionResult.POSITION_BLOCKED || status == ExecutionResult.OBSTACLE_HIT) {
+            POSITION_BLOCKED.increment();
+        } else if (status == ExecutionResult.X_VALUE_EXCEEDED || status == ExecutionResult.Y_VALUE_EXCEEDED) {
+            PLATEAU_EXCEEDED.increment();
+        }
+    }
+
+    /**
+     * Records a run of the {@link engine.TickSimulator}.
+     * 
+     * @param steps Instructions executed by all rovers
+     * @param plateauExceeded Number of rovers stopped by the plateau's border
+     * @param positionBlocked Number of rovers stopped by an obstacle or
+     *            another rover
+     * @param startNanos {@link System#nanoTime()} at the start of the run
+     */
+    public static void recordSimulation(long steps, int plateauExceeded, int positionBlocked, long startNanos) {
+        SIMULATION_NANOS.record(System.nanoTime() - startNanos);
+        EXECUTED_STEPS.add(steps);
+        PLATEAU_EXCEEDED.add(plateauExceeded);
+        POSITION_BLOCKED.add(positionBlocked);
+    }
+
+    /**
+     * Registers the {@link MetricsMXBean} at the platform MBean server under
+     * {@link #OBJECT_NAME}, if it isn't registered yet.
+     */
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsBean(), name);
+            }
+        } catch (JMException ex) {
+            throw new IllegalStateException("The metrics can't be registered!", ex);
+        }
+    }
+
+    /**
+     * Returns all metrics as text, one metric per line.
+     */
+    public static String dump() {
+        double seconds = Math.max(1, System.nanoTime() - STARTED) / 1e9;
+        long steps = EXECUTED_STEPS.sum();
+        StringBuilder text = new StringBuilder();
+        text.append("executedSteps=").append(steps)
+                .append(" (").append((long) (steps / seconds)).append("/s)\n");
+        text.append("plateauExceeded=").append(PLATEAU_EXCEEDED.sum()).append('\n');
+        text.append("positionBlocked=").append(POSITION_BLOCKED.sum()).append('\n');
+        text.append("registeredRovers=").append(World.getDefault().getRoverCount()).append('\n');
+        text.append("activeRovers=").append(World.getDefault().getFleet().getActiveCount()).append('\n');
+        text.append("parsedRovers=").append(PARSED_ROVERS.sum()).append('\n');
+        text.append("parsedBytes=").append(PARSED_BYTES.sum()).append('\n');
+        appendHistogram(text, RUN_NANOS);
+        appendHistogram(text, COLLISION_CHECK_NANOS);
+        appendHistogram(text, SIMULATION_NANOS);
+        appendHistogram(text, MISSION_NANOS);
+        return text.toString();
+    }
+
+    private static void appendHistogram(StringBuilder text, LatencyHistogram histogram) {
+        text.append(histogram.getName()).append("Nanos count=").append(histogram.getCount())
+                .append(" p50=").append(histogram.getValueAtPercentile(50))
+                .append(" p99=").append(histogram.getValueAtPercentile(99))
+                .append(" p99.9=").append(histogram.getValueAtPercentile(99.9))
+                .append(" max=").append(histogram.getMax()).append('\n');
+    }
+
+    private static final class MetricsBean implements MetricsMXBean {
+
+        @Override
+        public long getExecutedSteps() {
+            return EXECUTED_STEPS.sum();
+        }
+
+        @Override
+        public long getPlateauExceeded() {
+            return PLATEAU_EXCEEDED.sum();
+        }
+
+        @Override
+        public long getPositionBlocked() {
+            return POSITION_BLOCKED.sum();
+        }
+
+        @Override
+        public int getRegisteredRovers() {
+            return World.getDefault().getRoverCount();
+        }
+
+        @Override
+        public int getActiveRovers() {
+            return World.getDefault().getFleet().getActiveCount();
+        }
+
+        @Override
+        public long getParsedRovers() {
+            return PARSED_ROVERS.sum();
+        }
+
+        @Override
+        public long getParsedBytes() {
+            return PARSED_BYTES.sum();
+        }
+
+        @Override
+        public long getRunCount() {
+            return RUN_NANOS.getCount();
+        }
+
+        @Override
+        public long getRunNanosP99() {
+            return RUN_NANOS.getValueAtPercentile(99);
+        }
+
+        @Override
+        public long getRunNanosMax() {
+            return RUN_NANOS.getMax();
+        }
+
+        @Override
+        public long getCollisionCheckCount() {
+            return COLLISION_CHECK_NANOS.getCount();
+        }
+
+        @Override
+        public long getCollisionCheckNanosTotal() {
+            return COLLISION_CHECK_NANOS.getTotal();
+        }
+
+        @Override
+        public long getCollisionCheckNanosP99() {
+            return COLLISION_CHECK_NANOS.getValueAtPercentile(99);
+        }
+
+        @Override
+        public long getSimulationCount() {
+            return SIMULATION_NANOS.getCount();
+        }
+
+        @Override
+        public long getSimulationNanosP99() {
+            return SIMULATION_NANOS.getValueAtPercentile(99);
+        }
+
+        @Override
+        public long getMissionCount() {
+            return MISSION_NANOS.getCount();
+        }
+
+        @Override
+        public long getMissionNanosP99() {
+            return MISSION_NANOS.getValueAtPercentile(99);
+        }
+
+        @Override
+        public String getDump() {
+            return dump();
+        }
+    }
+}
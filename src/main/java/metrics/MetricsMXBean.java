@@ -0,0 +1,52 @@
+package metrics;
+
+/**
+ * JMX view on the {@link Metrics}. Latencies are in nanoseconds.
+ */
+public interface MetricsMXBean {
+
+    long getExecutedSteps();
+
+    long getPlateauExceeded();
+
+    long getPositionBlocked();
+
+    /**
+     * Returns the number of rovers registered in the default world.
+     */
+    int getRegisteredRovers();
+
+    /**
+     * Returns the number of active rovers in the fleet of the default world.
+     */
+    int getActiveRovers();
+
+    long getParsedRovers();
+
+    long getParsedBytes();
+
+    long getRunCount();
+
+    long getRunNanosP99();
+
+    long getRunNanosMax();
+
+    long getCollisionCheckCount();
+
+    long getCollisionCheckNanosTotal();
+
+    long getCollisionCheckNanosP99();
+
+    long getSimulationCount();
+
+    long getSimulationNanosP99();
+
+    long getMissionCount();
+
+    long getMissionNanosP99();
+
+    /**
+     * Returns all metrics as text.
+     */
+    String getDump();
+}
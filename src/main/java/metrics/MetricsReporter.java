@@ -0,0 +1,33 @@
+package metrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes the {@link Metrics#dump()} to a stream, e.g. to the
+ * standard error of a long-running server. Runs on a daemon thread, so it
+ * doesn't keep the JVM alive.
+ */
+public class MetricsReporter implements Closeable {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "metrics-reporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public MetricsReporter(PrintStream out, long period, TimeUnit unit) {
+        checkArgument(period > 0, "Invalid period: %s", period);
+        scheduler.scheduleAtFixedRate(() -> out.print(Metrics.dump()), period, period, unit);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
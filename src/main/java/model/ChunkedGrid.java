@@ -0,0 +1,381 @@
+package model;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+import util.LongIntHashMap;
+
+/**
+ * Set of cells of an unbounded plateau with one bit per cell. The plateau is
+ * split into square tiles of {@code 2^tileShift} cells per side; a tile is
+ * allocated when its first cell is set and released as soon as its last cell
+ * is cleared, so the memory depends on the number of set cells and how they
+ * are clustered, never on the size of the plateau.
+ * <p>
+ * A tile is addressed by its packed tile key, i.e. the cell key (see
+ * {@link OccupancyIndex#cellKey(int, int)}) of the tile coordinates, which a
+ * primitive hash map translates into a slot. The bits of all tiles are kept
+ * in one array, row by row within a tile, so a tile of 8 x 8 cells is a single
+ * long and a tile of 64 x 64 cells holds one long per row. Released slots are
+ * filled with the last tile, which keeps the array dense. Writes remember the
+ * last tile they touched, so a walk through neighbouring cells skips most of
+ * the hash lookups.
+ * <p>
+ * The grid may be read by several threads as long as it isn't changed at the
+ * same time.
+ */
+public class ChunkedGrid {
+
+    public static final int MIN_TILE_SHIFT = 3;
+    public static final int MAX_TILE_SHIFT = 6;
+
+    private static final int NO_SLOT = -1;
+    private static final int INITIAL_TILES = 16;
+
+    private final int tileShift;
+    private final int tileMask;
+    private final int wordsPerTile;
+    private final LongIntHashMap slotByTileKey;
+    private long[] tileKeys;
+    private long[] words;
+    private int tileCount;
+    private long cardinality;
+    // tile of the last write
+    private long lastTileKey;
+    private int lastSlot = NO_SLOT;
+
+    /**
+     * @param tileShift Binary logarithm of the number of cells per tile side,
+     *            from {@link #MIN_TILE_SHIFT} (8 x 8 cells) to
+     *            {@link #MAX_TILE_SHIFT} (64 x 64 cells)
+     */
+    public ChunkedGrid(int tileShift) {
+        this(tileShift, INITIAL_TILES);
+    }
+
+    public ChunkedGrid(int tileShift, int expectedTiles) {
+        checkArgument(tileShift >= MIN_TILE_SHIFT && tileShift <= MAX_TILE_SHIFT, "Invalid tile shift: %s",
+                tileShift);
+        this.tileShift = tileShift;
+        this.tileMask = (1 << tileShift) - 1;
+        this.wordsPerTile = 1 << (2 * tileShift - 6);
+        int capacity = Math.max(INITIAL_TILES, expectedTiles);
+        this.slotByTileKey = new LongIntHashMap(capacity);
+        this.tileKeys = new long[capacity];
+        this.words = new long[capacity * wordsPerTile];
+    }
+
+    /**
+     * Returns the key of the tile holding the given cell.
+     */
+    public long tileKey(int xValue, int yValue) {
+        return OccupancyIndex.cellKey(xValue >> tileShift, yValue >> tileShift);
+    }
+
+    public int getTileShift() {
+        return tileShift;
+    }
+
+    /**
+     * Returns the number of longs holding the bits of a tile.
+     */
+    public int getWordsPerTile() {
+        return wordsPerTile;
+    }
+
+    /**
+     * Returns the number of allocated tiles.
+     */
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    /**
+     * Returns the number of set cells.
+     */
+    public long getCardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public boolean get(int xValue, int yValue) {
+        if (cardinality == 0) {
+            return false;
+        }
+        int slot = slotByTileKey.get(tileKey(xValue, yValue), NO_SLOT);
+        if (slot == NO_SLOT) {
+            return false;
+        }
+        int bit = bitOf(xValue, yValue);
+        return (words[slot * wordsPerTile + (bit >>> 6)] & 1L << bit) != 0;
+    }
+
+    /**
+     * Sets the given cell, allocating its tile if necessary.
+     * 
+     * @return {@code true} if the cell hasn't been set before
+     */
+    public boolean set(int xValue, int yValue) {
+        int slot = slotForWrite(tileKey(xValue, yValue));
+        int bit = bitOf(xValue, yValue);
+        int word = slot * wordsPerTile + (bit >>> 6);
+        long mask = 1L << bit;
+        if ((words[word] & mask) != 0) {
+            return false;
+        }
+        words[word] |= mask;
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * Sets all cells of the given rectangle (bounds included), allocating its
+     * tiles if necessary. The cells are set whole tile rows at once.
+     */
+    public void set(int minXValue, int minYValue, int maxXValue, int maxYValue) {
+        checkArgument(minXValue <= maxXValue && minYValue <= maxYValue, "Invalid rectangle: %s %s %s %s",
+                minXValue, minYValue, maxXValue, maxYValue);
+        for (long tileY = minYValue >> tileShift; tileY <= maxYValue >> tileShift; tileY++) {
+            for (long tileX = minXValue >> tileShift; tileX <= maxXValue >> tileShift; tileX++) {
+                int slot = slotForWrite(OccupancyIndex.cellKey((int) tileX, (int) tileY));
+                long originX = tileX << tileShift;
+                long originY = tileY << tileShift;
+                int fromX = (int) Math.max(0, minXValue - originX);
+                int toX = (int) Math.min(tileMask, maxXValue - originX);
+                int fromY = (int) Math.max(0, minYValue - originY);
+                int toY = (int) Math.min(tileMask, maxYValue - originY);
+                long rowMask = -1L >>> (63 - toX + fromX) << fromX;
+                for (int row = fromY; row <= toY; row++) {
+                    int bit = row << tileShift;
+                    int word = slot * wordsPerTile + (bit >>> 6);
+                    long bits = rowMask << bit;
+                    cardinality += Long.bitCount(bits & ~words[word]);
+                    words[word] |= bits;
+                }
+            }
+        }
+    }
+
+    /**
+     * Clears the given cell and releases its tile if no other cell of it is
+     * set.
+     * 
+     * @return {@code true} if the cell has been set before
+     */
+    public boolean clear(int xValue, int yValue) {
+        long tileKey = tileKey(xValue, yValue);
+        int slot = slotByTileKey.get(tileKey, NO_SLOT);
+        if (slot == NO_SLOT) {
+            return false;
+        }
+        int bit = bitOf(xValue, yValue);
+        int word = slot * wordsPerTile + (bit >>> 6);
+        long mask = 1L << bit;
+        if ((words[word] & mask) == 0) {
+            return false;
+        }
+        words[word] &= ~mask;
+        cardinality--;
+        if (words[word] == 0 && isTileEmpty(slot)) {
+            release(tileKey, slot);
+        }
+        return true;
+    }
+
+    /**
+     * Checks if any cell of the given rectangle (bounds included) is set.
+     * Only the tiles overlapping the rectangle are looked at, whole tile rows
+     * at once; if the rectangle spans more tiles than are allocated, the
+     * allocated tiles are scanned instead.
+     */
+    public boolean isAnySet(int minXValue, int minYValue, int maxXValue, int maxYValue) {
+        if (cardinality == 0 || minXValue > maxXValue || minYValue > maxYValue) {
+            return false;
+        }
+        int minTileX = minXValue >> tileShift;
+        int minTileY = minYValue >> tileShift;
+        int maxTileX = maxXValue >> tileShift;
+        int maxTileY = maxYValue >> tileShift;
+        long spannedTiles = (maxTileX - (long) minTileX + 1) * (maxTileY - (long) minTileY + 1);
+        if (spannedTiles > tileCount) {
+            for (int slot = 0; slot < tileCount; slot++) {
+                int tileX = OccupancyIndex.xValueOf(tileKeys[slot]);
+                int tileY = OccupancyIndex.yValueOf(tileKeys[slot]);
+                if (tileX >= minTileX && tileX <= maxTileX && tileY >= minTileY && tileY <= maxTileY
+                        && isAnySet(slot, tileX, tileY, minXValue, minYValue, maxXValue, maxYValue)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (long tileY = minTileY; tileY <= maxTileY; tileY++) {
+            for (long tileX = minTileX; tileX <= maxTileX; tileX++) {
+                int slot = slotByTileKey.get(OccupancyIndex.cellKey((int) tileX, (int) tileY), NO_SLOT);
+                if (slot != NO_SLOT
+                        && isAnySet(slot, (int) tileX, (int) tileY, minXValue, minYValue, maxXValue, maxYValue)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets all cells that are set in the other grid.
+     * 
+     * @param other Grid with the same tile shift
+     */
+    public void or(ChunkedGrid other) {
+        checkArgument(other.tileShift == tileShift, "The grids have different tile sizes!");
+        for (int otherSlot = 0; otherSlot < other.tileCount; otherSlot++) {
+            orTile(other.tileKeys[otherSlot], other.words, otherSlot * wordsPerTile);
+        }
+    }
+
+    /**
+     * Sets all cells of a tile whose bits are set in the given words.
+     * 
+     * @param tileWords {@link #getWordsPerTile()} longs in the layout of
+     *            {@link #wordAt(int, int)}
+     */
+    public void orTile(long tileKey, long[] tileWords, int offset) {
+        int slot = NO_SLOT;
+        for (int word = 0; word < wordsPerTile; word++) {
+            long bits = tileWords[offset + word];
+            if (bits == 0) {
+                continue;
+            }
+            if (slot == NO_SLOT) {
+                slot = slotForWrite(tileKey);
+            }
+            int index = slot * wordsPerTile + word;
+            cardinality += Long.bitCount(bits & ~words[index]);
+            words[index] |= bits;
+        }
+    }
+
+    /**
+     * Returns the key of the tile in the given slot; the allocated tiles take
+     * the slots {@code 0} to {@code getTileCount() - 1}.
+     */
+    public long tileKeyAt(int slot) {
+        checkElementIndex(slot, tileCount);
+        return tileKeys[slot];
+    }
+
+    /**
+     * Returns a word of the tile in the given slot. Within a tile, cell
+     * {@code (x, y)} relative to the tile's origin is bit
+     * {@code (y << tileShift | x) % 64} of word {@code (y << tileShift | x) / 64}.
+     */
+    public long wordAt(int slot, int word) {
+        checkElementIndex(slot, tileCount);
+        checkElementIndex(word, wordsPerTile);
+        return words[slot * wordsPerTile + word];
+    }
+
+    /**
+     * Passes the cell key of every set cell to the consumer, tile by tile in
+     * no particular order.
+     */
+    public void forEachSetCell(LongConsumer consumer) {
+        for (int slot = 0; slot < tileCount; slot++) {
+            long originX = (long) OccupancyIndex.xValueOf(tileKeys[slot]) << tileShift;
+            long originY = (long) OccupancyIndex.yValueOf(tileKeys[slot]) << tileShift;
+            for (int word = 0; word < wordsPerTile; word++) {
+                for (long bits = words[slot * wordsPerTile + word]; bits != 0; bits &= bits - 1) {
+                    int bit = word << 6 | Long.numberOfTrailingZeros(bits);
+                    consumer.accept(OccupancyIndex.cellKey((int) (originX + (bit & tileMask)),
+                            (int) (originY + (bit >>> tileShift))));
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases all tiles.
+     */
+    public void clear() {
+        slotByTileKey.clear();
+        Arrays.fill(words, 0, tileCount * wordsPerTile, 0);
+        tileCount = 0;
+        cardinality = 0;
+        lastSlot = NO_SLOT;
+    }
+
+    private boolean isAnySet(int slot, int tileX, int tileY, int minXValue, int minYValue, int maxXValue,
+            int maxYValue) {
+        long originX = (long) tileX << tileShift;
+        long originY = (long) tileY << tileShift;
+        int fromX = (int) Math.max(0, minXValue - originX);
+        int toX = (int) Math.min(tileMask, maxXValue - originX);
+        int fromY = (int) Math.max(0, minYValue - originY);
+        int toY = (int) Math.min(tileMask, maxYValue - originY);
+        long rowMask = -1L >>> (63 - toX + fromX) << fromX;
+        for (int row = fromY; row <= toY; row++) {
+            int bit = row << tileShift;
+            if ((words[slot * wordsPerTile + (bit >>> 6)] & rowMask << bit) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int bitOf(int xValue, int yValue) {
+        return (yValue & tileMask) << tileShift | (xValue & tileMask);
+    }
+
+    private boolean isTileEmpty(int slot) {
+        for (int word = slot * wordsPerTile; word < (slot + 1) * wordsPerTile; word++) {
+            if (words[word] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int slotForWrite(long tileKey) {
+        if (lastSlot != NO_SLOT && tileKey == lastTileKey) {
+            return lastSlot;
+        }
+        int slot = slotByTileKey.get(tileKey, NO_SLOT);
+        if (slot == NO_SLOT) {
+            slot = allocate(tileKey);
+        }
+        lastTileKey = tileKey;
+        lastSlot = slot;
+        return slot;
+    }
+
+    private int allocate(long tileKey) {
+        if (tileCount == tileKeys.length) {
+            tileKeys = Arrays.copyOf(tileKeys, tileCount * 2);
+            words = Arrays.copyOf(words, tileCount * 2 * wordsPerTile);
+        }
+        int slot = tileCount++;
+        tileKeys[slot] = tileKey;
+        slotByTileKey.put(tileKey, slot, NO_SLOT);
+        return slot;
+    }
+
+    /**
+     * Moves the last tile into the slot of the released one.
+     */
+    private void release(long tileKey, int slot) {
+        slotByTileKey.remove(tileKey, NO_SLOT);
+        lastSlot = NO_SLOT;
+        int last = --tileCount;
+        if (slot != last) {
+            tileKeys[slot] = tileKeys[last];
+            System.arraycopy(words, last * wordsPerTile, words, slot * wordsPerTile, wordsPerTile);
+            Arrays.fill(words, last * wordsPerTile, (last + 1) * wordsPerTile, 0);
+            slotByTileKey.put(tileKeys[slot], slot, NO_SLOT);
+        }
+    }
+}
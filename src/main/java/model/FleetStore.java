@@ -0,0 +1,298 @@
+package model;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import java.util.Arrays;
+
+import constants.Orientation;
+import coverage.CoverageMap;
+import snapshot.MoveJournal;
+import util.LongIntHashMap;
+
+/**
+ * Keeps the state of a whole fleet in parallel primitive arrays (struct of
+ * arrays). Every rover is addressed by a dense index; {@link Rover} objects
+ * are only thin views on a single slot.
+ * <p>
+ * Only active slots are reflected in the optional {@link OccupancyIndex}. A
+ * slot becomes active by {@link #activate(int)} and stays allocated after
+ * {@link #deactivate(int)}, so indices are never reused. If there is an index,
+ * the store also remembers which slot stands on an occupied cell.
+ * <p>
+ * An optional {@link MoveJournal} records every slot that is added or
+ * retired; executed instructions are recorded by their executors. Likewise an
+ * optional {@link CoverageMap} receives the cells moved onto from the
+ * executors.
+ */
+public class FleetStore {
+
+    public static final byte NO_ORIENTATION = -1;
+    public static final int NO_OCCUPANT = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final Orientation[] ORIENTATIONS = Orientation.values();
+
+    private final OccupancyIndex occupancyIndex;
+    private final LongIntHashMap occupants;
+
+    private long[] ids;
+    private int[] xValues;
+    private int[] yValues;
+    private byte[] orientations;
+    private boolean[] active;
+    private int size;
+    private int activeCount;
+    private MoveJournal journal;
+    private CoverageMap coverage;
+
+    public FleetStore() {
+        this(DEFAULT_CAPACITY, null);
+    }
+
+    /**
+     * @param initialCapacity Number of slots to allocate up front
+     * @param occupancyIndex Index that tracks the positions of all active
+     *            slots or {@code null} if no index is required
+     */
+    public FleetStore(int initialCapacity, OccupancyIndex occupancyIndex) {
+        this.occupancyIndex = occupancyIndex;
+        this.occupants = occupancyIndex == null ? null : new LongIntHashMap();
+        int capacity = Math.max(1, initialCapacity);
+        this.ids = new long[capacity];
+        this.xValues = new int[capacity];
+        this.yValues = new int[capacity];
+        this.orientations = new byte[capacity];
+        this.active = new boolean[capacity];
+    }
+
+    /**
+     * Returns the number of allocated slots (active or not).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of active slots. The slot of a rover the
+     * {@link engine.InstructionEngine} is moving is inactive during the run.
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public OccupancyIndex getOccupancyIndex() {
+        return occupancyIndex;
+    }
+
+    /**
+     * Returns the journal that records the changes of this store or
+     * {@code null}.
+     */
+    public MoveJournal getJournal() {
+        return journal;
+    }
+
+    public void setJournal(MoveJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Returns the map that records the cells visited by the rovers of this
+     * store or {@code null}.
+     */
+    public CoverageMap getCoverage() {
+        return coverage;
+    }
+
+    public void setCoverage(CoverageMap coverage) {
+        this.coverage = coverage;
+    }
+
+    /**
+     * Allocates a new inactive slot without position and orientation.
+     *
+     * @return The index of the new slot
+     */
+    public int allocate() {
+        if (size == xValues.length) {
+            grow();
+        }
+        int index = size++;
+        orientations[index] = NO_ORIENTATION;
+        return index;
+    }
+
+    /**
+     * Allocates a new slot, fills it with the given state and activates it.
+     *
+     * @return The index of the new slot
+     */
+    public int add(long id, int xValue, int yValue, Orientation orientation) {
+        int index = allocate();
+        ids[index] = id;
+        xValues[index] = xValue;
+        yValues[index] = yValue;
+        orientations[index] = encode(orientation);
+        activate(index);
+        if (journal != null) {
+            journal.deployed(id, xValue, yValue, orientations[index]);
+        }
+        return index;
+    }
+
+    public void activate(int index) {
+        checkElementIndex(index, size);
+        if (!active[index]) {
+            active[index] = true;
+            activeCount++;
+            if (occupancyIndex != null) {
+                occupancyIndex.add(xValues[index], yValues[index]);
+                occupants.put(OccupancyIndex.cellKey(xValues[index], yValues[index]), index, NO_OCCUPANT);
+            }
+        }
+    }
+
+    public void deactivate(int index) {
+        checkElementIndex(index, size);
+        if (active[index]) {
+            active[index] = false;
+            activeCount--;
+            if (occupancyIndex != null) {
+                occupancyIndex.remove(xValues[index], yValues[index]);
+                vacate(index);
+            }
+        }
+    }
+
+    /**
+     * Deactivates the slot because its rover left the fleet. Unlike
+     * {@link #deactivate(int)} this is recorded in the journal.
+     */
+    public void retire(int index) {
+        deactivate(index);
+        if (journal != null) {
+            journal.retired(ids[index]);
+        }
+    }
+
+    /**
+     * Hands the slot over to the given id, e.g. when its rover is registered
+     * again under another id. The journal records this like retiring the slot
+     * and adding it again.
+     */
+    public void reassign(int index, long id) {
+        checkElementIndex(index, size);
+        if (ids[index] == id) {
+            return;
+        }
+        if (journal != null) {
+            journal.retired(ids[index]);
+            journal.deployed(id, xValues[index], yValues[index], orientations[index]);
+        }
+        ids[index] = id;
+    }
+
+    public boolean isActive(int index) {
+        return active[index];
+    }
+
+    public long getId(int index) {
+        return ids[index];
+    }
+
+    public int getxValue(int index) {
+        return xValues[index];
+    }
+
+    public int getyValue(int index) {
+        return yValues[index];
+    }
+
+    /**
+     * Returns the orientation as {@link Orientation#ordinal()} or
+     * {@link #NO_ORIENTATION}.
+     */
+    public byte getOrientationCode(int index) {
+        return orientations[index];
+    }
+
+    public Orientation getOrientation(int index) {
+        return decode(orientations[index]);
+    }
+
+    /**
+     * Moves the given slot to the new coordinates and keeps the occupancy
+     * index up to date if the slot is active.
+     */
+    public void setPosition(int index, int xValue, int yValue) {
+        if (occupancyIndex != null && active[index]) {
+            occupancyIndex.move(xValues[index], yValues[index], xValue, yValue);
+            vacate(index);
+            occupants.put(OccupancyIndex.cellKey(xValue, yValue), index, NO_OCCUPANT);
+        }
+        xValues[index] = xValue;
+        yValues[index] = yValue;
+    }
+
+    /**
+     * Returns the index of the active slot standing on the given cell or
+     * {@link #NO_OCCUPANT}. If several slots share a cell, the one that
+     * entered it last is returned; once it leaves, the others aren't known
+     * anymore. Always returns {@link #NO_OCCUPANT} if the store has no
+     * occupancy index.
+     */
+    public int getOccupant(int xValue, int yValue) {
+        if (occupants == null) {
+            return NO_OCCUPANT;
+        }
+        return occupants.get(OccupancyIndex.cellKey(xValue, yValue), NO_OCCUPANT);
+    }
+
+    /**
+     * Returns position and orientation of a deployed slot as
+     * {@link PackedState}.
+     */
+    public long getPackedState(int index) {
+        return PackedState.pack(xValues[index], yValues[index], orientations[index]);
+    }
+
+    /**
+     * Sets position and orientation from a {@link PackedState}.
+     */
+    public void setPackedState(int index, long state) {
+        setPosition(index, PackedState.xValueOf(state), PackedState.yValueOf(state));
+        orientations[index] = (byte) PackedState.orientationOf(state);
+    }
+
+    public void setOrientation(int index, Orientation orientation) {
+        orientations[index] = encode(orientation);
+    }
+
+    public void setOrientationCode(int index, byte orientationCode) {
+        orientations[index] = orientationCode;
+    }
+
+    private void vacate(int index) {
+        long cellKey = OccupancyIndex.cellKey(xValues[index], yValues[index]);
+        if (occupants.get(cellKey, NO_OCCUPANT) == index) {
+            occupants.remove(cellKey, NO_OCCUPANT);
+        }
+    }
+
+    private void grow() {
+        int newCapacity = xValues.length + (xValues.length >> 1) + 1;
+        ids = Arrays.copyOf(ids, newCapacity);
+        xValues = Arrays.copyOf(xValues, newCapacity);
+        yValues = Arrays.copyOf(yValues, newCapacity);
+        orientations = Arrays.copyOf(orientations, newCapacity);
+        active = Arrays.copyOf(active, newCapacity);
+    }
+
+    private static byte encode(Orientation orientation) {
+        return orientation == null ? NO_ORIENTATION : (byte) orientation.ordinal();
+    }
+
+    private static Orientation decode(byte orientationCode) {
+        return orientationCode == NO_ORIENTATION ? null : ORIENTATIONS[orientationCode];
+    }
+}
@@ -0,0 +1,121 @@
+package model;
+
+import util.LongIntHashMap;
+
+/**
+ * Spatial index of the cells occupied by rovers. Occupied cells are bits of a
+ * {@link ChunkedGrid} of 8 x 8 cell tiles, i.e. one long per tile, so rovers
+ * standing close to each other share their tile. A cell holding more than one
+ * rover additionally counts the extra rovers in a primitive hash map keyed by
+ * the packed cell key (see {@link #cellKey(int, int)}). Lookups, inserts and
+ * removals are O(1) regardless of the number of indexed rovers.
+ */
+public class OccupancyIndex {
+
+    private static final int TILE_SHIFT = ChunkedGrid.MIN_TILE_SHIFT;
+
+    private final ChunkedGrid occupiedCells;
+    private final LongIntHashMap extraRovers = new LongIntHashMap();
+
+    public OccupancyIndex() {
+        this.occupiedCells = new ChunkedGrid(TILE_SHIFT);
+    }
+
+    /**
+     * @param expectedCells Number of cells expected to be occupied; the
+     *            memory for as many tiles is reserved up front
+     */
+    public OccupancyIndex(int expectedCells) {
+        this.occupiedCells = new ChunkedGrid(TILE_SHIFT, expectedCells);
+    }
+
+    /**
+     * Packs the given coordinates into a single long (X in the upper, Y in the
+     * lower 32 bits).
+     * 
+     * @param xValue The X-coordinate
+     * @param yValue The Y-coordinate
+     * @return The packed cell key
+     */
+    public static long cellKey(int xValue, int yValue) {
+        return ((long) xValue << 32) | (yValue & 0xFFFFFFFFL);
+    }
+
+    public static int xValueOf(long cellKey) {
+        return (int) (cellKey >> 32);
+    }
+
+    public static int yValueOf(long cellKey) {
+        return (int) cellKey;
+    }
+
+    /**
+     * Returns the number of distinct occupied cells.
+     */
+    public int size() {
+        return (int) occupiedCells.getCardinality();
+    }
+
+    public boolean isOccupied(int xValue, int yValue) {
+        return occupiedCells.get(xValue, yValue);
+    }
+
+    public boolean isOccupied(long cellKey) {
+        return occupiedCells.get(xValueOf(cellKey), yValueOf(cellKey));
+    }
+
+    /**
+     * Checks if any cell of the given rectangle (bounds included) is
+     * occupied.
+     * 
+     * @see ChunkedGrid#isAnySet(int, int, int, int)
+     */
+    public boolean isAnyOccupied(int minXValue, int minYValue, int maxXValue, int maxYValue) {
+        return occupiedCells.isAnySet(minXValue, minYValue, maxXValue, maxYValue);
+    }
+
+    /**
+     * Registers one more rover on the given cell.
+     */
+    public void add(int xValue, int yValue) {
+        add(cellKey(xValue, yValue));
+    }
+
+    public void add(long cellKey) {
+        if (!occupiedCells.set(xValueOf(cellKey), yValueOf(cellKey))) {
+            extraRovers.addTo(cellKey, 1);
+        }
+    }
+
+    /**
+     * Removes one rover from the given cell. Nothing happens if the cell isn't
+     * occupied.
+     */
+    public void remove(int xValue, int yValue) {
+        remove(cellKey(xValue, yValue));
+    }
+
+    public void remove(long cellKey) {
+        int extraCount = extraRovers.size() == 0 ? 0 : extraRovers.get(cellKey, 0);
+        if (extraCount == 0) {
+            occupiedCells.clear(xValueOf(cellKey), yValueOf(cellKey));
+        } else if (extraCount == 1) {
+            extraRovers.remove(cellKey, 0);
+        } else {
+            extraRovers.put(cellKey, extraCount - 1, 0);
+        }
+    }
+
+    /**
+     * Moves one rover from the first to the second cell.
+     */
+    public void move(int fromXValue, int fromYValue, int toXValue, int toYValue) {
+        remove(fromXValue, fromYValue);
+        add(toXValue, toYValue);
+    }
+
+    public void clear() {
+        occupiedCells.clear();
+        extraRovers.clear();
+    }
+}
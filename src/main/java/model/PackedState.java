@@ -0,0 +1,67 @@
+package model;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import constants.OrientationCode;
+
+/**
+ * Position and orientation of a rover packed into a single {@code long}:
+ * 
+ * <pre>
+ * bits 33..63: X-coordinate, bits 2..32: Y-coordinate, bits 0..1: orientation code
+ * </pre>
+ * 
+ * Both coordinates must not be negative, which holds for every deployed
+ * rover. A move is a single addition of a precomputed delta and a turn only
+ * touches the two lowest bits, so bulk simulations can keep one array of
+ * states instead of three parallel arrays.
+ */
+public final class PackedState {
+
+    private static final int X_SHIFT = 33;
+    private static final int Y_SHIFT = 2;
+    private static final long COORDINATE_MASK = 0x7FFFFFFFL;
+    private static final long ORIENTATION_MASK = 3;
+    // indexed by orientation code: N, E, S, W
+    private static final long[] MOVE_DELTA = { 1L << Y_SHIFT, 1L << X_SHIFT, -(1L << Y_SHIFT), -(1L << X_SHIFT) };
+
+    private PackedState() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if a coordinate is negative
+     */
+    public static long pack(int xValue, int yValue, int orientationCode) {
+        checkArgument(xValue >= 0 && yValue >= 0, "Packed coordinates must not be negative: %s %s", xValue,
+                yValue);
+        return (long) xValue << X_SHIFT | (long) yValue << Y_SHIFT | orientationCode & ORIENTATION_MASK;
+    }
+
+    public static int xValueOf(long state) {
+        return (int) (state >>> X_SHIFT);
+    }
+
+    public static int yValueOf(long state) {
+        return (int) (state >>> Y_SHIFT & COORDINATE_MASK);
+    }
+
+    public static int orientationOf(long state) {
+        return (int) (state & ORIENTATION_MASK);
+    }
+
+    /**
+     * Moves one cell along the orientation. The caller has to make sure that
+     * the new coordinates aren't negative.
+     */
+    public static long move(long state) {
+        return state + MOVE_DELTA[(int) (state & ORIENTATION_MASK)];
+    }
+
+    public static long turnLeft(long state) {
+        return state & ~ORIENTATION_MASK | OrientationCode.left((int) state);
+    }
+
+    public static long turnRight(long state) {
+        return state & ~ORIENTATION_MASK | OrientationCode.right((int) state);
+    }
+}
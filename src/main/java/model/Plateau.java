@@ -0,0 +1,134 @@
+package model;
+
+import constants.PlateauSize;
+
+/**
+ * Size of the plateau of a single {@link World}. The lower bounds are the
+ * same for every plateau (see {@link PlateauSize#minXValue} and
+ * {@link PlateauSize#minYValue}). Cells no rover can step on are kept in the
+ * plateau's {@link TerrainMap}.
+ */
+public class Plateau {
+
+    /** Result of {@link #blockage(OccupancyIndex, int, int)}: the cell is free */
+    public static final int FREE = 0;
+    /** Result of {@link #blockage(OccupancyIndex, int, int)}: the cell is an obstacle */
+    public static final int OBSTACLE = 1;
+    /** Result of {@link #blockage(OccupancyIndex, int, int)}: a rover stands on the cell */
+    public static final int OCCUPIED = 2;
+
+    private static final Plateau GLOBAL = new Plateau() {
+
+        @Override
+        public int getMaxXValue() {
+            return PlateauSize.maxXValue;
+        }
+
+        @Override
+        public int getMaxYValue() {
+            return PlateauSize.maxYValue;
+        }
+
+        @Override
+        public void setMaxXValue(int maxXValue) {
+            PlateauSize.setMaxXValue(maxXValue);
+        }
+
+        @Override
+        public void setMaxYValue(int maxYValue) {
+            PlateauSize.setMaxYValue(maxYValue);
+        }
+    };
+
+    private volatile int maxXValue;
+    private volatile int maxYValue;
+    private final TerrainMap terrain;
+
+    public Plateau() {
+        this.terrain = new TerrainMap();
+    }
+
+    public Plateau(int maxXValue, int maxYValue) {
+        this(maxXValue, maxYValue, new TerrainMap());
+    }
+
+    /**
+     * Creates a plateau with the obstacles of the given terrain, e.g. the
+     * terrain of the whole plateau for a plateau that only simulates a part
+     * of it.
+     */
+    public Plateau(int maxXValue, int maxYValue, TerrainMap terrain) {
+        this.maxXValue = maxXValue;
+        this.maxYValue = maxYValue;
+        this.terrain = terrain;
+    }
+
+    /**
+     * Returns the plateau that reads and writes the static {@link PlateauSize},
+     * i.e. the plateau of the default world.
+     */
+    public static Plateau global() {
+        return GLOBAL;
+    }
+
+    public int getMinXValue() {
+        return PlateauSize.minXValue;
+    }
+
+    public int getMinYValue() {
+        return PlateauSize.minYValue;
+    }
+
+    public int getMaxXValue() {
+        return maxXValue;
+    }
+
+    public int getMaxYValue() {
+        return maxYValue;
+    }
+
+    public void setMaxXValue(int maxXValue) {
+        this.maxXValue = maxXValue;
+    }
+
+    public void setMaxYValue(int maxYValue) {
+        this.maxYValue = maxYValue;
+    }
+
+    /**
+     * Returns the blocked cells of the plateau. They are empty unless an
+     * obstacle is added to the returned map.
+     */
+    public TerrainMap getTerrain() {
+        return terrain;
+    }
+
+    /**
+     * Checks if a rover can step on the given cell: first for an obstacle of
+     * the terrain, then for another rover. Every executor and planner asks
+     * this query, so all of them treat blocked cells the same way. Both
+     * lookups are O(1).
+     * 
+     * @param occupancyIndex Index of the rovers that block the cell or
+     *            {@code null} if the caller claims the cell itself
+     * @return {@link #FREE}, {@link #OBSTACLE} or {@link #OCCUPIED}
+     */
+    public int blockage(OccupancyIndex occupancyIndex, int xValue, int yValue) {
+        if (terrain.isBlocked(xValue, yValue)) {
+            return OBSTACLE;
+        }
+        if (occupancyIndex != null && occupancyIndex.isOccupied(xValue, yValue)) {
+            return OCCUPIED;
+        }
+        return FREE;
+    }
+
+    /**
+     * Returns the plateau limits in direction of each orientation (N, E, S,
+     * W), multiplied with the orientation's sign. A rover can't move if its
+     * coordinate along the orientation times the sign reaches that limit.
+     */
+    public long[] signedLimits() {
+        return new long[] { getMaxYValue(), getMaxXValue(), -(long) getMinYValue(), -(long) getMinXValue() };
+    }
+}
@@ -2,8 +2,8 @@ package model;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
-import java.util.Collection;
 import java.util.List;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -12,28 +12,91 @@ import com.google.common.base.Joiner;
 import app.RoverRegistry;
 import constants.Instruction;
 import constants.Orientation;
-import constants.PlateauSize;
+import constants.OrientationCode;
+import coverage.CoverageMap;
+import engine.ExecutionResult;
+import engine.InstructionEngine;
+import engine.InstructionProgram;
 import model.exception.PlateauExceededException;
 import model.exception.PositionBlockedException;
+import snapshot.MoveJournal;
 
+/**
+ * A single rover. The rover's state lives in a slot of a {@link FleetStore};
+ * this class is only a view on that slot. A newly created rover owns a private
+ * store until it is attached to a shared one (e.g. by the
+ * {@link RoverRegistry}). Moves are checked against the plateau and the
+ * rovers of the rover's {@link World}.
+ */
 public class Rover {
-    private int xValue;
-    private int yValue;
-    private Orientation orientation;
+    private final World world;
+    private FleetStore store;
+    private int index;
 
+    /**
+     * Creates a rover in the default world.
+     */
     public Rover() {
+        this(World.getDefault());
+    }
+
+    public Rover(World world) {
+        this.world = world;
+        this.store = new FleetStore(1, null);
+        this.index = store.allocate();
+    }
+
+    /**
+     * Creates a view on an existing slot of the given store in the default
+     * world.
+     * 
+     * @param store The store holding the rover's state
+     * @param index The rover's index within the store
+     */
+    public Rover(FleetStore store, int index) {
+        this(World.getDefault(), store, index);
+    }
+
+    public Rover(World world, FleetStore store, int index) {
+        this.world = world;
+        this.store = store;
+        this.index = index;
+    }
+
+    /**
+     * Lets this view point to another slot. The caller is responsible for
+     * copying the rover's state into that slot beforehand.
+     * 
+     * @param newStore The store that holds the rover's state from now on
+     * @param newIndex The rover's index within the new store
+     */
+    public void attachTo(FleetStore newStore, int newIndex) {
+        this.store = newStore;
+        this.index = newIndex;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public FleetStore getFleetStore() {
+        return store;
+    }
+
+    public int getFleetIndex() {
+        return index;
     }
 
     public int getxValue() {
-        return xValue;
+        return store.getxValue(index);
     }
 
     public int getyValue() {
-        return yValue;
+        return store.getyValue(index);
     }
 
     public Orientation getOrientation() {
-        return orientation;
+        return store.getOrientation(index);
     }
 
     public void setDeployPosition(int initialXValue, int initialYValue, Orientation initialOrientation) {
@@ -41,9 +104,13 @@ public class Rover {
         checkArgument(initialYValue >= 0, "The Y-value must not be negative!");
         checkNotNull(initialOrientation, "The vehicle's orientation must not be null!");
 
-        this.xValue = initialXValue;
-        this.yValue = initialYValue;
-        this.orientation = initialOrientation;
+        store.setPosition(index, initialXValue, initialYValue);
+        store.setOrientation(index, initialOrientation);
+        MoveJournal journal = store.getJournal();
+        if (journal != null && store.isActive(index)) {
+            // a redeployed rover keeps its slot, replaying moves it there
+            journal.deployed(store.getId(index), initialXValue, initialYValue, store.getOrientationCode(index));
+        }
     }
 
     /**
@@ -53,42 +120,48 @@ public class Rover {
      * @param roverInstructions The user's list of instructions
      */
     public void executeInstructions(List<Instruction> roverInstructions) {
-        for (Instruction instruction : roverInstructions) {
-            try {
-                this.executeInstruction(instruction);
-            } catch (Exception ex) {
-                System.err.println("Error occured while executing instruction " + instruction
-                        + "\nCurrent Position: " + getPositionAsOutput() + "\n" + ex);
-                return;
-            }
+        executeProgram(InstructionProgram.compile(roverInstructions));
+    }
+
+    /**
+     * Lets the rover execute the given compiled program by means of the
+     * {@link InstructionEngine}. Finally the rover prints its actual position
+     * and orientation.
+     * 
+     * @param program The compiled instructions
+     */
+    public void executeProgram(InstructionProgram program) {
+        ExecutionResult result = new ExecutionResult();
+        try {
+            new InstructionEngine(world).execute(this, program, result);
+        } catch (Exception ex) {
+            printFailure(ex);
+            return;
+        }
+        if (result.isSucceeded()) {
+            printPosition();
+        } else {
+            printFailure(result.getFailure());
         }
+    }
+
+    /**
+     * Prints the rover's actual position and orientation.
+     */
+    public void printPosition() {
         System.out.println(getPositionAsOutput());
     }
 
     /**
-     * Lets the rover execute a single instruction.
+     * Prints the error that aborted the rover's instructions together with
+     * its actual position.
      * 
-     * @param instruction Single instruction that rover should execute
-     * @throws PlateauExceededException Exception will thrown if the given
-     *             instruction can't be executed. E.g. if the new coordinates
-     *             would exceed the plateau.
-     * @throws PositionBlockedException
+     * @param ex The error that occured
      */
-    private void executeInstruction(Instruction instruction)
-        throws PlateauExceededException, PositionBlockedException {
-        switch (instruction) {
-            case M:
-                moveVehicle();
-                break;
-            case L:
-                turnVehicleLeft();
-                break;
-            case R:
-                turnVehicleRight();
-                break;
-            default:
-                throw new IllegalStateException("Invalid instruction occured!");
-        }
+    public void printFailure(Exception ex) {
+        // only moves can fail
+        System.err.println("Error occured while executing instruction " + Instruction.M
+                + "\nCurrent Position: " + getPositionAsOutput() + "\n" + ex);
     }
 
     /**
@@ -105,47 +178,54 @@ public class Rover {
     @VisibleForTesting
     void moveVehicle()
         throws PlateauExceededException, PositionBlockedException {
-        switch (orientation) {
+        int xValue = getxValue();
+        int yValue = getyValue();
+        Plateau plateau = world.getPlateau();
+        switch (getOrientation()) {
             case N:
-                if (this.yValue >= PlateauSize.maxYValue) {
-                    throw new PlateauExceededException(
-                            String.format("Y-value %s exceeds the plateau.", this.yValue + 1));
+                if (yValue >= plateau.getMaxYValue()) {
+                    throw PlateauExceededException.forYValue(yValue + 1);
                 }
-                checkIfPositionIsBlocked(this.xValue, this.yValue + 1);
-                this.yValue++;
+                checkIfPositionIsBlocked(xValue, yValue + 1);
+                store.setPosition(index, xValue, yValue + 1);
                 break;
             case E:
-                if (this.xValue >= PlateauSize.maxXValue) {
-                    throw new PlateauExceededException(
-                            String.format("X-value %s exceeds the plateau.", this.xValue + 1));
+                if (xValue >= plateau.getMaxXValue()) {
+                    throw PlateauExceededException.forXValue(xValue + 1);
                 }
-                checkIfPositionIsBlocked(this.xValue + 1, this.yValue);
-                this.xValue++;
+                checkIfPositionIsBlocked(xValue + 1, yValue);
+                store.setPosition(index, xValue + 1, yValue);
                 break;
             case S:
-                if (this.yValue <= PlateauSize.minYValue) {
-                    throw new PlateauExceededException(
-                            String.format("Y-value %s exceeds the plateau.", this.yValue - 1));
+                if (yValue <= plateau.getMinYValue()) {
+                    throw PlateauExceededException.forYValue(yValue - 1);
                 }
-                checkIfPositionIsBlocked(this.xValue, this.yValue - 1);
-                this.yValue--;
+                checkIfPositionIsBlocked(xValue, yValue - 1);
+                store.setPosition(index, xValue, yValue - 1);
                 break;
             case W:
-                if (this.xValue <= PlateauSize.minXValue) {
-                    throw new PlateauExceededException(
-                            String.format("X-value %s exceeds the plateau.", this.xValue - 1));
+                if (xValue <= plateau.getMinXValue()) {
+                    throw PlateauExceededException.forXValue(xValue - 1);
                 }
-                checkIfPositionIsBlocked(this.xValue - 1, this.yValue);
-                this.xValue--;
+                checkIfPositionIsBlocked(xValue - 1, yValue);
+                store.setPosition(index, xValue - 1, yValue);
                 break;
             default:
                 throw new IllegalStateException("Invalid orientation occured!");
         }
+        CoverageMap coverage = store.getCoverage();
+        if (coverage != null) {
+            coverage.visited(store.getxValue(index), store.getyValue(index));
+        }
+        journal(InstructionProgram.MOVE);
     }
 
     /**
-     * Checks if the proposed positon is already blocked by any registered
-     * rover. If so, a {@link PositionBlockedException} will be thrown.
+     * Checks if the proposed positon is blocked by an obstacle of the
+     * plateau's {@link TerrainMap} or by any registered rover. If so, a
+     * {@link PositionBlockedException} will be thrown. Both lookups are O(1)
+     * and therefore don't depend on the number of obstacles or deployed
+     * rovers.
      * 
      * @param newXValue The new X-coordinate the rover wants to step on.
      * @param newYValue The new Y-coordinate the rover wants to step on.
@@ -154,12 +234,9 @@ public class Rover {
     @VisibleForTesting
     void checkIfPositionIsBlocked(int newXValue, int newYValue)
         throws PositionBlockedException {
-        Collection<Rover> roverCol = RoverRegistry.getDeployedRovers();
-        for (Rover rover : roverCol) {
-            if (rover.xValue == newXValue && rover.yValue == newYValue) {
-                throw new PositionBlockedException(String
-                        .format("The positon (%s %s) is blocked by another rover.", newXValue, newYValue));
-            }
+        int blockage = world.blockage(newXValue, newYValue);
+        if (blockage != Plateau.FREE) {
+            throw PositionBlockedException.forBlockage(blockage, newXValue, newYValue);
         }
     }
 
@@ -169,22 +246,8 @@ public class Rover {
      */
     @VisibleForTesting
     void turnVehicleLeft() {
-        switch (this.orientation) {
-            case N:
-                this.orientation = Orientation.W;
-                break;
-            case E:
-                this.orientation = Orientation.N;
-                break;
-            case S:
-                this.orientation = Orientation.E;
-                break;
-            case W:
-                this.orientation = Orientation.S;
-                break;
-            default:
-                throw new IllegalStateException("Invalid orientation occured!");
-        }
+        store.setOrientationCode(index, (byte) OrientationCode.left(deployedOrientationCode()));
+        journal(InstructionProgram.TURN_LEFT);
     }
 
     /**
@@ -193,21 +256,20 @@ public class Rover {
      */
     @VisibleForTesting
     void turnVehicleRight() {
-        switch (this.orientation) {
-            case N:
-                this.orientation = Orientation.E;
-                break;
-            case E:
-                this.orientation = Orientation.S;
-                break;
-            case S:
-                this.orientation = Orientation.W;
-                break;
-            case W:
-                this.orientation = Orientation.N;
-                break;
-            default:
-                throw new IllegalStateException("Invalid orientation occured!");
+        store.setOrientationCode(index, (byte) OrientationCode.right(deployedOrientationCode()));
+        journal(InstructionProgram.TURN_RIGHT);
+    }
+
+    private int deployedOrientationCode() {
+        byte orientationCode = store.getOrientationCode(index);
+        checkState(orientationCode != FleetStore.NO_ORIENTATION, "The rover hasn't been deployed yet!");
+        return orientationCode;
+    }
+
+    private void journal(byte op) {
+        MoveJournal journal = store.getJournal();
+        if (journal != null) {
+            journal.executed(store.getId(index), op);
         }
     }
 
@@ -219,6 +281,6 @@ public class Rover {
     @VisibleForTesting
     String getPositionAsOutput() {
         Joiner joiner = Joiner.on(" ");
-        return joiner.join(xValue, yValue, orientation);
+        return joiner.join(getxValue(), getyValue(), getOrientation());
     }
 }
@@ -0,0 +1,113 @@
+package model;
+
+/**
+ * Thread safe variant of the {@link OccupancyIndex}. The plateau is divided
+ * into square regions which are mapped onto a fixed number of stripes, each
+ * being an {@link OccupancyIndex} guarded by its own lock. Neighbouring cells
+ * usually share a stripe, so most moves only touch a single lock, and threads
+ * working in different regions don't contend at all.
+ * <p>
+ * {@link #tryClaim(int, int)} and {@link #tryMove(int, int, int, int)}
+ * atomically check that the target cell is free and occupy it, so no two
+ * rovers can ever step into the same cell.
+ */
+public class StripedOccupancyIndex {
+
+    private static final int REGION_BITS = 6; // regions of 64 x 64 cells
+
+    private final OccupancyIndex[] stripes;
+    private final int mask;
+
+    public StripedOccupancyIndex() {
+        this(Runtime.getRuntime().availableProcessors() * 16);
+    }
+
+    /**
+     * @param stripeCount Minimal number of stripes (rounded up to a power of
+     *            two)
+     */
+    public StripedOccupancyIndex(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new OccupancyIndex[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new OccupancyIndex();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the number of distinct occupied cells. Concurrent updates might
+     * not be reflected.
+     */
+    public int size() {
+        int size = 0;
+        for (OccupancyIndex stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public boolean isOccupied(int xValue, int yValue) {
+        OccupancyIndex stripe = stripeOf(xValue, yValue);
+        synchronized (stripe) {
+            return stripe.isOccupied(xValue, yValue);
+        }
+    }
+
+    /**
+     * Registers one more rover on the given cell, no matter if it's free.
+     */
+    public void add(int xValue, int yValue) {
+        OccupancyIndex stripe = stripeOf(xValue, yValue);
+        synchronized (stripe) {
+            stripe.add(xValue, yValue);
+        }
+    }
+
+    public void remove(int xValue, int yValue) {
+        OccupancyIndex stripe = stripeOf(xValue, yValue);
+        synchronized (stripe) {
+            stripe.remove(xValue, yValue);
+        }
+    }
+
+    /**
+     * Occupies the given cell if it's free.
+     * 
+     * @return {@code true} if the cell has been claimed, {@code false} if it
+     *         is occupied
+     */
+    public boolean tryClaim(int xValue, int yValue) {
+        OccupancyIndex stripe = stripeOf(xValue, yValue);
+        synchronized (stripe) {
+            if (stripe.isOccupied(xValue, yValue)) {
+                return false;
+            }
+            stripe.add(xValue, yValue);
+            return true;
+        }
+    }
+
+    /**
+     * Moves a rover into the target cell if it's free. The target is claimed
+     * before the source cell is released, so concurrent readers might briefly
+     * see both cells occupied but never a free cell that's about to be taken.
+     * 
+     * @return {@code true} if the rover has been moved, {@code false} if the
+     *         target is occupied
+     */
+    public boolean tryMove(int fromXValue, int fromYValue, int toXValue, int toYValue) {
+        if (!tryClaim(toXValue, toYValue)) {
+            return false;
+        }
+        remove(fromXValue, fromYValue);
+        return true;
+    }
+
+    private OccupancyIndex stripeOf(int xValue, int yValue) {
+        int h = (xValue >> REGION_BITS) * 0x9E3779B1 ^ (yValue >> REGION_BITS) * 0x85EBCA77;
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+}
@@ -0,0 +1,102 @@
+package model;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.google.common.base.Splitter;
+
+/**
+ * Cells of a plateau blocked by rocks, craters and the like, stored as a
+ * bitset with one bit per cell. The bits are kept in a {@link ChunkedGrid} of
+ * 64 x 64 cell tiles; only tiles holding at least one blocked cell are
+ * allocated, so a huge plateau with a few obstacles takes little memory, and
+ * a lookup is O(1).
+ * <p>
+ * The map may be read by several threads as long as it isn't changed at the
+ * same time.
+ */
+public class TerrainMap {
+
+    private static final int TILE_SHIFT = 6;
+
+    private final ChunkedGrid blockedCells = new ChunkedGrid(TILE_SHIFT);
+
+    /**
+     * Blocks the cells listed in a text file. Each line holds either a single
+     * blocked cell ({@code x y}) or a rectangle of blocked cells including its
+     * corners ({@code x1 y1 x2 y2}). Empty lines and lines starting with
+     * {@code #} are skipped.
+     * 
+     * @throws IllegalArgumentException if a line is invalid
+     */
+    public void load(Path file) throws IOException {
+        Splitter splitter = Splitter.on(' ').omitEmptyStrings().trimResults();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int[] values = splitter.splitToList(line).stream().mapToInt(Integer::parseInt).toArray();
+                checkArgument(values.length == 2 || values.length == 4, "Invalid terrain line: %s", line);
+                if (values.length == 2) {
+                    block(values[0], values[1]);
+                } else {
+                    block(values[0], values[1], values[2], values[3]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of blocked cells.
+     */
+    public long getBlockedCount() {
+        return blockedCells.getCardinality();
+    }
+
+    public boolean isEmpty() {
+        return blockedCells.isEmpty();
+    }
+
+    public boolean isBlocked(int xValue, int yValue) {
+        return blockedCells.get(xValue, yValue);
+    }
+
+    /**
+     * Checks if any cell of the given rectangle (bounds included) is
+     * blocked.
+     * 
+     * @see ChunkedGrid#isAnySet(int, int, int, int)
+     */
+    public boolean isAnyBlocked(int minXValue, int minYValue, int maxXValue, int maxYValue) {
+        return blockedCells.isAnySet(minXValue, minYValue, maxXValue, maxYValue);
+    }
+
+    public void block(int xValue, int yValue) {
+        blockedCells.set(xValue, yValue);
+    }
+
+    /**
+     * Blocks all cells of the given rectangle (bounds included).
+     * 
+     * @see ChunkedGrid#set(int, int, int, int)
+     */
+    public void block(int minXValue, int minYValue, int maxXValue, int maxYValue) {
+        blockedCells.set(minXValue, minYValue, maxXValue, maxYValue);
+    }
+
+    public void unblock(int xValue, int yValue) {
+        blockedCells.clear(xValue, yValue);
+    }
+
+    public void clear() {
+        blockedCells.clear();
+    }
+}
@@ -0,0 +1,141 @@
+package model;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import util.LongIntHashMap;
+
+/**
+ * A self-contained simulation: a {@link Plateau} and the rovers deployed on
+ * it. The rovers' state is kept in a {@link FleetStore}; registered
+ * {@link Rover}s are attached to their slot in that store, so moving them
+ * updates the world's occupancy index.
+ * <p>
+ * Worlds don't share any state, so independent missions can run in separate
+ * worlds on different threads at the same time. Each world itself must only
+ * be used by one thread at a time. The default world (see
+ * {@link #getDefault()}) uses the static {@link constants.PlateauSize} and
+ * backs the {@link app.RoverRegistry}.
+ */
+public class World {
+
+    private static final int NOT_REGISTERED = -1;
+    private static final World DEFAULT = new World(Plateau.global());
+
+    private final Plateau plateau;
+    private FleetStore fleet;
+    private LongIntHashMap indexById;
+
+    /**
+     * Creates a world with an empty plateau of size 0 0.
+     */
+    public World() {
+        this(new Plateau());
+    }
+
+    public World(Plateau plateau) {
+        this.plateau = plateau;
+        this.fleet = new FleetStore(16, new OccupancyIndex());
+        this.indexById = new LongIntHashMap();
+    }
+
+    public static World getDefault() {
+        return DEFAULT;
+    }
+
+    public Plateau getPlateau() {
+        return plateau;
+    }
+
+    /**
+     * Returns the store holding the state of all registered rovers, e.g. for
+     * bulk processing.
+     */
+    public FleetStore getFleet() {
+        return fleet;
+    }
+
+    /**
+     * Registers the rover under the given id, replacing any rover registered
+     * with that id before, and attaches it to the world's fleet.
+     */
+    public void registerRover(long id, Rover rover) {
+        int index = NOT_REGISTERED;
+        if (rover.getFleetStore() == fleet && fleet.isActive(rover.getFleetIndex())) {
+            // rover is registered again, keep its slot
+            index = rover.getFleetIndex();
+            indexById.remove(fleet.getId(index), NOT_REGISTERED);
+        }
+        int replacedIndex = indexById.get(id, NOT_REGISTERED);
+        if (replacedIndex != NOT_REGISTERED) {
+            fleet.retire(replacedIndex);
+        }
+        if (index == NOT_REGISTERED) {
+            index = fleet.add(id, rover.getxValue(), rover.getyValue(), rover.getOrientation());
+            rover.attachTo(fleet, index);
+        } else {
+            fleet.reassign(index, id);
+        }
+        indexById.put(id, index, NOT_REGISTERED);
+    }
+
+    /**
+     * Replaces all registered rovers by the active slots of the given fleet,
+     * e.g. after restoring a snapshot. The fleet must have an occupancy index
+     * and is used by the world from now on.
+     */
+    public void restore(FleetStore restoredFleet) {
+        checkArgument(restoredFleet.getOccupancyIndex() != null, "The fleet has no occupancy index!");
+        LongIntHashMap restoredIndexById = new LongIntHashMap(restoredFleet.size());
+        for (int index = 0; index < restoredFleet.size(); index++) {
+            if (restoredFleet.isActive(index)) {
+                int replacedIndex = restoredIndexById.put(restoredFleet.getId(index), index, NOT_REGISTERED);
+                if (replacedIndex != NOT_REGISTERED) {
+                    restoredFleet.deactivate(replacedIndex);
+                }
+            }
+        }
+        fleet = restoredFleet;
+        indexById = restoredIndexById;
+    }
+
+    /**
+     * Returns the number of registered rovers.
+     */
+    public int getRoverCount() {
+        return indexById.size();
+    }
+
+    /**
+     * Returns views on all currently registered rovers.
+     */
+    public Collection<Rover> getDeployedRovers() {
+        List<Rover> rovers = Lists.newArrayListWithCapacity(indexById.size());
+        for (int index = 0; index < fleet.size(); index++) {
+            if (fleet.isActive(index)) {
+                rovers.add(new Rover(this, fleet, index));
+            }
+        }
+        return rovers;
+    }
+
+    /**
+     * Checks if a rover can step on the given cell of the plateau.
+     * 
+     * @see Plateau#blockage(OccupancyIndex, int, int)
+     */
+    public int blockage(int xValue, int yValue) {
+        return plateau.blockage(fleet.getOccupancyIndex(), xValue, yValue);
+    }
+
+    /**
+     * Checks in O(1) if any registered rover stands on the given position.
+     */
+    public boolean isPositionOccupied(int xValue, int yValue) {
+        return fleet.getOccupancyIndex().isOccupied(xValue, yValue);
+    }
+}
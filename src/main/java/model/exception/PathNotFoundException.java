@@ -0,0 +1,23 @@
+package model.exception;
+
+import constants.Orientation;
+
+public class PathNotFoundException extends Exception {
+
+    private static final long serialVersionUID = -3170218532274046795L;
+
+    public PathNotFoundException(String failureMessage) {
+        super(failureMessage + " Planning abborted!");
+    }
+
+    public static PathNotFoundException forTarget(int targetXValue, int targetYValue, Orientation targetOrientation) {
+        return new PathNotFoundException(String.format("The position (%s %s %s) can't be reached.", targetXValue,
+                targetYValue, targetOrientation));
+    }
+
+    public static PathNotFoundException forNodeLimit(int targetXValue, int targetYValue, int nodeLimit) {
+        return new PathNotFoundException(String.format("No path to (%s %s) found within %s explored states.",
+                targetXValue, targetYValue, nodeLimit));
+    }
+
+}
@@ -8,4 +8,12 @@ public class PlateauExceededException extends Exception {
         super(failureMessage + " Movement abborted!");
     }
 
+    public static PlateauExceededException forXValue(int exceedingXValue) {
+        return new PlateauExceededException(String.format("X-value %s exceeds the plateau.", exceedingXValue));
+    }
+
+    public static PlateauExceededException forYValue(int exceedingYValue) {
+        return new PlateauExceededException(String.format("Y-value %s exceeds the plateau.", exceedingYValue));
+    }
+
 }
\ No newline at end of file
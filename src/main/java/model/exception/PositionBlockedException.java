@@ -1,5 +1,7 @@
 package model.exception;
 
+import model.Plateau;
+
 public class PositionBlockedException extends Exception {
 
     private static final long serialVersionUID = 806679988884005473L;
@@ -8,4 +10,24 @@ public class PositionBlockedException extends Exception {
         super(failureMessage + " Movement abborted!");
     }
 
-}
\ No newline at end of file
+    public static PositionBlockedException forPosition(int blockedXValue, int blockedYValue) {
+        return new PositionBlockedException(String
+                .format("The positon (%s %s) is blocked by another rover.", blockedXValue, blockedYValue));
+    }
+
+    public static PositionBlockedException forObstacle(int blockedXValue, int blockedYValue) {
+        return new PositionBlockedException(String
+                .format("The positon (%s %s) is blocked by an obstacle.", blockedXValue, blockedYValue));
+    }
+
+    /**
+     * Returns the exception for a cell that isn't free.
+     * 
+     * @param blockage {@link Plateau#OBSTACLE} or {@link Plateau#OCCUPIED}
+     */
+    public static PositionBlockedException forBlockage(int blockage, int blockedXValue, int blockedYValue) {
+        return blockage == Plateau.OBSTACLE ? forObstacle(blockedXValue, blockedYValue)
+                : forPosition(blockedXValue, blockedYValue);
+    }
+
+}
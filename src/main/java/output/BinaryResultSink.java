@@ -0,0 +1,74 @@
+package output;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import constants.Orientation;
+import engine.ExecutionResult;
+
+/**
+ * Writes results as fixed size big-endian records. The stream starts with
+ * {@link #MAGIC} and {@link #VERSION}, followed by one record of
+ * {@link #RECORD_SIZE} bytes per rover:
+ * 
+ * <pre>
+ * long id, int x, int y, byte orientation (ordinal), byte status,
+ * long failedStep, int failedX, int failedY, long blockingRoverId
+ * </pre>
+ * 
+ * Status codes are the ones of {@link ExecutionResult}; the failure fields of
+ * succeeded rovers are zero, their blocking rover id is
+ * {@link ExecutionResult#UNKNOWN_ROVER}.
+ */
+public class BinaryResultSink implements ResultSink {
+
+    /** "MRRS" */
+    public static final int MAGIC = 0x4D525253;
+    public static final short VERSION = 1;
+    public static final int RECORD_SIZE = 42;
+
+    private final DataOutputStream output;
+    private boolean headerWritten;
+
+    public BinaryResultSink(OutputStream output) {
+        this.output = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+    }
+
+    @Override
+    public void roverFinished(long roverId, int xValue, int yValue, Orientation orientation,
+            ExecutionResult result) throws IOException {
+        writeHeader();
+        boolean failed = !result.isSucceeded();
+        output.writeLong(roverId);
+        output.writeInt(xValue);
+        output.writeInt(yValue);
+        output.writeByte(orientation.ordinal());
+        output.writeByte(result.getStatus());
+        output.writeLong(failed ? result.getFailedStep() : 0);
+        output.writeInt(failed ? result.getFailedXValue() : 0);
+        output.writeInt(failed ? result.getFailedYValue() : 0);
+        output.writeLong(result.getBlockingRoverId());
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writeHeader();
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeHeader();
+        output.close();
+    }
+
+    private void writeHeader() throws IOException {
+        if (!headerWritten) {
+            output.writeInt(MAGIC);
+            output.writeShort(VERSION);
+            headerWritten = true;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package output;
+
+import java.io.IOException;
+
+/**
+ * Writes results to {@link System#out} and {@link System#err} in the same
+ * format as {@link model.Rover#printPosition()} and
+ * {@link model.Rover#printFailure(Exception)}. Closing the sink only flushes
+ * it, the standard streams stay open.
+ */
+public class ConsoleResultSink extends TextResultSink {
+
+    public ConsoleResultSink() {
+        super(System.out, System.err);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
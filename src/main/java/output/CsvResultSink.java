@@ -0,0 +1,75 @@
+package output;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import constants.Orientation;
+import engine.ExecutionResult;
+
+/**
+ * Writes one CSV record per rover, preceded by a header line. The failure
+ * columns stay empty for succeeded rovers, the blocking rover column also if
+ * the blocking rover isn't known.
+ */
+public class CsvResultSink implements ResultSink {
+
+    static final String HEADER = "id,x,y,orientation,status,failed_step,failed_x,failed_y,blocking_rover_id";
+
+    private static final String[] STATUS_NAMES = { "SUCCEEDED", "X_VALUE_EXCEEDED", "Y_VALUE_EXCEEDED",
+            "POSITION_BLOCKED", "OBSTACLE_HIT", "BORDER_REACHED" };
+
+    private final Writer writer;
+    private boolean headerWritten;
+
+    public CsvResultSink(OutputStream output) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.US_ASCII), 1 << 16);
+    }
+
+    @Override
+    public void roverFinished(long roverId, int xValue, int yValue, Orientation orientation,
+            ExecutionResult result) throws IOException {
+        if (!headerWritten) {
+            writer.write(HEADER);
+            writer.write('\n');
+            headerWritten = true;
+        }
+        writer.write(Long.toString(roverId));
+        writer.write(',');
+        writer.write(Integer.toString(xValue));
+        writer.write(',');
+        writer.write(Integer.toString(yValue));
+        writer.write(',');
+        writer.write(orientation.name());
+        writer.write(',');
+        writer.write(STATUS_NAMES[result.getStatus()]);
+        writer.write(',');
+        if (!result.isSucceeded()) {
+            writer.write(Long.toString(result.getFailedStep()));
+            writer.write(',');
+            writer.write(Integer.toString(result.getFailedXValue()));
+            writer.write(',');
+            writer.write(Integer.toString(result.getFailedYValue()));
+            writer.write(',');
+            if (result.getBlockingRoverId() != ExecutionResult.UNKNOWN_ROVER) {
+                writer.write(Long.toString(result.getBlockingRoverId()));
+            }
+        } else {
+            writer.write(",,,");
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
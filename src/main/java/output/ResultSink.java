@@ -0,0 +1,30 @@
+package output;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+import constants.Orientation;
+import engine.ExecutionResult;
+
+/**
+ * Receives the final state of every rover of a mission. Implementations
+ * buffer their output, so results are only guaranteed to be written after
+ * {@link #flush()} or {@link #close()}.
+ */
+public interface ResultSink extends Flushable, Closeable {
+
+    /**
+     * Writes the result of one rover.
+     * 
+     * @param roverId The rover's id
+     * @param xValue The rover's final X-coordinate
+     * @param yValue The rover's final Y-coordinate
+     * @param orientation The rover's final orientation
+     * @param result Outcome of the rover's instructions. It is only read
+     *            during the call, so it may be reused afterwards.
+     * @throws IOException if writing fails
+     */
+    void roverFinished(long roverId, int xValue, int yValue, Orientation orientation, ExecutionResult result)
+        throws IOException;
+}
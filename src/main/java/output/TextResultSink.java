@@ -0,0 +1,101 @@
+package output;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import constants.Instruction;
+import constants.Orientation;
+import engine.ExecutionResult;
+
+/**
+ * Writes results in the console format: the position of a succeeded rover as
+ * a line like "1 3 N" to the first stream, the position of a failed rover
+ * together with its error to the second one. Positions are formatted into a
+ * reused character buffer and both streams are buffered.
+ */
+public class TextResultSink implements ResultSink {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Writer out;
+    private final Writer err;
+    // "-2147483648 -2147483648 N"
+    private final char[] line = new char[32];
+
+    public TextResultSink(OutputStream out, OutputStream err) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), BUFFER_SIZE);
+        this.err = new BufferedWriter(new OutputStreamWriter(err, StandardCharsets.US_ASCII), BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a sink that writes to the given writers without buffering them.
+     * Passing the same writer twice keeps positions and errors in order.
+     */
+    public TextResultSink(Writer out, Writer err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public void roverFinished(long roverId, int xValue, int yValue, Orientation orientation,
+            ExecutionResult result) throws IOException {
+        int length = formatPosition(xValue, yValue, orientation);
+        if (result.isSucceeded()) {
+            out.write(line, 0, length);
+            out.write(LINE_SEPARATOR);
+        } else {
+            // only moves can fail
+            err.write("Error occured while executing instruction " + Instruction.M + "\nCurrent Position: ");
+            err.write(line, 0, length);
+            err.write('\n');
+            err.write(result.getFailure().toString());
+            err.write(LINE_SEPARATOR);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+        err.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.close();
+        } finally {
+            err.close();
+        }
+    }
+
+    private int formatPosition(int xValue, int yValue, Orientation orientation) {
+        int length = formatInt(xValue, 0);
+        line[length++] = ' ';
+        length = formatInt(yValue, length);
+        line[length++] = ' ';
+        line[length++] = orientation.name().charAt(0);
+        return length;
+    }
+
+    private int formatInt(int value, int position) {
+        long remaining = value;
+        if (remaining < 0) {
+            line[position++] = '-';
+            remaining = -remaining;
+        }
+        int end = position;
+        for (long rest = remaining; rest >= 10; rest /= 10) {
+            end++;
+        }
+        for (int digit = end; digit >= position; digit--) {
+            line[digit] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return end + 1;
+    }
+}
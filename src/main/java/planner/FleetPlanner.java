@@ -0,0 +1,372 @@
+package planner;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import constants.Orientation;
+import constants.OrientationCode;
+import engine.InstructionProgram;
+import engine.TickSimulator;
+import model.FleetStore;
+import model.OccupancyIndex;
+import model.PackedState;
+import model.Plateau;
+import model.World;
+import model.exception.PathNotFoundException;
+import planner.SearchSpace.NodeLimitExceeded;
+
+/**
+ * Plans the routes of many rovers together so that they reach their targets
+ * without blocking each other when their programs run in lock-step on the
+ * {@link TickSimulator}.
+ * <p>
+ * Rovers are planned one after the other by priority, the rover with the
+ * shortest way first: a rover stays on its target once it has finished, so
+ * rovers that finish early are best planned early and the others drive
+ * around them. Each rover runs an A* search over its position, orientation
+ * and tick that respects the obstacles of the plateau's terrain and the
+ * {@link ReservationTable} of the rovers planned before it; a turn doubles as
+ * waiting on the spot. A route first avoids the start cells of rovers that
+ * haven't been planned yet, so they can always leave them. If there is no
+ * such route, e.g. because the target is another rover's start cell, these
+ * rovers have to get out of the way when they are planned.
+ * <p>
+ * To use all cores the rovers are planned in rounds: all rovers of a round
+ * are planned in parallel against the same table, then their routes are
+ * reserved in order of priority. A route that conflicts with a route reserved
+ * in the same round is planned again in the next round. The first rover of a
+ * round never conflicts, so each round makes progress.
+ * <p>
+ * If a rover finds no route with the reservations of the rovers before it,
+ * planning starts over with that rover first. Only if this doesn't help
+ * within a few restarts does planning fail.
+ */
+public class FleetPlanner {
+
+    public static final long NO_TARGET = -1;
+    public static final int DEFAULT_NODE_LIMIT = 1 << 20;
+    public static final int DEFAULT_SLACK = 64;
+
+    // ticks have to fit into the node keys (see #nodeKey)
+    private static final int MAX_TICKS = (1 << 20) - 1;
+    private static final int ROUND_SIZE_PER_THREAD = 8;
+    private static final int MAX_RESTARTS = 8;
+
+    private final ForkJoinPool pool;
+    private final int nodeLimit;
+    private final int slack;
+
+    /**
+     * Creates a planner that uses the common fork/join pool.
+     */
+    public FleetPlanner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public FleetPlanner(ForkJoinPool pool) {
+        this(pool, DEFAULT_NODE_LIMIT, DEFAULT_SLACK);
+    }
+
+    /**
+     * @param pool Pool that plans the rovers of a round
+     * @param nodeLimit Maximum number of states to explore per rover
+     * @param slack Number of ticks a rover may spend on detours and waiting
+     *            in addition to its shortest route
+     */
+    public FleetPlanner(ForkJoinPool pool, int nodeLimit, int slack) {
+        checkArgument(nodeLimit > 0, "The node limit must be positive!");
+        checkArgument(slack >= 0 && slack < MAX_TICKS, "Invalid slack: %s", slack);
+        this.pool = pool;
+        this.nodeLimit = nodeLimit;
+        this.slack = slack;
+    }
+
+    /**
+     * Returns the target state for {@link #plan(World, long[])}.
+     */
+    public static long target(int xValue, int yValue, Orientation orientation) {
+        return PackedState.pack(xValue, yValue, OrientationCode.of(orientation));
+    }
+
+    /**
+     * Plans the routes of the rovers registered in the given world on its
+     * plateau.
+     * 
+     * @see #plan(FleetStore, Plateau, long[])
+     */
+    public InstructionProgram[] plan(World world, long[] targets) throws PathNotFoundException {
+        return plan(world.getFleet(), world.getPlateau(), targets);
+    }
+
+    /**
+     * Plans the routes of the active rovers of the fleet that have a target.
+     * All other active rovers are stationary obstacles. Running the programs
+     * with the {@link TickSimulator} takes every rover to its target.
+     * 
+     * @param targets Target states (see {@link #target(int, int, Orientation)})
+     *            indexed by fleet index, {@link #NO_TARGET} for rovers that
+     *            don't move
+     * @return Programs indexed by fleet index, {@code null} for rovers
+     *         without target
+     * @throws PathNotFoundException if a rover can't reach its target
+     */
+    public InstructionProgram[] plan(FleetStore fleet, Plateau plateau, long[] targets)
+        throws PathNotFoundException {
+        checkArgument(targets.length >= fleet.size(), "A target slot is required for each rover!");
+        int[] order = new int[fleet.size()];
+        int count = 0;
+        for (int index = 0; index < fleet.size(); index++) {
+            if (fleet.isActive(index) && targets[index] != NO_TARGET) {
+                checkArgument(fleet.getOrientationCode(index) != FleetStore.NO_ORIENTATION,
+                        "The rover hasn't been deployed yet!");
+                int targetXValue = PackedState.xValueOf(targets[index]);
+                int targetYValue = PackedState.yValueOf(targets[index]);
+                checkArgument(isOnPlateau(plateau, targetXValue, targetYValue), "The target is outside the plateau!");
+                if (plateau.blockage(null, targetXValue, targetYValue) != Plateau.FREE) {
+                    throw PathNotFoundException.forTarget(targetXValue, targetYValue,
+                            OrientationCode.toOrientation(PackedState.orientationOf(targets[index])));
+                }
+                order[count++] = index;
+            }
+        }
+        sortByPriority(fleet, targets, order, count);
+
+        for (int restart = 0;; restart++) {
+            try {
+                return planInOrder(fleet, plateau, targets, Arrays.copyOf(order, count), count);
+            } catch (RoverFailure ex) {
+                if (restart == MAX_RESTARTS) {
+                    throw ex.failure;
+                }
+                // plan the failed rover first next time
+                int position = 0;
+                while (order[position] != ex.index) {
+                    position++;
+                }
+                System.arraycopy(order, 0, order, 1, position);
+                order[0] = ex.index;
+            }
+        }
+    }
+
+    private InstructionProgram[] planInOrder(FleetStore fleet, Plateau plateau, long[] targets, int[] pending,
+            int pendingCount) throws RoverFailure {
+        InstructionProgram[] programs = new InstructionProgram[fleet.size()];
+        ReservationTable table = new ReservationTable();
+        for (int index = 0; index < fleet.size(); index++) {
+            if (fleet.isActive(index)) {
+                long cellKey = OccupancyIndex.cellKey(fleet.getxValue(index), fleet.getyValue(index));
+                if (targets[index] == NO_TARGET) {
+                    table.addStationary(cellKey);
+                } else {
+                    table.addUnplanned(cellKey);
+                }
+            }
+        }
+
+        int roundSize = Math.max(1, pool.getParallelism()) * ROUND_SIZE_PER_THREAD;
+        byte[][] routes = new byte[roundSize][];
+        PathNotFoundException[] failures = new PathNotFoundException[roundSize];
+        int next = 0;
+        while (next < pendingCount) {
+            int[] round = Arrays.copyOfRange(pending, next, Math.min(pendingCount, next + roundSize));
+            Arrays.fill(routes, null);
+            Arrays.fill(failures, null);
+            pool.invoke(new PlanAction(this, fleet, plateau, targets, table, round, routes, failures, 0,
+                    round.length));
+
+            // reserve the routes by priority, the rest is planned again
+            int retained = 0;
+            for (int slot = 0; slot < round.length; slot++) {
+                int index = round[slot];
+                long start = fleet.getPackedState(index);
+                if (failures[slot] != null) {
+                    if (slot == 0) {
+                        throw new RoverFailure(index, failures[slot]);
+                    }
+                } else if (slot == 0 || table.isFree(start, routes[slot])) {
+                    table.reserve(start, routes[slot]);
+                    programs[index] = InstructionProgram.wrap(routes[slot], routes[slot].length);
+                    continue;
+                }
+                round[retained++] = index;
+            }
+            next += round.length - retained;
+            System.arraycopy(round, 0, pending, next, retained);
+        }
+        return programs;
+    }
+
+    /**
+     * Plans the route of a single rover against the current reservations.
+     */
+    private byte[] planRoute(FleetStore fleet, Plateau plateau, int index, long target, ReservationTable table)
+        throws PathNotFoundException {
+        try {
+            return planRoute(fleet, plateau, index, target, table, true);
+        } catch (PathNotFoundException ex) {
+            return planRoute(fleet, plateau, index, target, table, false);
+        }
+    }
+
+    private byte[] planRoute(FleetStore fleet, Plateau plateau, int index, long target, ReservationTable table,
+            boolean avoidUnplanned) throws PathNotFoundException {
+        long start = fleet.getPackedState(index);
+        long startCell = ReservationTable.cellOf(start);
+        int startXValue = PackedState.xValueOf(start);
+        int startYValue = PackedState.yValueOf(start);
+        // the rover may have to wait until all reserved routes have passed its target
+        int horizon = (int) Math.min(MAX_TICKS,
+                PathPlanner.estimate(start, target) + slack + table.reservedTicks());
+        int parkTick = table.earliestParkTick(ReservationTable.cellOf(target));
+        if (parkTick > horizon) {
+            throw PathNotFoundException.forTarget(PackedState.xValueOf(target), PackedState.yValueOf(target),
+                    OrientationCode.toOrientation(PackedState.orientationOf(target)));
+        }
+        SearchSpace space = new SearchSpace(nodeLimit);
+        try {
+            space.offer(nodeKey(start, 0, startXValue, startYValue, horizon), start, 0,
+                    Math.max(PathPlanner.estimate(start, target), parkTick), SearchSpace.NO_NODE,
+                    InstructionProgram.MOVE);
+            for (int node = space.poll(); node != SearchSpace.NO_NODE; node = space.poll()) {
+                long state = space.stateOf(node);
+                int tick = space.costOf(node);
+                if (state == target && tick >= parkTick) {
+                    return space.opsTo(node);
+                }
+                for (byte op = InstructionProgram.MOVE; op <= InstructionProgram.TURN_RIGHT; op++) {
+                    if (op == InstructionProgram.MOVE && !canMove(plateau, state)) {
+                        continue;
+                    }
+                    long nextState = ReservationTable.step(state, op);
+                    // no route finishes before the rover may park on the target
+                    long estimate = Math.max(tick + 1 + PathPlanner.estimate(nextState, target), parkTick);
+                    if (estimate > horizon || !table.canStep(state, nextState, tick, startCell, avoidUnplanned)) {
+                        continue;
+                    }
+                    space.offer(nodeKey(nextState, tick + 1, startXValue, startYValue, horizon), nextState,
+                            tick + 1, estimate, node, op);
+                }
+            }
+        } catch (NodeLimitExceeded ex) {
+            throw PathNotFoundException.forNodeLimit(PackedState.xValueOf(target), PackedState.yValueOf(target),
+                    nodeLimit);
+        }
+        throw PathNotFoundException.forTarget(PackedState.xValueOf(target), PackedState.yValueOf(target),
+                OrientationCode.toOrientation(PackedState.orientationOf(target)));
+    }
+
+    /**
+     * Packs state and tick of a search node into a key. Within the horizon a
+     * rover stays less than {@link #MAX_TICKS} cells away from its start, so
+     * 21 bits per coordinate offset and 20 bits for the tick suffice.
+     */
+    private static long nodeKey(long state, int tick, int startXValue, int startYValue, int horizon) {
+        long xOffset = (long) PackedState.xValueOf(state) - startXValue + horizon;
+        long yOffset = (long) PackedState.yValueOf(state) - startYValue + horizon;
+        return xOffset << 43 | yOffset << 22 | (long) PackedState.orientationOf(state) << 20 | tick;
+    }
+
+    private static boolean canMove(Plateau plateau, long state) {
+        int orientation = PackedState.orientationOf(state);
+        long newXValue = (long) PackedState.xValueOf(state) + OrientationCode.deltaX(orientation);
+        long newYValue = (long) PackedState.yValueOf(state) + OrientationCode.deltaY(orientation);
+        // other rovers are checked against the reservation table
+        return isOnPlateau(plateau, newXValue, newYValue)
+                && plateau.blockage(null, (int) newXValue, (int) newYValue) == Plateau.FREE;
+    }
+
+    private static boolean isOnPlateau(Plateau plateau, long xValue, long yValue) {
+        return xValue >= plateau.getMinXValue() && xValue <= plateau.getMaxXValue()
+                && yValue >= plateau.getMinYValue() && yValue <= plateau.getMaxYValue();
+    }
+
+    /**
+     * Sorts the rovers by the length of their shortest route, then by fleet
+     * index.
+     */
+    private static void sortByPriority(FleetStore fleet, long[] targets, int[] rovers, int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            int index = rovers[i];
+            long estimate = Math.min(Integer.MAX_VALUE, PathPlanner.estimate(fleet.getPackedState(index),
+                    targets[index]));
+            keys[i] = estimate << 32 | index;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < count; i++) {
+            rovers[i] = (int) keys[i];
+        }
+    }
+
+    /**
+     * Plans the rovers of a round, split recursively across the pool.
+     */
+    private static class PlanAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FleetPlanner planner;
+        private final FleetStore fleet;
+        private final Plateau plateau;
+        private final long[] targets;
+        private final ReservationTable table;
+        private final int[] round;
+        private final byte[][] routes;
+        private final PathNotFoundException[] failures;
+        private final int from;
+        private final int to;
+
+        PlanAction(FleetPlanner planner, FleetStore fleet, Plateau plateau, long[] targets, ReservationTable table,
+                int[] round, byte[][] routes, PathNotFoundException[] failures, int from, int to) {
+            this.planner = planner;
+            this.fleet = fleet;
+            this.plateau = plateau;
+            this.targets = targets;
+            this.table = table;
+            this.round = round;
+            this.routes = routes;
+            this.failures = failures;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                int index = round[from];
+                try {
+                    routes[from] = planner.planRoute(fleet, plateau, index, targets[index], table);
+                } catch (PathNotFoundException ex) {
+                    failures[from] = ex;
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(split(from, middle), split(middle, to));
+        }
+
+        private PlanAction split(int newFrom, int newTo) {
+            return new PlanAction(planner, fleet, plateau, targets, table, round, routes, failures, newFrom, newTo);
+        }
+    }
+
+    /**
+     * Failure of a rover that is first in its round, i.e. with the
+     * reservations of all rovers of higher priority.
+     */
+    private static final class RoverFailure extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+        private final PathNotFoundException failure;
+
+        RoverFailure(int index, PathNotFoundException failure) {
+            super(null, null, false, false);
+            this.index = index;
+            this.failure = failure;
+        }
+    }
+}
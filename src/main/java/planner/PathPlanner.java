@@ -0,0 +1,179 @@
+package planner;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.List;
+
+import constants.Instruction;
+import constants.Orientation;
+import constants.OrientationCode;
+import engine.InstructionProgram;
+import model.FleetStore;
+import model.OccupancyIndex;
+import model.PackedState;
+import model.Plateau;
+import model.Rover;
+import model.World;
+import model.exception.PathNotFoundException;
+import planner.SearchSpace.NodeLimitExceeded;
+
+/**
+ * Plans the shortest list of instructions that takes a rover to a target
+ * position and orientation without leaving the plateau or running into an
+ * obstacle of its terrain or another rover of its {@link World}.
+ * <p>
+ * The planner runs an A* search over the rover states (position and
+ * orientation, see {@link PackedState}); each instruction costs one step.
+ * The estimate is the Manhattan distance plus the least number of turns
+ * needed to face every required direction and finally the target
+ * orientation, which never overestimates, so the plan is minimal. Among
+ * equally good states the one closest to the target is expanded first, so
+ * on an open plateau the search runs straight towards the target.
+ * <p>
+ * Only the states actually explored are stored, in hash tables and arrays
+ * that grow on demand. The memory doesn't depend on the size of the plateau
+ * and is bounded by the node limit given on construction; a search that
+ * exceeds it fails with a {@link PathNotFoundException}.
+ */
+public class PathPlanner {
+
+    public static final int DEFAULT_NODE_LIMIT = 1 << 22;
+
+    private static final byte MOVE = InstructionProgram.MOVE;
+    private static final byte TURN_LEFT = InstructionProgram.TURN_LEFT;
+    private static final byte TURN_RIGHT = InstructionProgram.TURN_RIGHT;
+
+    private final int nodeLimit;
+
+    public PathPlanner() {
+        this(DEFAULT_NODE_LIMIT);
+    }
+
+    /**
+     * @param nodeLimit Maximum number of rover states to explore per plan
+     */
+    public PathPlanner(int nodeLimit) {
+        checkArgument(nodeLimit > 0, "The node limit must be positive!");
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Plans the instructions that take the rover from its current position
+     * to the target. The rover's own cell never blocks; all other rovers of
+     * the rover's world are considered as obstacles that stay where they are.
+     * 
+     * @return The shortest list of instructions, empty if the rover is
+     *         already at the target
+     * @throws PathNotFoundException if the target can't be reached or the
+     *             node limit is exceeded
+     */
+    public List<Instruction> plan(Rover rover, int targetXValue, int targetYValue, Orientation targetOrientation)
+        throws PathNotFoundException {
+        checkNotNull(targetOrientation, "The target orientation must not be null!");
+        FleetStore store = rover.getFleetStore();
+        int index = rover.getFleetIndex();
+        checkState(store.getOrientationCode(index) != FleetStore.NO_ORIENTATION,
+                "The rover hasn't been deployed yet!");
+        World world = rover.getWorld();
+        return plan(world.getPlateau(), world.getFleet().getOccupancyIndex(), store.getxValue(index),
+                store.getyValue(index), store.getOrientationCode(index), targetXValue, targetYValue,
+                OrientationCode.of(targetOrientation));
+    }
+
+    /**
+     * Plans the instructions from the start to the target state on the given
+     * plateau. Obstacles of the plateau's terrain and cells in the occupancy
+     * index are blocked, except the start.
+     * 
+     * @see #plan(Rover, int, int, Orientation)
+     */
+    public List<Instruction> plan(Plateau plateau, OccupancyIndex occupancyIndex, int startXValue,
+            int startYValue, int startOrientation, int targetXValue, int targetYValue, int targetOrientation)
+        throws PathNotFoundException {
+        checkArgument(isOnPlateau(plateau, startXValue, startYValue), "The start is outside the plateau!");
+        checkArgument(isOnPlateau(plateau, targetXValue, targetYValue), "The target is outside the plateau!");
+        long start = PackedState.pack(startXValue, startYValue, startOrientation);
+        long target = PackedState.pack(targetXValue, targetYValue, targetOrientation);
+        boolean targetIsStart = targetXValue == startXValue && targetYValue == startYValue;
+        if (!targetIsStart && plateau.blockage(occupancyIndex, targetXValue, targetYValue) != Plateau.FREE) {
+            throw PathNotFoundException.forTarget(targetXValue, targetYValue,
+                    OrientationCode.toOrientation(targetOrientation));
+        }
+
+        SearchSpace space = new SearchSpace(nodeLimit);
+        try {
+            space.offer(start, start, 0, estimate(start, target), SearchSpace.NO_NODE, MOVE);
+            for (int node = space.poll(); node != SearchSpace.NO_NODE; node = space.poll()) {
+                long state = space.stateOf(node);
+                if (state == target) {
+                    return space.instructionsTo(node);
+                }
+                int cost = space.costOf(node) + 1;
+                visit(space, PackedState.turnLeft(state), cost, node, TURN_LEFT, target);
+                visit(space, PackedState.turnRight(state), cost, node, TURN_RIGHT, target);
+                if (canMove(plateau, occupancyIndex, state, startXValue, startYValue)) {
+                    visit(space, PackedState.move(state), cost, node, MOVE, target);
+                }
+            }
+        } catch (NodeLimitExceeded ex) {
+            throw PathNotFoundException.forNodeLimit(targetXValue, targetYValue, nodeLimit);
+        }
+        throw PathNotFoundException.forTarget(targetXValue, targetYValue,
+                OrientationCode.toOrientation(targetOrientation));
+    }
+
+    private static void visit(SearchSpace space, long state, int cost, int parent, byte instruction, long target)
+        throws NodeLimitExceeded {
+        space.offer(state, state, cost, cost + estimate(state, target), parent, instruction);
+    }
+
+    private static boolean canMove(Plateau plateau, OccupancyIndex occupancyIndex, long state, int startXValue,
+            int startYValue) {
+        int orientation = PackedState.orientationOf(state);
+        long newXValue = (long) PackedState.xValueOf(state) + OrientationCode.deltaX(orientation);
+        long newYValue = (long) PackedState.yValueOf(state) + OrientationCode.deltaY(orientation);
+        if (!isOnPlateau(plateau, newXValue, newYValue)) {
+            return false;
+        }
+        int blockage = plateau.blockage(occupancyIndex, (int) newXValue, (int) newYValue);
+        return blockage == Plateau.FREE
+                || blockage == Plateau.OCCUPIED && newXValue == startXValue && newYValue == startYValue;
+    }
+
+    private static boolean isOnPlateau(Plateau plateau, long xValue, long yValue) {
+        return xValue >= plateau.getMinXValue() && xValue <= plateau.getMaxXValue()
+                && yValue >= plateau.getMinYValue() && yValue <= plateau.getMaxYValue();
+    }
+
+    /**
+     * Estimates the number of instructions from the state to the target
+     * without ever overestimating it.
+     */
+    static long estimate(long state, long target) {
+        long deltaX = (long) PackedState.xValueOf(target) - PackedState.xValueOf(state);
+        long deltaY = (long) PackedState.yValueOf(target) - PackedState.yValueOf(state);
+        int orientation = PackedState.orientationOf(state);
+        int targetOrientation = PackedState.orientationOf(target);
+        int turns;
+        if (deltaX == 0 && deltaY == 0) {
+            turns = turnsBetween(orientation, targetOrientation);
+        } else if (deltaX == 0 || deltaY == 0) {
+            int direction = deltaX > 0 ? OrientationCode.E
+                    : deltaX < 0 ? OrientationCode.W : deltaY > 0 ? OrientationCode.N : OrientationCode.S;
+            turns = turnsBetween(orientation, direction) + turnsBetween(direction, targetOrientation);
+        } else {
+            int first = deltaX > 0 ? OrientationCode.E : OrientationCode.W;
+            int second = deltaY > 0 ? OrientationCode.N : OrientationCode.S;
+            turns = 1 + Math.min(turnsBetween(orientation, first) + turnsBetween(second, targetOrientation),
+                    turnsBetween(orientation, second) + turnsBetween(first, targetOrientation));
+        }
+        return Math.abs(deltaX) + Math.abs(deltaY) + turns;
+    }
+
+    private static int turnsBetween(int orientation, int otherOrientation) {
+        int rightTurns = (otherOrientation - orientation) & 3;
+        return Math.min(rightTurns, 4 - rightTurns);
+    }
+}
@@ -0,0 +1,163 @@
+package planner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import engine.InstructionProgram;
+import model.OccupancyIndex;
+import model.PackedState;
+import util.LongIntHashMap;
+
+/**
+ * Space-time reservations of the rovers planned so far by the
+ * {@link FleetPlanner}, following the rules of the
+ * {@link engine.TickSimulator}: a rover may move into a cell during a tick
+ * only if the cell is empty at the beginning of the tick and no other rover
+ * enters it during the tick. A rover that has finished its program stays on
+ * its cell for good.
+ * <p>
+ * Besides the planned routes the table knows the cells of rovers that don't
+ * move at all and the start cells of rovers that haven't been planned yet.
+ * The latter are only known to be occupied at the first tick; a rover
+ * planned later has to get out of the way of the routes reserved before it.
+ * Routes may avoid them entirely, so that the rover can always leave its
+ * start cell. The table may be read by several threads as long as it isn't
+ * changed at the same time.
+ */
+final class ReservationTable {
+
+    static final int NEVER = Integer.MAX_VALUE;
+    private static final int NOT_PASSED = -1;
+
+    private final OccupancyIndex stationary = new OccupancyIndex();
+    private final OccupancyIndex unplanned = new OccupancyIndex();
+    // cells occupied by planned rovers, indexed by tick
+    private final List<OccupancyIndex> occupiedAt = new ArrayList<>();
+    // cell -> tick from which a planned rover stays on it
+    private final LongIntHashMap parkedSince = new LongIntHashMap();
+    // cell -> last tick a planned rover is on it
+    private final LongIntHashMap lastPassed = new LongIntHashMap();
+
+    void addStationary(long cellKey) {
+        stationary.add(cellKey);
+    }
+
+    void addUnplanned(long cellKey) {
+        unplanned.add(cellKey);
+    }
+
+    /**
+     * Checks if the cell is free at the beginning of the given tick for the
+     * rover starting on {@code ownStart}.
+     * 
+     * @param avoidUnplanned {@code true} to consider the start cells of
+     *            unplanned rovers occupied at every tick
+     */
+    boolean isFree(long cellKey, int tick, long ownStart, boolean avoidUnplanned) {
+        if (stationary.isOccupied(cellKey)) {
+            return false;
+        }
+        if ((tick == 0 || avoidUnplanned) && cellKey != ownStart && unplanned.isOccupied(cellKey)) {
+            return false;
+        }
+        if (tick < occupiedAt.size() && occupiedAt.get(tick).isOccupied(cellKey)) {
+            return false;
+        }
+        return parkedSince.get(cellKey, NEVER) > tick;
+    }
+
+    /**
+     * Checks if the rover may step from the cell of {@code state} to the cell
+     * of {@code next} during the given tick.
+     */
+    boolean canStep(long state, long next, int tick, long ownStart, boolean avoidUnplanned) {
+        long nextCell = cellOf(next);
+        if (nextCell != cellOf(state) && !isFree(nextCell, tick, ownStart, avoidUnplanned)) {
+            return false;
+        }
+        return isFree(nextCell, tick + 1, ownStart, avoidUnplanned);
+    }
+
+    /**
+     * Checks if a rover may finish its program on the cell at the given tick,
+     * i.e. no planned rover passes it at or after that tick.
+     */
+    boolean canPark(long cellKey, int tick) {
+        return tick >= earliestParkTick(cellKey);
+    }
+
+    /**
+     * Returns the first tick a rover may finish its program on the cell,
+     * {@link #NEVER} if another rover finishes on it.
+     */
+    int earliestParkTick(long cellKey) {
+        if (parkedSince.containsKey(cellKey)) {
+            return NEVER;
+        }
+        return lastPassed.get(cellKey, NOT_PASSED) + 1;
+    }
+
+    /**
+     * Checks if the route is still free of conflicts, considering the
+     * start cells of unplanned rovers occupied at the first tick only.
+     */
+    boolean isFree(long start, byte[] ops) {
+        long state = start;
+        for (int tick = 0; tick < ops.length; tick++) {
+            long next = step(state, ops[tick]);
+            if (!canStep(state, next, tick, cellOf(start), false)) {
+                return false;
+            }
+            state = next;
+        }
+        return canPark(cellOf(state), ops.length);
+    }
+
+    /**
+     * Reserves the cells of the route; the rover is no longer unplanned. A
+     * cell the rover moves to is reserved from the beginning of the tick, so
+     * no other rover may stay on it.
+     */
+    void reserve(long start, byte[] ops) {
+        unplanned.remove(cellOf(start));
+        long state = start;
+        for (int tick = 0; tick <= ops.length; tick++) {
+            long cellKey = cellOf(state);
+            if (tick < ops.length) {
+                while (occupiedAt.size() <= tick) {
+                    occupiedAt.add(new OccupancyIndex());
+                }
+                state = step(state, ops[tick]);
+                occupiedAt.get(tick).add(cellKey);
+                if (cellOf(state) != cellKey) {
+                    occupiedAt.get(tick).add(cellOf(state));
+                }
+            }
+            if (lastPassed.get(cellKey, NOT_PASSED) < tick) {
+                lastPassed.put(cellKey, tick, NOT_PASSED);
+            }
+        }
+        parkedSince.put(cellOf(state), ops.length, NEVER);
+    }
+
+    /**
+     * Returns the number of ticks with reservations of moving rovers.
+     */
+    int reservedTicks() {
+        return occupiedAt.size();
+    }
+
+    static long cellOf(long state) {
+        return OccupancyIndex.cellKey(PackedState.xValueOf(state), PackedState.yValueOf(state));
+    }
+
+    /**
+     * Executes a single op code; a move has to stay on the plateau.
+     */
+    static long step(long state, byte op) {
+        if (op == InstructionProgram.MOVE) {
+            return PackedState.move(state);
+        }
+        return op == InstructionProgram.TURN_LEFT ? PackedState.turnLeft(state) : PackedState.turnRight(state);
+    }
+}
@@ -0,0 +1,229 @@
+package planner;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import constants.Instruction;
+import util.LongIntHashMap;
+
+/**
+ * Nodes explored by a single A* search and its open list. Each node is
+ * identified by a key (e.g. a packed rover state) and remembers the rover
+ * state, the cost to reach it, its estimated total cost and the instruction
+ * that led to it from its parent.
+ * <p>
+ * The open list is a binary min-heap ordered by estimated total cost, then
+ * by cost (descending), so among equally good nodes the deepest one comes
+ * first. A node whose cost improves is pushed again; its outdated entries are
+ * skipped. The arrays grow on demand up to the node limit.
+ */
+final class SearchSpace {
+
+    static final int NO_NODE = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Instruction[] INSTRUCTIONS = Instruction.values();
+
+    private final int nodeLimit;
+
+    // explored nodes, indexed by node
+    private long[] states;
+    private int[] costs;
+    private long[] estimates;
+    private int[] parents;
+    private byte[] instructions;
+    private boolean[] closed;
+    private int nodeCount;
+    private final LongIntHashMap nodeByKey;
+
+    private int[] heapNodes;
+    private long[] heapEstimates;
+    private int[] heapCosts;
+    private int heapSize;
+
+    SearchSpace(int nodeLimit) {
+        this.nodeLimit = nodeLimit;
+        int capacity = Math.min(INITIAL_CAPACITY, nodeLimit);
+        states = new long[capacity];
+        costs = new int[capacity];
+        estimates = new long[capacity];
+        parents = new int[capacity];
+        instructions = new byte[capacity];
+        closed = new boolean[capacity];
+        nodeByKey = new LongIntHashMap(capacity);
+        heapNodes = new int[capacity];
+        heapEstimates = new long[capacity];
+        heapCosts = new int[capacity];
+    }
+
+    long stateOf(int node) {
+        return states[node];
+    }
+
+    int costOf(int node) {
+        return costs[node];
+    }
+
+    /**
+     * Adds the node with the given key and opens it, or reopens the known
+     * node if the new cost is lower and it hasn't been closed yet.
+     * 
+     * @param instruction Op code of the instruction that leads from the
+     *            parent to the node
+     * @throws NodeLimitExceeded if a new node would exceed the node limit
+     */
+    void offer(long key, long state, int cost, long estimate, int parent, byte instruction)
+        throws NodeLimitExceeded {
+        int node = nodeByKey.get(key, NO_NODE);
+        if (node == NO_NODE) {
+            node = addNode(key, state);
+        } else if (closed[node] || cost >= costs[node]) {
+            return;
+        }
+        costs[node] = cost;
+        estimates[node] = estimate;
+        parents[node] = parent;
+        instructions[node] = instruction;
+        push(node);
+    }
+
+    /**
+     * Closes and returns the open node with the lowest estimated total cost.
+     * 
+     * @return The node or {@link #NO_NODE} if no node is open
+     */
+    int poll() {
+        while (heapSize > 0) {
+            boolean outdated = heapCosts[0] != costs[heapNodes[0]];
+            int node = pop();
+            if (!outdated && !closed[node]) {
+                closed[node] = true;
+                return node;
+            }
+        }
+        return NO_NODE;
+    }
+
+    /**
+     * Returns the op codes of the instructions leading from the root to the
+     * node.
+     */
+    byte[] opsTo(int node) {
+        byte[] ops = new byte[costs[node]];
+        int length = 0;
+        for (int current = node; parents[current] != NO_NODE; current = parents[current]) {
+            ops[length++] = instructions[current];
+        }
+        ops = Arrays.copyOf(ops, length);
+        for (int i = 0; i < length / 2; i++) {
+            byte op = ops[i];
+            ops[i] = ops[length - 1 - i];
+            ops[length - 1 - i] = op;
+        }
+        return ops;
+    }
+
+    List<Instruction> instructionsTo(int node) {
+        byte[] ops = opsTo(node);
+        List<Instruction> path = Lists.newArrayListWithCapacity(ops.length);
+        for (byte op : ops) {
+            path.add(INSTRUCTIONS[op]);
+        }
+        return path;
+    }
+
+    private int addNode(long key, long state) throws NodeLimitExceeded {
+        if (nodeCount == nodeLimit) {
+            throw new NodeLimitExceeded();
+        }
+        if (nodeCount == states.length) {
+            int capacity = (int) Math.min((long) states.length * 2, nodeLimit);
+            states = Arrays.copyOf(states, capacity);
+            costs = Arrays.copyOf(costs, capacity);
+            estimates = Arrays.copyOf(estimates, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            instructions = Arrays.copyOf(instructions, capacity);
+            closed = Arrays.copyOf(closed, capacity);
+        }
+        int node = nodeCount++;
+        states[node] = state;
+        nodeByKey.put(key, node, NO_NODE);
+        return node;
+    }
+
+    private void push(int node) {
+        if (heapSize == heapNodes.length) {
+            heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+            heapEstimates = Arrays.copyOf(heapEstimates, heapSize * 2);
+            heapCosts = Arrays.copyOf(heapCosts, heapSize * 2);
+        }
+        long estimate = estimates[node];
+        int cost = costs[node];
+        int position = heapSize++;
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            if (!isBefore(estimate, cost, parentPosition)) {
+                break;
+            }
+            moveEntry(parentPosition, position);
+            position = parentPosition;
+        }
+        heapNodes[position] = node;
+        heapEstimates[position] = estimate;
+        heapCosts[position] = cost;
+    }
+
+    private int pop() {
+        int first = heapNodes[0];
+        int last = --heapSize;
+        long estimate = heapEstimates[last];
+        int cost = heapCosts[last];
+        int node = heapNodes[last];
+        int position = 0;
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && isBefore(heapEstimates[child + 1], heapCosts[child + 1], child)) {
+                child++;
+            }
+            if (!isBefore(heapEstimates[child], heapCosts[child], last)) {
+                break;
+            }
+            moveEntry(child, position);
+            position = child;
+        }
+        heapNodes[position] = node;
+        heapEstimates[position] = estimate;
+        heapCosts[position] = cost;
+        return first;
+    }
+
+    private boolean isBefore(long estimate, int cost, int position) {
+        if (estimate != heapEstimates[position]) {
+            return estimate < heapEstimates[position];
+        }
+        return cost > heapCosts[position];
+    }
+
+    private void moveEntry(int from, int to) {
+        heapNodes[to] = heapNodes[from];
+        heapEstimates[to] = heapEstimates[from];
+        heapCosts[to] = heapCosts[from];
+    }
+
+    /**
+     * Thrown if a search explores more nodes than allowed.
+     */
+    static final class NodeLimitExceeded extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        NodeLimitExceeded() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package region;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+/**
+ * {@link RegionTransport} between workers of the same process. Handoffs are
+ * still encoded into their wire format and decoded again, so the protocol is
+ * exercised exactly as with a remote transport.
+ */
+public class LoopbackTransport implements RegionTransport {
+
+    private final Map<Integer, RegionWorker> workers = Maps.newHashMap();
+
+    public void connect(RegionWorker worker) {
+        workers.put(worker.getRegion().getId(), worker);
+    }
+
+    @Override
+    public boolean handOff(int regionId, RoverHandoff handoff) {
+        RegionWorker worker = workers.get(regionId);
+        checkArgument(worker != null, "Unknown region %s!", regionId);
+
+        ByteBuffer wire = ByteBuffer.allocate(handoff.encodedSize());
+        handoff.writeTo(wire);
+        wire.flip();
+        return worker.receive(RoverHandoff.readFrom(wire));
+    }
+}
@@ -0,0 +1,51 @@
+package region;
+
+/**
+ * Rectangular part of the plateau simulated by one {@link RegionWorker}. All
+ * bounds are inclusive.
+ */
+public final class Region {
+
+    private final int id;
+    private final int minXValue;
+    private final int minYValue;
+    private final int maxXValue;
+    private final int maxYValue;
+
+    public Region(int id, int minXValue, int minYValue, int maxXValue, int maxYValue) {
+        this.id = id;
+        this.minXValue = minXValue;
+        this.minYValue = minYValue;
+        this.maxXValue = maxXValue;
+        this.maxYValue = maxYValue;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getMinXValue() {
+        return minXValue;
+    }
+
+    public int getMinYValue() {
+        return minYValue;
+    }
+
+    public int getMaxXValue() {
+        return maxXValue;
+    }
+
+    public int getMaxYValue() {
+        return maxYValue;
+    }
+
+    public boolean contains(int xValue, int yValue) {
+        return xValue >= minXValue && xValue <= maxXValue && yValue >= minYValue && yValue <= maxYValue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Region %s (%s %s)-(%s %s)", id, minXValue, minYValue, maxXValue, maxYValue);
+    }
+}
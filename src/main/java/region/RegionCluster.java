@@ -0,0 +1,62 @@
+package region;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import constants.Orientation;
+import engine.InstructionProgram;
+import model.exception.PositionBlockedException;
+
+/**
+ * Runs all regions of a partitioned plateau within the current process,
+ * connected by a {@link LoopbackTransport}. Mainly useful for testing the
+ * handoff protocol; a distributed setup runs one {@link RegionWorker} per
+ * process with a network transport instead.
+ */
+public class RegionCluster {
+
+    private final RegionPartitioning partitioning;
+    private final List<RegionWorker> workers;
+
+    public RegionCluster(RegionPartitioning partitioning, RoverResultListener listener) {
+        this.partitioning = partitioning;
+        LoopbackTransport transport = new LoopbackTransport();
+        ImmutableList.Builder<RegionWorker> builder = ImmutableList.builder();
+        for (Region region : partitioning.getRegions()) {
+            RegionWorker worker = new RegionWorker(region, partitioning, transport, listener);
+            transport.connect(worker);
+            builder.add(worker);
+        }
+        this.workers = builder.build();
+    }
+
+    public List<RegionWorker> getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Deploys a rover in the region containing its position.
+     * 
+     * @throws PositionBlockedException if the position is an obstacle or
+     *             occupied by another rover
+     */
+    public void deploy(long id, int xValue, int yValue, Orientation orientation, InstructionProgram program)
+        throws PositionBlockedException {
+        workers.get(partitioning.regionOf(xValue, yValue)).deploy(id, xValue, yValue, orientation, program);
+    }
+
+    /**
+     * Lets the workers process their rovers round-robin until all of them are
+     * idle.
+     */
+    public void run() {
+        boolean processed = true;
+        while (processed) {
+            processed = false;
+            for (RegionWorker worker : workers) {
+                processed |= worker.processNext();
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package region;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import constants.PlateauSize;
+
+/**
+ * Splits the plateau into a grid of {@link Region}s with (almost) equal size.
+ * Region ids are assigned row by row, starting at the lower left corner.
+ */
+public class RegionPartitioning {
+
+    private final int maxXValue;
+    private final int maxYValue;
+    private final int columns;
+    private final int rows;
+    private final List<Region> regions;
+
+    /**
+     * Partitions the plateau as currently configured in {@link PlateauSize}.
+     */
+    public RegionPartitioning(int columns, int rows) {
+        this(PlateauSize.maxXValue, PlateauSize.maxYValue, columns, rows);
+    }
+
+    public RegionPartitioning(int maxXValue, int maxYValue, int columns, int rows) {
+        checkArgument(columns > 0 && rows > 0, "At least one column and row is required!");
+        checkArgument((long) columns <= (long) maxXValue - PlateauSize.minXValue + 1
+                && (long) rows <= (long) maxYValue - PlateauSize.minYValue + 1, "Regions must not be empty!");
+        this.maxXValue = maxXValue;
+        this.maxYValue = maxYValue;
+        this.columns = columns;
+        this.rows = rows;
+
+        ImmutableList.Builder<Region> builder = ImmutableList.builder();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int minX = boundary(PlateauSize.minXValue, maxXValue, columns, column);
+                int minY = boundary(PlateauSize.minYValue, maxYValue, rows, row);
+                int maxX = boundary(PlateauSize.minXValue, maxXValue, columns, column + 1) - 1;
+                int maxY = boundary(PlateauSize.minYValue, maxYValue, rows, row + 1) - 1;
+                builder.add(new Region(row * columns + column, minX, minY, maxX, maxY));
+            }
+        }
+        this.regions = builder.build();
+    }
+
+    public int getMaxXValue() {
+        return maxXValue;
+    }
+
+    public int getMaxYValue() {
+        return maxYValue;
+    }
+
+    public List<Region> getRegions() {
+        return regions;
+    }
+
+    /**
+     * Returns the id of the region containing the given cell.
+     */
+    public int regionOf(int xValue, int yValue) {
+        checkArgument(xValue >= PlateauSize.minXValue && xValue <= maxXValue && yValue >= PlateauSize.minYValue
+                && yValue <= maxYValue, "Position (%s %s) isn't on the plateau!", xValue, yValue);
+        int column = indexOf(PlateauSize.minXValue, maxXValue, columns, xValue);
+        int row = indexOf(PlateauSize.minYValue, maxYValue, rows, yValue);
+        return row * columns + column;
+    }
+
+    /**
+     * Returns the first coordinate of the given part.
+     */
+    private static int boundary(int min, int max, int parts, int part) {
+        long cells = (long) max - min + 1;
+        return (int) (min + cells * part / parts);
+    }
+
+    private static int indexOf(int min, int max, int parts, int value) {
+        long cells = (long) max - min + 1;
+        // inverse of boundary(): largest part whose first coordinate is <= value
+        int part = (int) (((long) value - min + 1) * parts / cells);
+        while (part > 0 && boundary(min, max, parts, part) > value) {
+            part--;
+        }
+        while (part < parts - 1 && boundary(min, max, parts, part + 1) <= value) {
+            part++;
+        }
+        return part;
+    }
+}
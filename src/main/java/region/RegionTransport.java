@@ -0,0 +1,20 @@
+package region;
+
+/**
+ * Connects the {@link RegionWorker}s of a partitioned plateau. Implementations
+ * may deliver within the same process or to worker processes on other nodes.
+ */
+public interface RegionTransport {
+
+    /**
+     * Hands a rover over to the region it enters. The receiving region
+     * accepts the rover only if the entered cell is free; checking and
+     * occupying the cell is atomic on the receiving side.
+     * 
+     * @param regionId Id of the receiving region
+     * @param handoff State and remaining instructions of the rover
+     * @return {@code true} if the rover has been accepted, {@code false} if
+     *         the entered cell is blocked
+     */
+    boolean handOff(int regionId, RoverHandoff handoff);
+}
@@ -0,0 +1,205 @@
+package region;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import constants.Orientation;
+import engine.ExecutionResult;
+import engine.InstructionEngine;
+import engine.InstructionProgram;
+import model.FleetStore;
+import model.Plateau;
+import model.Rover;
+import model.World;
+import model.exception.PositionBlockedException;
+
+/**
+ * Simulates the rovers within one {@link Region}. Rovers are executed one
+ * after the other in the order they arrived by an {@link InstructionEngine}
+ * whose border is the region. When a rover crosses the region border it's
+ * handed off to the neighbouring region via the {@link RegionTransport}; the
+ * neighbour checks whether the entered cell is free and continues with the
+ * remaining instructions. Obstacles are taken from the terrain of the global
+ * plateau (see {@link Plateau#global()}).
+ * <p>
+ * The rovers standing in the region are kept in a {@link World} of the
+ * worker, guarded by its monitor. {@link #receive(RoverHandoff)} may be called
+ * from other threads while the worker is processing.
+ */
+public class RegionWorker {
+
+    private static final int NO_SLOT = -1;
+
+    private final Region region;
+    private final RegionPartitioning partitioning;
+    private final RegionTransport transport;
+    private final RoverResultListener listener;
+    private final World world;
+    private final InstructionEngine engine;
+    private final ExecutionResult result = new ExecutionResult();
+    private final Queue<PendingRover> pendingRovers = new ConcurrentLinkedQueue<>();
+    // slots of rovers that left the region, reused for arriving rovers
+    private int[] freeSlots = new int[4];
+    private int freeSlotCount;
+
+    public RegionWorker(Region region, RegionPartitioning partitioning, RegionTransport transport,
+            RoverResultListener listener) {
+        this.region = region;
+        this.partitioning = partitioning;
+        this.transport = transport;
+        this.listener = listener;
+        this.world = new World(new Plateau(partitioning.getMaxXValue(), partitioning.getMaxYValue(),
+                Plateau.global().getTerrain()));
+        this.engine = new InstructionEngine(world, region::contains);
+    }
+
+    public Region getRegion() {
+        return region;
+    }
+
+    /**
+     * Deploys a rover within this region. It occupies its cell right away and
+     * executes its program when it's its turn.
+     * 
+     * @throws PositionBlockedException if the cell is an obstacle or occupied
+     *             by another rover
+     */
+    public void deploy(long id, int xValue, int yValue, Orientation orientation, InstructionProgram program)
+        throws PositionBlockedException {
+        byte[] code = new byte[program.length()];
+        for (int step = 0; step < code.length; step++) {
+            code[step] = (byte) program.instructionAt(step).ordinal();
+        }
+        synchronized (world) {
+            int blockage = world.blockage(xValue, yValue);
+            if (blockage != Plateau.FREE) {
+                throw PositionBlockedException.forBlockage(blockage, xValue, yValue);
+            }
+            int index = place(id, xValue, yValue, (byte) orientation.ordinal());
+            pendingRovers.add(new PendingRover(index, code, 0));
+        }
+    }
+
+    /**
+     * Accepts a rover entering this region if the entered cell is free.
+     * 
+     * @return {@code true} if the rover has been accepted
+     */
+    public boolean receive(RoverHandoff handoff) {
+        synchronized (world) {
+            if (world.isPositionOccupied(handoff.getxValue(), handoff.getyValue())) {
+                return false;
+            }
+            int index = place(handoff.getId(), handoff.getxValue(), handoff.getyValue(),
+                    handoff.getOrientationCode());
+            pendingRovers.add(new PendingRover(index, handoff.getCode(), handoff.getProgramCounter()));
+        }
+        return true;
+    }
+
+    public boolean isIdle() {
+        return pendingRovers.isEmpty();
+    }
+
+    public boolean isOccupied(int xValue, int yValue) {
+        synchronized (world) {
+            return world.isPositionOccupied(xValue, yValue);
+        }
+    }
+
+    /**
+     * Executes the next pending rover until it has finished, failed or left
+     * the region. A rover with an invalid instruction stops there and is
+     * reported with an {@link IllegalStateException}.
+     * 
+     * @return {@code false} if no rover was pending
+     */
+    public boolean processNext() {
+        PendingRover rover = pendingRovers.poll();
+        if (rover == null) {
+            return false;
+        }
+        FleetStore fleet = world.getFleet();
+        Exception failure = null;
+        long id;
+        int xValue;
+        int yValue;
+        Orientation orientation;
+        synchronized (world) {
+            result.reset();
+            try {
+                engine.execute(new Rover(fleet, rover.index), rover.code, rover.programCounter, rover.code.length,
+                        result);
+            } catch (IllegalStateException ex) {
+                failure = ex;
+            }
+            id = fleet.getId(rover.index);
+            xValue = fleet.getxValue(rover.index);
+            yValue = fleet.getyValue(rover.index);
+            orientation = fleet.getOrientation(rover.index);
+        }
+        if (result.getStatus() == ExecutionResult.BORDER_REACHED) {
+            // hand off outside the monitor, the neighbour's receive() takes its own
+            int newXValue = result.getFailedXValue();
+            int newYValue = result.getFailedYValue();
+            RoverHandoff handoff = new RoverHandoff(id, newXValue, newYValue, (byte) orientation.ordinal(),
+                    rover.code, rover.programCounter + (int) result.getFailedStep() + 1);
+            if (transport.handOff(partitioning.regionOf(newXValue, newYValue), handoff)) {
+                synchronized (world) {
+                    release(rover.index);
+                }
+                return true;
+            }
+            failure = PositionBlockedException.forPosition(newXValue, newYValue);
+        } else if (failure == null) {
+            failure = result.getFailure();
+        }
+        listener.roverFinished(id, xValue, yValue, orientation, failure);
+        return true;
+    }
+
+    /**
+     * Puts a rover on its cell, in the slot of a rover that left if there is
+     * one.
+     * 
+     * @return The rover's slot
+     */
+    private int place(long id, int xValue, int yValue, byte orientationCode) {
+        FleetStore fleet = world.getFleet();
+        int index = freeSlotCount > 0 ? freeSlots[--freeSlotCount] : NO_SLOT;
+        if (index == NO_SLOT) {
+            index = fleet.allocate();
+        }
+        fleet.reassign(index, id);
+        fleet.setPosition(index, xValue, yValue);
+        fleet.setOrientationCode(index, orientationCode);
+        fleet.activate(index);
+        return index;
+    }
+
+    private void release(int index) {
+        world.getFleet().deactivate(index);
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = index;
+    }
+
+    /**
+     * A rover waiting for its turn: its slot in the worker's fleet and its
+     * remaining instructions.
+     */
+    private static final class PendingRover {
+
+        private final int index;
+        private final byte[] code;
+        private final int programCounter;
+
+        PendingRover(int index, byte[] code, int programCounter) {
+            this.index = index;
+            this.code = code;
+            this.programCounter = programCounter;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package region;
+
+import java.nio.ByteBuffer;
+
+/**
+ * State of a rover that crosses a region border. Besides position and
+ * orientation it carries the rover's remaining instructions, so the receiving
+ * region can continue where the sending one stopped.
+ * <p>
+ * Wire format (big endian): id (8 bytes), x (4), y (4), orientation (1),
+ * program counter (4), program length (4), op codes (1 per instruction).
+ */
+public final class RoverHandoff {
+
+    private static final int HEADER_SIZE = 8 + 4 + 4 + 1 + 4 + 4;
+
+    private final long id;
+    private final int xValue;
+    private final int yValue;
+    private final byte orientationCode;
+    private final byte[] code;
+    private final int programCounter;
+
+    /**
+     * @param id The rover's id
+     * @param xValue X-coordinate of the cell the rover enters
+     * @param yValue Y-coordinate of the cell the rover enters
+     * @param orientationCode Ordinal of the rover's orientation
+     * @param code The rover's complete program
+     * @param programCounter Index of the next instruction to execute
+     */
+    public RoverHandoff(long id, int xValue, int yValue, byte orientationCode, byte[] code, int programCounter) {
+        this.id = id;
+        this.xValue = xValue;
+        this.yValue = yValue;
+        this.orientationCode = orientationCode;
+        this.code = code;
+        this.programCounter = programCounter;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getxValue() {
+        return xValue;
+    }
+
+    public int getyValue() {
+        return yValue;
+    }
+
+    public byte getOrientationCode() {
+        return orientationCode;
+    }
+
+    public byte[] getCode() {
+        return code;
+    }
+
+    public int getProgramCounter() {
+        return programCounter;
+    }
+
+    /**
+     * Returns the number of bytes {@link #writeTo(ByteBuffer)} needs. Only
+     * the remaining instructions are transferred.
+     */
+    public int encodedSize() {
+        return HEADER_SIZE + code.length - programCounter;
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putLong(id);
+        buffer.putInt(xValue);
+        buffer.putInt(yValue);
+        buffer.put(orientationCode);
+        buffer.putInt(0); // remaining instructions start at 0 on the receiving side
+        buffer.putInt(code.length - programCounter);
+        buffer.put(code, programCounter, code.length - programCounter);
+    }
+
+    public static RoverHandoff readFrom(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        int xValue = buffer.getInt();
+        int yValue = buffer.getInt();
+        byte orientationCode = buffer.get();
+        int programCounter = buffer.getInt();
+        byte[] code = new byte[buffer.getInt()];
+        buffer.get(code);
+        return new RoverHandoff(id, xValue, yValue, orientationCode, code, programCounter);
+    }
+}
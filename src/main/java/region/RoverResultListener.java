@@ -0,0 +1,19 @@
+package region;
+
+import constants.Orientation;
+
+/**
+ * Receives the final state of each rover simulated by a {@link RegionWorker}.
+ */
+public interface RoverResultListener {
+
+    /**
+     * @param id The rover's id
+     * @param xValue Final X-coordinate
+     * @param yValue Final Y-coordinate
+     * @param orientation Final orientation
+     * @param failure The error that aborted the rover's instructions or
+     *            {@code null} if all instructions have been executed
+     */
+    void roverFinished(long id, int xValue, int yValue, Orientation orientation, Exception failure);
+}
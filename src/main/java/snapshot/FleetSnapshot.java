@@ -0,0 +1,258 @@
+package snapshot;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import constants.Orientation;
+import constants.PlateauSize;
+import model.FleetStore;
+import model.OccupancyIndex;
+import model.Plateau;
+import model.World;
+
+/**
+ * Binary snapshot of the plateau and all active rovers of a fleet. All values
+ * are little-endian. The file starts with a header of {@link #HEADER_SIZE}
+ * bytes:
+ * 
+ * <pre>
+ * int magic, short version, short reserved,
+ * int minX, int minY, int maxX, int maxY, long roverCount, long journalTick
+ * </pre>
+ * 
+ * followed by one record of {@link #RECORD_SIZE} bytes per rover:
+ * 
+ * <pre>
+ * long id, int x, int y, byte orientation (ordinal)
+ * </pre>
+ * 
+ * The journal tick is the tick of the last {@link MoveJournal} record covered
+ * by the snapshot; version 1 headers end before it.
+ * <p>
+ * Records are transferred through a direct buffer in large blocks, so saving
+ * and restoring is bound by the disk rather than by the number of rovers.
+ */
+public class FleetSnapshot {
+
+    /** "MRFS" */
+    public static final int MAGIC = 0x4D524653;
+    public static final short VERSION = 2;
+    public static final int HEADER_SIZE = 40;
+    public static final int RECORD_SIZE = 17;
+
+    private static final int VERSION_1_HEADER_SIZE = 32;
+    private static final int BUFFER_SIZE = (1 << 20) / RECORD_SIZE * RECORD_SIZE;
+    private static final Orientation[] ORIENTATIONS = Orientation.values();
+
+    private final Plateau plateau;
+    private final FleetStore fleet;
+    private final long journalTick;
+
+    private FleetSnapshot(Plateau plateau, FleetStore fleet, long journalTick) {
+        this.plateau = plateau;
+        this.fleet = fleet;
+        this.journalTick = journalTick;
+    }
+
+    /**
+     * Returns the restored plateau. It isn't attached to any world.
+     */
+    public Plateau getPlateau() {
+        return plateau;
+    }
+
+    /**
+     * Returns the restored fleet. Its {@link OccupancyIndex} holds all rovers
+     * as active slots.
+     */
+    public FleetStore getFleet() {
+        return fleet;
+    }
+
+    public long getJournalTick() {
+        return journalTick;
+    }
+
+    /**
+     * Configures the plateau of the given world like the restored one and
+     * replaces all rovers registered in the world by the restored fleet.
+     */
+    public void restoreInto(World world) {
+        world.getPlateau().setMaxXValue(plateau.getMaxXValue());
+        world.getPlateau().setMaxYValue(plateau.getMaxYValue());
+        world.restore(fleet);
+    }
+
+    /**
+     * Writes the plateau and all rovers of the default world (see
+     * {@link app.RoverRegistry}) to the given file.
+     * 
+     * @see #save(World, Path)
+     */
+    public static void save(Path file) throws IOException {
+        save(World.getDefault(), file);
+    }
+
+    /**
+     * Writes the actual plateau and all rovers of the given world to the given
+     * file, replacing its content. If the world's fleet has a journal, use
+     * {@link MoveJournal#checkpoint(World, Path)} instead.
+     */
+    public static void save(World world, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(world.getFleet(), world.getPlateau(), 0, channel);
+        }
+    }
+
+    /**
+     * Restores the default world (see {@link app.RoverRegistry}) from the
+     * given file.
+     * 
+     * @see #restore(World, Path)
+     */
+    public static void restore(Path file) throws IOException {
+        restore(World.getDefault(), file);
+    }
+
+    /**
+     * Restores the plateau and the rovers of the given world from the given
+     * file. All rovers registered before are dropped.
+     */
+    public static void restore(World world, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            read(channel).restoreInto(world);
+        }
+    }
+
+    /**
+     * Writes the plateau of the default world and the active rovers of the
+     * given fleet.
+     * 
+     * @see #write(FleetStore, Plateau, long, WritableByteChannel)
+     */
+    public static long write(FleetStore fleet, long journalTick, WritableByteChannel channel) throws IOException {
+        return write(fleet, Plateau.global(), journalTick, channel);
+    }
+
+    /**
+     * Writes the given plateau and the active rovers of the given fleet.
+     * 
+     * @param journalTick Tick of the last journal record that is reflected
+     *            by the fleet
+     * @return The number of written rovers
+     */
+    public static long write(FleetStore fleet, Plateau plateau, long journalTick, WritableByteChannel channel)
+        throws IOException {
+        long roverCount = 0;
+        for (int index = 0; index < fleet.size(); index++) {
+            if (fleet.isActive(index)) {
+                roverCount++;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) 0)
+                .putInt(plateau.getMinXValue())
+                .putInt(plateau.getMinYValue())
+                .putInt(plateau.getMaxXValue())
+                .putInt(plateau.getMaxYValue())
+                .putLong(roverCount)
+                .putLong(journalTick);
+        for (int index = 0; index < fleet.size(); index++) {
+            if (!fleet.isActive(index)) {
+                continue;
+            }
+            if (buffer.remaining() < RECORD_SIZE) {
+                drain(buffer, channel);
+            }
+            buffer.putLong(fleet.getId(index))
+                    .putInt(fleet.getxValue(index))
+                    .putInt(fleet.getyValue(index))
+                    .put(fleet.getOrientationCode(index));
+        }
+        drain(buffer, channel);
+        return roverCount;
+    }
+
+    /**
+     * Reads a snapshot into a new plateau and fleet. Use
+     * {@link #restoreInto(World)} to put them into operation.
+     * 
+     * @throws IllegalArgumentException if the input isn't a snapshot of a
+     *             supported version
+     * @throws EOFException if the input ends before the last record
+     */
+    public static FleetSnapshot read(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        fill(buffer, channel, VERSION_1_HEADER_SIZE);
+        checkArgument(buffer.getInt() == MAGIC, "The input isn't a fleet snapshot!");
+        short version = buffer.getShort();
+        checkArgument(version == 1 || version == VERSION, "Unsupported snapshot version: %s", version);
+        buffer.getShort();
+        int minXValue = buffer.getInt();
+        int minYValue = buffer.getInt();
+        checkArgument(minXValue == PlateauSize.minXValue && minYValue == PlateauSize.minYValue,
+                "Unsupported plateau origin: %s %s", minXValue, minYValue);
+        int maxXValue = buffer.getInt();
+        int maxYValue = buffer.getInt();
+        long roverCount = buffer.getLong();
+        checkArgument(roverCount >= 0 && roverCount < Integer.MAX_VALUE, "Invalid rover count: %s", roverCount);
+        long journalTick = 0;
+        if (version > 1) {
+            if (buffer.remaining() < HEADER_SIZE - VERSION_1_HEADER_SIZE) {
+                fill(buffer, channel, HEADER_SIZE - VERSION_1_HEADER_SIZE);
+            }
+            journalTick = buffer.getLong();
+        }
+
+        FleetStore fleet = new FleetStore((int) roverCount, new OccupancyIndex((int) roverCount));
+        for (long rover = 0; rover < roverCount; rover++) {
+            if (buffer.remaining() < RECORD_SIZE) {
+                fill(buffer, channel, RECORD_SIZE);
+            }
+            long id = buffer.getLong();
+            int xValue = buffer.getInt();
+            int yValue = buffer.getInt();
+            byte orientationCode = buffer.get();
+            checkArgument(orientationCode >= 0 && orientationCode < ORIENTATIONS.length,
+                    "Invalid orientation of rover %s: %s", id, orientationCode);
+            fleet.add(id, xValue, yValue, ORIENTATIONS[orientationCode]);
+        }
+        return new FleetSnapshot(new Plateau(maxXValue, maxYValue), fleet, journalTick);
+    }
+
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads from the channel until at least the given number of bytes can be
+     * consumed from the buffer.
+     */
+    private static void fill(ByteBuffer buffer, ReadableByteChannel channel, int required) throws IOException {
+        buffer.compact();
+        while (buffer.position() < required) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("The snapshot is truncated!");
+            }
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,345 @@
+package snapshot;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import constants.Orientation;
+import constants.OrientationCode;
+import engine.InstructionProgram;
+import model.FleetStore;
+import model.Plateau;
+import model.World;
+import util.LongIntHashMap;
+
+/**
+ * Append-only binary journal of all state changes of a {@link FleetStore}.
+ * Attached to a store by {@link FleetStore#setJournal(MoveJournal)}, it
+ * receives every deployed and retired rover from the store and every
+ * executed instruction from the {@link model.Rover}, the
+ * {@link engine.InstructionEngine} and the {@link engine.TickSimulator}.
+ * Together with the last {@link FleetSnapshot} it allows to rebuild the
+ * fleet after a crash (see {@link #recover(World, Path, Path)}).
+ * <p>
+ * All values are little-endian. The file starts with {@link #MAGIC} and
+ * {@link #VERSION} followed by records of
+ * 
+ * <pre>
+ * long roverId, long tick, byte op
+ * </pre>
+ * 
+ * where op is an op code of {@link InstructionProgram}, {@link #RETIRE} or
+ * {@link #DEPLOY}. Deploy records are followed by
+ * {@code int x, int y, byte orientation}; a deploy record of a deployed rover
+ * moves it to the new position (see {@link model.Rover#setDeployPosition}).
+ * The tick is a sequence number that increases with every record.
+ * <p>
+ * Records are collected in a buffer and written in groups: a group is
+ * committed when the buffer is full or on {@link #commit()}, so many records
+ * share one write and one {@link FileChannel#force(boolean)}.
+ */
+public class MoveJournal implements Closeable {
+
+    /** "MRMJ" */
+    public static final int MAGIC = 0x4D524D4A;
+    public static final short VERSION = 1;
+    public static final byte RETIRE = 3;
+    public static final byte DEPLOY = 4;
+
+    static final int HEADER_SIZE = 6;
+    static final int RECORD_SIZE = 17;
+    static final int DEPLOY_PAYLOAD_SIZE = 9;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final Orientation[] ORIENTATIONS = Orientation.values();
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private long tick;
+
+    /**
+     * Opens the given journal file for appending and creates it if necessary.
+     * 
+     * @param journalFile The journal file
+     * @param lastTick Tick of the last record written so far, e.g. as
+     *            returned by {@link #recover(World, Path, Path)}
+     */
+    public MoveJournal(Path journalFile, long lastTick) throws IOException {
+        this.channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.tick = lastTick;
+        if (channel.size() == 0) {
+            buffer.putInt(MAGIC).putShort(VERSION);
+        }
+    }
+
+    /**
+     * Returns the tick of the last appended record.
+     */
+    public synchronized long getLastTick() {
+        return tick;
+    }
+
+    public synchronized void deployed(long roverId, int xValue, int yValue, byte orientationCode) {
+        ensureCapacity(RECORD_SIZE + DEPLOY_PAYLOAD_SIZE);
+        buffer.putLong(roverId).putLong(++tick).put(DEPLOY);
+        buffer.putInt(xValue).putInt(yValue).put(orientationCode);
+    }
+
+    public synchronized void retired(long roverId) {
+        append(roverId, RETIRE);
+    }
+
+    /**
+     * Appends a single executed instruction.
+     */
+    public synchronized void executed(long roverId, byte op) {
+        append(roverId, op);
+    }
+
+    /**
+     * Appends the executed op codes {@code code[from]} to {@code code[to - 1]}.
+     */
+    public synchronized void executed(long roverId, byte[] code, int from, int to) {
+        for (int pc = from; pc < to; pc++) {
+            append(roverId, code[pc]);
+        }
+    }
+
+    /**
+     * Appends the instructions of the executed raw instruction text
+     * {@code text[from]} to {@code text[to - 1]}; whitespace is skipped.
+     */
+    public synchronized void executed(long roverId, ByteBuffer text, int from, int to) {
+        for (int position = from; position < to; position++) {
+            byte op = InstructionProgram.decode(text.get(position));
+            if (op >= 0) {
+                append(roverId, op);
+            }
+        }
+    }
+
+    /**
+     * Appends a net rotation (number of right turns mod 4) followed by the
+     * given number of moves, as executed for an optimized program.
+     */
+    public synchronized void executed(long roverId, int rotation, int moves) {
+        if (rotation == 3) {
+            append(roverId, InstructionProgram.TURN_LEFT);
+        } else {
+            for (int turn = 0; turn < rotation; turn++) {
+                append(roverId, InstructionProgram.TURN_RIGHT);
+            }
+        }
+        for (int move = 0; move < moves; move++) {
+            append(roverId, InstructionProgram.MOVE);
+        }
+    }
+
+    /**
+     * Writes all buffered records and forces them to the storage device.
+     */
+    public synchronized void commit() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        channel.force(false);
+    }
+
+    /**
+     * Checkpoints the fleet and the plateau of the given world.
+     * 
+     * @see #checkpoint(FleetStore, Plateau, Path)
+     */
+    public void checkpoint(World world, Path snapshotFile) throws IOException {
+        checkpoint(world.getFleet(), world.getPlateau(), snapshotFile);
+    }
+
+    /**
+     * Commits the journal, atomically replaces the given snapshot file by a
+     * snapshot of the fleet and drops all journal records covered by it.
+     * 
+     * @param fleet The fleet this journal is attached to
+     * @param plateau The plateau the fleet operates on
+     * @param snapshotFile The snapshot file to replace
+     */
+    public synchronized void checkpoint(FleetStore fleet, Plateau plateau, Path snapshotFile) throws IOException {
+        commit();
+        Path temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel snapshotChannel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            FleetSnapshot.write(fleet, plateau, tick, snapshotChannel);
+            snapshotChannel.force(true);
+        }
+        Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        // a crash before truncating is harmless, replay skips covered ticks
+        channel.truncate(HEADER_SIZE);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            commit();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Recovers the default world (see {@link app.RoverRegistry}).
+     * 
+     * @see #recover(World, Path, Path)
+     */
+    public static long recover(Path snapshotFile, Path journalFile) throws IOException {
+        return recover(World.getDefault(), snapshotFile, journalFile);
+    }
+
+    /**
+     * Restores the plateau and the rovers of the given world from the snapshot
+     * and replays all journal records written after it.
+     * 
+     * @return Tick of the last replayed record to continue the journal with
+     */
+    public static long recover(World world, Path snapshotFile, Path journalFile) throws IOException {
+        FleetSnapshot snapshot;
+        try (FileChannel snapshotChannel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            snapshot = FleetSnapshot.read(snapshotChannel);
+        }
+        long lastTick = snapshot.getJournalTick();
+        if (Files.exists(journalFile)) {
+            try (FileChannel journalChannel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+                lastTick = Math.max(lastTick, replay(journalChannel, snapshot.getFleet(), lastTick));
+            }
+        }
+        snapshot.restoreInto(world);
+        return lastTick;
+    }
+
+    /**
+     * Applies the journal records with a tick after the given one to the
+     * fleet. Moves aren't checked again since they were valid when they were
+     * recorded. An incomplete last record, e.g. of a group that was being
+     * written during a crash, is ignored.
+     * 
+     * @return Tick of the last record read or {@code afterTick} if there is
+     *         none
+     */
+    public static long replay(ReadableByteChannel journal, FleetStore fleet, long afterTick) throws IOException {
+        LongIntHashMap indexById = new LongIntHashMap(fleet.size());
+        for (int index = 0; index < fleet.size(); index++) {
+            if (fleet.isActive(index)) {
+                indexById.put(fleet.getId(index), index, FleetStore.NO_OCCUPANT);
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        if (!fill(buffer, journal, HEADER_SIZE)) {
+            return afterTick;
+        }
+        checkArgument(buffer.getInt() == MAGIC, "The input isn't a move journal!");
+        short version = buffer.getShort();
+        checkArgument(version == VERSION, "Unsupported journal version: %s", version);
+
+        long lastTick = afterTick;
+        while (fill(buffer, journal, RECORD_SIZE)) {
+            long roverId = buffer.getLong();
+            long recordTick = buffer.getLong();
+            byte op = buffer.get();
+            if (op == DEPLOY && !fill(buffer, journal, DEPLOY_PAYLOAD_SIZE)) {
+                break;
+            }
+            lastTick = Math.max(lastTick, recordTick);
+            if (op == DEPLOY) {
+                int xValue = buffer.getInt();
+                int yValue = buffer.getInt();
+                byte orientationCode = buffer.get();
+                checkArgument(orientationCode >= 0 && orientationCode < ORIENTATIONS.length,
+                        "Invalid orientation at tick %s: %s", recordTick, orientationCode);
+                if (recordTick > afterTick) {
+                    int index = indexById.get(roverId, FleetStore.NO_OCCUPANT);
+                    if (index == FleetStore.NO_OCCUPANT) {
+                        index = fleet.add(roverId, xValue, yValue, ORIENTATIONS[orientationCode]);
+                        indexById.put(roverId, index, FleetStore.NO_OCCUPANT);
+                    } else {
+                        // redeployed
+                        fleet.setPosition(index, xValue, yValue);
+                        fleet.setOrientationCode(index, orientationCode);
+                    }
+                }
+                continue;
+            }
+            if (recordTick <= afterTick) {
+                continue;
+            }
+            int index = op == RETIRE ? indexById.remove(roverId, FleetStore.NO_OCCUPANT)
+                    : indexById.get(roverId, FleetStore.NO_OCCUPANT);
+            checkArgument(index != FleetStore.NO_OCCUPANT, "Unknown rover %s at tick %s", roverId, recordTick);
+            int orientation = fleet.getOrientationCode(index);
+            if (op == InstructionProgram.MOVE) {
+                fleet.setPosition(index, fleet.getxValue(index) + OrientationCode.deltaX(orientation),
+                        fleet.getyValue(index) + OrientationCode.deltaY(orientation));
+            } else if (op == InstructionProgram.TURN_LEFT) {
+                fleet.setOrientationCode(index, (byte) OrientationCode.left(orientation));
+            } else if (op == InstructionProgram.TURN_RIGHT) {
+                fleet.setOrientationCode(index, (byte) OrientationCode.right(orientation));
+            } else if (op == RETIRE) {
+                fleet.retire(index);
+            } else {
+                throw new IllegalArgumentException("Invalid journal op at tick " + recordTick + ": " + op);
+            }
+        }
+        return lastTick;
+    }
+
+    private void append(long roverId, byte op) {
+        ensureCapacity(RECORD_SIZE);
+        buffer.putLong(roverId).putLong(++tick).put(op);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            try {
+                commit();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Reads from the channel until at least the given number of bytes can be
+     * consumed from the buffer.
+     * 
+     * @return {@code false} if the channel ends before
+     */
+    private static boolean fill(ByteBuffer buffer, ReadableByteChannel channel, int required) throws IOException {
+        if (buffer.remaining() >= required) {
+            return true;
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < required) {
+                if (channel.read(buffer) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            buffer.flip();
+        }
+    }
+}
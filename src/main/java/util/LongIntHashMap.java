@@ -0,0 +1,179 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from primitive long keys to primitive int values.
+ * Uses linear probing with backward shift deletion, so neither keys nor values
+ * are ever boxed and no tombstones pile up.
+ */
+public class LongIntHashMap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public LongIntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(long key) {
+        return used[indexOf(key)];
+    }
+
+    /**
+     * Returns the value of the given key or {@code missingValue} if the key
+     * isn't present.
+     */
+    public int get(long key, int missingValue) {
+        int slot = indexOf(key);
+        return used[slot] ? values[slot] : missingValue;
+    }
+
+    /**
+     * Associates the value with the given key.
+     *
+     * @return The previous value or {@code missingValue} if the key wasn't
+     *         present
+     */
+    public int put(long key, int value, int missingValue) {
+        int slot = indexOf(key);
+        if (used[slot]) {
+            int previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insertAt(slot, key, value);
+        return missingValue;
+    }
+
+    /**
+     * Adds the delta to the value of the given key. A missing key counts as
+     * zero.
+     *
+     * @return The new value
+     */
+    public int addTo(long key, int delta) {
+        int slot = indexOf(key);
+        if (used[slot]) {
+            return values[slot] += delta;
+        }
+        insertAt(slot, key, delta);
+        return delta;
+    }
+
+    /**
+     * Removes the given key.
+     *
+     * @return The removed value or {@code missingValue} if the key wasn't
+     *         present
+     */
+    public int remove(long key, int missingValue) {
+        int slot = indexOf(key);
+        if (!used[slot]) {
+            return missingValue;
+        }
+        int previous = values[slot];
+        used[slot] = false;
+        size--;
+        shiftBackFrom(slot);
+        return previous;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Returns the slot of the given key or, if the key isn't present, the free
+     * slot where it would be inserted.
+     */
+    private int indexOf(long key) {
+        int slot = hash(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insertAt(int slot, long key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Closes the gap left by a freed slot so that linear probing needs no
+     * tombstones.
+     */
+    private void shiftBackFrom(int freedSlot) {
+        int gap = freedSlot;
+        int slot = (gap + 1) & mask;
+        while (used[slot]) {
+            int home = hash(keys[slot]) & mask;
+            // move the entry into the gap unless its home lies cyclically in (gap, slot]
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                used[gap] = true;
+                used[slot] = false;
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = indexOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * LOAD_FACTOR < expectedSize && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,102 @@
+package app;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import constants.Instruction;
+import engine.InstructionProgram;
+
+/**
+ * Measures parsing of instruction lines and of whole mission files held in
+ * memory, so that no I/O is involved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputParsingBenchmark {
+
+    @Param({ "1000", "100000" })
+    int instructionLength;
+
+    @Param({ "1", "100" })
+    int fleetSize;
+
+    private final InputHandler inputHandler = new InputHandler();
+
+    private String instructionLine;
+    private byte[] missionFile;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42L);
+        StringBuilder line = new StringBuilder(instructionLength);
+        for (int i = 0; i < instructionLength; i++) {
+            line.append("MLR".charAt(random.nextInt(3)));
+        }
+        instructionLine = line.toString();
+
+        StringBuilder mission = new StringBuilder("1000 1000\n");
+        for (int i = 0; i < fleetSize; i++) {
+            mission.append(i).append(" 0 N\n").append(instructionLine).append('\n');
+        }
+        missionFile = mission.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public List<Instruction> extractInstructions() {
+        return inputHandler.extractInstructions(instructionLine);
+    }
+
+    @Benchmark
+    public InstructionProgram compileInstructions() {
+        return InstructionProgram.compile(instructionLine);
+    }
+
+    @Benchmark
+    public int parseMissionFile() throws IOException {
+        CountingListener listener = new CountingListener();
+        new MissionFileParser(new ByteArrayInputStream(missionFile)).parse(listener);
+        return listener.instructionCount;
+    }
+
+    private static class CountingListener implements MissionListener {
+
+        private int instructionCount;
+
+        @Override
+        public void plateau(String plateauLine) {
+        }
+
+        @Override
+        public void rover(String deployLine) {
+        }
+
+        @Override
+        public void instructions(byte[] code, int length) {
+            instructionCount += length;
+        }
+
+        @Override
+        public void roverFinished() {
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package coverage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import constants.Orientation;
+import engine.InstructionEngine;
+import engine.InstructionProgram;
+import model.FleetStore;
+import model.OccupancyIndex;
+import model.Plateau;
+import model.Rover;
+
+/**
+ * Measures the cost of recording the visited cells while a single rover
+ * executes its instructions. The rover drives a zig-zag over a square of
+ * {@code squareSide} cells per side (an even number) and ends up at its
+ * deploy position, so larger squares spread the visits over more tiles of the
+ * coverage map.
+ * <p>
+ * The score is nanoseconds per program; divide by the program length to get
+ * the time per step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoverageBenchmark {
+
+    @Param({ "none", "bitmap", "counting" })
+    String coverage;
+
+    @Param({ "16", "1024" })
+    int squareSide;
+
+    private InstructionEngine engine;
+    private InstructionProgram program;
+    private Rover rover;
+
+    @Setup
+    public void setUp() {
+        FleetStore fleet = new FleetStore(1, new OccupancyIndex());
+        if (!"none".equals(coverage)) {
+            fleet.setCoverage(new CoverageMap("counting".equals(coverage)));
+        }
+        rover = new Rover(fleet, fleet.add(1L, 0, 0, Orientation.N));
+        engine = new InstructionEngine(fleet, new Plateau(squareSide, squareSide));
+
+        // up the odd columns, down the even ones, then back along the bottom row
+        StringBuilder input = new StringBuilder();
+        for (int column = 0; column < squareSide; column++) {
+            for (int step = 1; step < squareSide; step++) {
+                input.append('M');
+            }
+            input.append(column % 2 == 0 ? "RMR" : "LML");
+        }
+        input.setLength(input.length() - 3);
+        input.append('R');
+        for (int step = 1; step < squareSide; step++) {
+            input.append('M');
+        }
+        input.append('R');
+        program = InstructionProgram.compile(input);
+    }
+
+    @Benchmark
+    public Rover executeProgram() throws Exception {
+        engine.execute(rover, program);
+        return rover;
+    }
+}
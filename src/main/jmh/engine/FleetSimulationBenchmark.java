@@ -0,0 +1,93 @@
+package engine;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import constants.Orientation;
+import constants.PlateauSize;
+import model.FleetStore;
+import model.OccupancyIndex;
+
+/**
+ * Measures the {@link TickSimulator} moving a whole fleet at once, including
+ * collision checks between the rovers. The plateau size is derived from the
+ * fleet size and the rover density, i.e. the share of occupied cells.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetSimulationBenchmark {
+
+    @Param({ "1000", "100000" })
+    int fleetSize;
+
+    @Param({ "100" })
+    int instructionLength;
+
+    @Param({ "0.01", "0.2" })
+    double density;
+
+    private final TickSimulator simulator = new TickSimulator();
+
+    private int[] deployValues;
+    private InstructionProgram[] programs;
+    private FleetStore fleet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int plateauSize = (int) Math.ceil(Math.sqrt(fleetSize / density));
+        PlateauSize.setMaxXValue(plateauSize);
+        PlateauSize.setMaxYValue(plateauSize);
+        Random random = new Random(42L);
+        OccupancyIndex deployed = new OccupancyIndex(fleetSize);
+        deployValues = new int[3 * fleetSize];
+        programs = new InstructionProgram[fleetSize];
+        for (int i = 0; i < fleetSize; i++) {
+            int xValue;
+            int yValue;
+            do {
+                xValue = random.nextInt(plateauSize + 1);
+                yValue = random.nextInt(plateauSize + 1);
+            } while (deployed.isOccupied(xValue, yValue));
+            deployed.add(xValue, yValue);
+            deployValues[3 * i] = xValue;
+            deployValues[3 * i + 1] = yValue;
+            deployValues[3 * i + 2] = random.nextInt(4);
+
+            StringBuilder input = new StringBuilder(instructionLength);
+            for (int step = 0; step < instructionLength; step++) {
+                input.append("MMLMR".charAt(random.nextInt(5)));
+            }
+            programs[i] = InstructionProgram.compile(input);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void deployFleet() {
+        fleet = new FleetStore(fleetSize, new OccupancyIndex(fleetSize));
+        for (int i = 0; i < fleetSize; i++) {
+            fleet.add(i, deployValues[3 * i], deployValues[3 * i + 1], Orientation.values()[deployValues[3 * i + 2]]);
+        }
+    }
+
+    @Benchmark
+    public SimulationResult simulateFleet() {
+        return simulator.run(fleet, programs);
+    }
+}
@@ -0,0 +1,101 @@
+package engine;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import constants.Orientation;
+import constants.PlateauSize;
+import model.OccupancyIndex;
+import model.Rover;
+
+/**
+ * Measures how fast a single rover executes its instructions while the other
+ * rovers of the fleet stand still as obstacles. The rover drives in a square
+ * that is kept free of obstacles, so every program runs to its end and leaves
+ * the rover at its deploy position.
+ * <p>
+ * The score is programs per second; multiply by {@code instructionLength} to
+ * get steps per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoverMovementBenchmark {
+
+    private static final int SQUARE_SIDE = 8;
+
+    @Param({ "1000", "100000" })
+    int instructionLength;
+
+    @Param({ "100", "10000" })
+    int plateauSize;
+
+    @Param({ "0", "1000", "100000" })
+    int fleetSize;
+
+    private InstructionEngine engine;
+    private InstructionProgram program;
+    private OptimizedProgram optimizedProgram;
+    private Rover rover;
+
+    @Setup
+    public void setUp() {
+        PlateauSize.setMaxXValue(plateauSize);
+        PlateauSize.setMaxYValue(plateauSize);
+        OccupancyIndex occupancyIndex = new OccupancyIndex(fleetSize);
+        Random random = new Random(42L);
+        for (int i = 0; i < fleetSize; i++) {
+            occupancyIndex.add(random.nextInt(plateauSize + 1), random.nextInt(plateauSize + 1));
+        }
+        for (int x = 0; x <= SQUARE_SIDE; x++) {
+            for (int y = 0; y <= SQUARE_SIDE; y++) {
+                while (occupancyIndex.isOccupied(x, y)) {
+                    occupancyIndex.remove(x, y);
+                }
+            }
+        }
+
+        StringBuilder input = new StringBuilder(instructionLength);
+        while (input.length() < instructionLength) {
+            for (int side = 0; side < 4; side++) {
+                for (int step = 0; step < SQUARE_SIDE; step++) {
+                    input.append('M');
+                }
+                input.append('R');
+            }
+        }
+        input.setLength(instructionLength - instructionLength % (4 * (SQUARE_SIDE + 1)));
+        program = InstructionProgram.compile(input);
+        optimizedProgram = ProgramOptimizer.optimize(program);
+        engine = new InstructionEngine(occupancyIndex);
+        rover = new Rover();
+        rover.setDeployPosition(0, 0, Orientation.N);
+    }
+
+    @Benchmark
+    public Rover executeProgram() throws Exception {
+        engine.execute(rover, program);
+        return rover;
+    }
+
+    @Benchmark
+    public Rover executeOptimizedProgram() throws Exception {
+        engine.execute(rover, optimizedProgram);
+        return rover;
+    }
+}
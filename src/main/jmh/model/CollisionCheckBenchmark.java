@@ -0,0 +1,89 @@
+package model;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures single collision checks against occupancy indices of different
+ * sizes. The plateau size is derived from the fleet size and the rover
+ * density, so that the queried cells hit an occupied cell with the given
+ * probability.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionCheckBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({ "1000", "100000", "1000000" })
+    int fleetSize;
+
+    @Param({ "0.01", "0.5" })
+    double density;
+
+    private OccupancyIndex occupancyIndex;
+    private StripedOccupancyIndex stripedOccupancyIndex;
+    private int[] queryXValues;
+    private int[] queryYValues;
+
+    @Setup
+    public void setUp() {
+        int plateauSize = (int) Math.ceil(Math.sqrt(fleetSize / density));
+        Random random = new Random(42L);
+        occupancyIndex = new OccupancyIndex(fleetSize);
+        stripedOccupancyIndex = new StripedOccupancyIndex();
+        for (int i = 0; i < fleetSize; i++) {
+            int xValue = random.nextInt(plateauSize);
+            int yValue = random.nextInt(plateauSize);
+            occupancyIndex.add(xValue, yValue);
+            stripedOccupancyIndex.add(xValue, yValue);
+        }
+        queryXValues = new int[QUERIES];
+        queryYValues = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryXValues[i] = random.nextInt(plateauSize);
+            queryYValues[i] = random.nextInt(plateauSize);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int isOccupied() {
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            if (occupancyIndex.isOccupied(queryXValues[i], queryYValues[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int isOccupiedStriped() {
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            if (stripedOccupancyIndex.isOccupied(queryXValues[i], queryYValues[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
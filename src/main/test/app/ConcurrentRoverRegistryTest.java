@@ -0,0 +1,146 @@
+package app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import constants.Orientation;
+import constants.PlateauSize;
+import engine.ClaimingInstructionEngine;
+import engine.InstructionProgram;
+import model.Rover;
+import model.exception.PlateauExceededException;
+import model.exception.PositionBlockedException;
+import testenv.TestHelper;
+
+public class ConcurrentRoverRegistryTest extends TestHelper {
+
+    private ConcurrentRoverRegistry underTest = new ConcurrentRoverRegistry();
+
+    @Test
+    public void test_tryMoveRover_into_free_and_occupied_position() {
+        // Given:
+        int xValue = anyXCoordinate();
+        int yValue = anyYCoordinate();
+        Rover rover = deployedRover(xValue, yValue, Orientation.N);
+        Rover anotherRover = deployedRover(xValue + 1, yValue, Orientation.N);
+        underTest.registerRover(1, rover);
+        underTest.registerRover(2, anotherRover);
+
+        // When:
+        boolean movedIntoOccupied = underTest.tryMoveRover(rover, xValue + 1, yValue);
+        boolean movedIntoFree = underTest.tryMoveRover(rover, xValue, yValue + 1);
+
+        // Then:
+        assertThat(movedIntoOccupied).isFalse();
+        assertThat(movedIntoFree).isTrue();
+        assertThat(rover.getyValue()).isEqualTo(yValue + 1);
+        assertThat(underTest.isPositionOccupied(xValue, yValue)).isFalse();
+        assertThat(underTest.isPositionOccupied(xValue, yValue + 1)).isTrue();
+    }
+
+    @Test
+    public void test_registerRover_on_occupied_position() {
+        // Given:
+        int xValue = anyXCoordinate();
+        int yValue = anyYCoordinate();
+        underTest.registerRover(1, deployedRover(xValue, yValue, Orientation.N));
+
+        // When:
+        boolean registeredOnOccupied = underTest.registerRover(2, deployedRover(xValue, yValue, Orientation.N));
+        boolean replacedOnSameCell = underTest.registerRover(1, deployedRover(xValue, yValue, Orientation.N));
+
+        // Then:
+        assertThat(registeredOnOccupied).isFalse();
+        assertThat(replacedOnSameCell).isTrue();
+        assertThat(underTest.getDeployedRovers()).hasSize(1);
+        assertThat(underTest.isPositionOccupied(xValue, yValue)).isTrue();
+    }
+
+    @Test
+    public void test_concurrent_registrations_never_share_a_cell() throws Exception {
+        // Given:
+        PlateauSize.setMaxXValue(9);
+        PlateauSize.setMaxYValue(9);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When: four threads register rovers onto the same 100 cells
+        List<Future<Integer>> futures = Lists.newArrayList();
+        for (int thread = 0; thread < 4; thread++) {
+            long firstId = thread * 100;
+            futures.add(executor.submit(() -> {
+                int registered = 0;
+                for (int i = 0; i < 100; i++) {
+                    if (underTest.registerRover(firstId + i, deployedRover(i % 10, i / 10, Orientation.N))) {
+                        registered++;
+                    }
+                }
+                return registered;
+            }));
+        }
+        int registered = 0;
+        for (Future<Integer> future : futures) {
+            registered += future.get();
+        }
+        executor.shutdown();
+
+        // Then:
+        assertThat(registered).isEqualTo(100);
+        assertThat(underTest.getDeployedRovers()).hasSize(100);
+        assertThat(underTest.getOccupancyIndex().size()).isEqualTo(100);
+    }
+
+    @Test
+    public void test_concurrent_moves_never_share_a_cell() throws Exception {
+        // Given: a crowded plateau
+        PlateauSize.setMaxXValue(5);
+        PlateauSize.setMaxYValue(5);
+        List<Rover> rovers = Lists.newArrayList();
+        for (int i = 0; i < 16; i++) {
+            Rover rover = deployedRover(i % 6, i / 6, Orientation.N);
+            underTest.registerRover(i, rover);
+            rovers.add(rover);
+        }
+        ClaimingInstructionEngine engine = new ClaimingInstructionEngine(underTest);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When: each thread moves its own four rovers around
+        List<Future<?>> futures = Lists.newArrayList();
+        for (int thread = 0; thread < 4; thread++) {
+            List<Rover> ownRovers = rovers.subList(thread * 4, thread * 4 + 4);
+            futures.add(executor.submit(() -> {
+                Random random = new Random();
+                for (int i = 0; i < 20000; i++) {
+                    Rover rover = ownRovers.get(random.nextInt(ownRovers.size()));
+                    try {
+                        engine.execute(rover, InstructionProgram.compile(random.nextBoolean() ? "M" : "RM"));
+                    } catch (PlateauExceededException | PositionBlockedException ex) {
+                        // expected on a crowded plateau
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then:
+        Set<String> positions = Sets.newHashSet();
+        for (Rover rover : rovers) {
+            assertThat(positions.add(rover.getxValue() + " " + rover.getyValue())).isTrue();
+            assertThat(underTest.isPositionOccupied(rover.getxValue(), rover.getyValue())).isTrue();
+        }
+    }
+}
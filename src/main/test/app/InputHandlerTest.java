@@ -3,18 +3,30 @@ package app;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import constants.Instruction;
 import constants.Orientation;
 import constants.PlateauSize;
 import model.Rover;
+import model.World;
+import output.TextResultSink;
 import testenv.TestHelper;
 
 public class InputHandlerTest extends TestHelper {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private InputHandler underTest = new InputHandler();
 
     //
@@ -328,4 +340,28 @@ public class InputHandlerTest extends TestHelper {
         fail("Exception expected!");
     }
 
+    //
+    // PARALLEL BATCH MODE
+    //
+    @Test
+    public void test_processMissionFileInParallel_executes_rovers_in_lock_step() throws IOException {
+        // Given: executed one after the other, the second rover would block the first one at (2 0)
+        File missionFile = temporaryFolder.newFile();
+        Files.write(missionFile.toPath(), "5 5\n0 0 E\nMM\n2 0 N\nM\n3 3 N\nMMM\n".getBytes(StandardCharsets.US_ASCII));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ByteArrayOutputStream error = new ByteArrayOutputStream();
+        World world = new World();
+        InputHandler parallelHandler = new InputHandler(world, new TextResultSink(output, error));
+
+        // When:
+        parallelHandler.processMissionFileInParallel(missionFile.toPath());
+
+        // Then: results are written in the order of the rovers in the file
+        String separator = System.lineSeparator();
+        assertThat(new String(output.toByteArray(), StandardCharsets.US_ASCII))
+                .isEqualTo("2 0 E" + separator + "2 1 N" + separator);
+        assertThat(new String(error.toByteArray(), StandardCharsets.US_ASCII))
+                .contains("Current Position: 3 5 N").contains("Y-value 6 exceeds the plateau");
+        assertThat(world.getDeployedRovers()).hasSize(3);
+    }
 }
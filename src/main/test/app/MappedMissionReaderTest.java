@@ -0,0 +1,112 @@
+package app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+
+import testenv.TestHelper;
+
+public class MappedMissionReaderTest extends TestHelper {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void test_read_sample_mission() throws IOException {
+        // Given:
+        File missionFile = missionFile("5 5\n1 2 N\nLMLMLMLMM\n3 3 E\nMMRMMRMRRM\n");
+
+        // When:
+        List<String> events = read(missionFile, 1 << 20);
+
+        // Then:
+        assertThat(events).containsExactly("plateau 5 5", "rover 1 2 N", "LMLMLMLMM", "finished", "rover 3 3 E",
+                "MMRMMRMRRM", "finished");
+    }
+
+    @Test
+    public void test_read_with_lines_crossing_window_borders() throws IOException {
+        // Given:
+        File missionFile = missionFile("5 5\r\n\r\n1 2 n\r\nlm mLLLRRRMMMM\r\n3 3 E\r\n\r\n12 12 W\nR");
+
+        // When: windows are smaller than most lines
+        List<String> events = read(missionFile, 8);
+
+        // Then:
+        assertThat(events).containsExactly("plateau 5 5", "rover 1 2 n", "LMMLLLRRRMMMM", "finished", "rover 3 3 E",
+                "finished", "rover 12 12 W", "R", "finished");
+    }
+
+    @Test
+    public void test_read_with_rover_line_longer_than_window() throws IOException {
+        // Given:
+        File missionFile = missionFile("5 5\n1          2          N\nM\n");
+
+        // When:
+        try {
+            read(missionFile, 8);
+        } catch (IllegalArgumentException ex) {
+            // Then:
+            assertThat(ex.getMessage()).contains("too long");
+            return;
+        }
+
+        fail("Exception expected!");
+    }
+
+    @Test
+    public void test_read_empty_file() throws IOException {
+        // Given:
+        File missionFile = missionFile("");
+
+        // When:
+        try {
+            read(missionFile, 8);
+        } catch (IllegalArgumentException ex) {
+            // Then:
+            assertThat(ex.getMessage()).contains("Invalid plateau size");
+            return;
+        }
+
+        fail("Exception expected!");
+    }
+
+    private File missionFile(String content) throws IOException {
+        File missionFile = temporaryFolder.newFile();
+        Files.write(missionFile.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+        return missionFile;
+    }
+
+    /**
+     * Reads the file and merges consecutive instruction events, which depend
+     * on the window size.
+     */
+    private static List<String> read(File missionFile, long windowSize) throws IOException {
+        RecordingMissionListener listener = new RecordingMissionListener();
+        new MappedMissionReader(windowSize).read(missionFile.toPath(), listener);
+
+        List<String> events = Lists.newArrayList();
+        boolean previousWasInstructions = false;
+        for (String event : listener.events) {
+            boolean isInstructions = event.matches("[MLR]+");
+            if (isInstructions && previousWasInstructions) {
+                events.set(events.size() - 1, events.get(events.size() - 1) + event);
+            } else {
+                events.add(event);
+            }
+            previousWasInstructions = isInstructions;
+        }
+        return events;
+    }
+}
@@ -0,0 +1,74 @@
+package app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import constants.PlateauSize;
+import model.Rover;
+import model.World;
+import output.TextResultSink;
+import testenv.TestHelper;
+
+public class MissionBatchRunnerTest extends TestHelper {
+
+    @Test
+    public void test_submit_runs_missions_in_separate_worlds() throws Exception {
+        // Given: missions with different plateaus and rovers on the same cells
+        PlateauSize.setMaxXValue(1);
+        PlateauSize.setMaxYValue(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        MissionBatchRunner underTest = new MissionBatchRunner(executor);
+        int missionCount = 16;
+        List<ByteArrayOutputStream> outputs = Lists.newArrayList();
+        List<ByteArrayOutputStream> errors = Lists.newArrayList();
+        List<CompletableFuture<World>> worlds = Lists.newArrayList();
+
+        // When:
+        try {
+            for (int size = 1; size <= missionCount; size++) {
+                String mission = size + " " + size + "\n0 0 N\nMMMMMMMMRM\n1 0 N\nLM\n";
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                ByteArrayOutputStream error = new ByteArrayOutputStream();
+                outputs.add(output);
+                errors.add(error);
+                worlds.add(underTest.submit(new ByteArrayInputStream(mission.getBytes(StandardCharsets.US_ASCII)),
+                        new TextResultSink(output, error)));
+            }
+            CompletableFuture.allOf(worlds.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then:
+        for (int size = 1; size <= missionCount; size++) {
+            World world = worlds.get(size - 1).join();
+            String output = new String(outputs.get(size - 1).toByteArray(), StandardCharsets.US_ASCII);
+            String error = new String(errors.get(size - 1).toByteArray(), StandardCharsets.US_ASCII);
+            assertThat(world.getPlateau().getMaxYValue()).isEqualTo(size);
+            assertThat(world.getDeployedRovers()).hasSize(2);
+            if (size < 8) {
+                assertThat(error).contains("Current Position: 0 " + size + " N\n");
+                assertThat(output).isEqualTo("0 0 W\n");
+            } else {
+                assertThat(error).isEmpty();
+                assertThat(output).isEqualTo("1 8 E\n0 0 W\n");
+            }
+            for (Rover rover : world.getDeployedRovers()) {
+                assertThat(rover.getWorld()).isSameAs(world);
+            }
+        }
+        assertThat(PlateauSize.maxXValue).isEqualTo(1);
+        assertThat(PlateauSize.maxYValue).isEqualTo(1);
+    }
+}
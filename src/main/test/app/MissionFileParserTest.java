@@ -0,0 +1,104 @@
+package app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import testenv.TestHelper;
+
+public class MissionFileParserTest extends TestHelper {
+
+    private RecordingMissionListener listener = new RecordingMissionListener();
+
+    @Test
+    public void test_parse_sample_mission() throws IOException {
+        // Given:
+        String mission = "5 5\n1 2 N\nLMLMLMLMM\n3 3 E\nMMRMMRMRRM\n";
+
+        // When:
+        parserFor(mission, 1024).parse(listener);
+
+        // Then:
+        assertThat(listener.events).containsExactly("plateau 5 5", "rover 1 2 N", "LMLMLMLMM", "finished",
+                "rover 3 3 E", "MMRMMRMRRM", "finished");
+    }
+
+    @Test
+    public void test_parse_with_windows_line_breaks_lower_case_and_missing_last_line_break() throws IOException {
+        // Given:
+        String mission = "5 5\r\n\r\n1 2 n\r\nlm m\r\n3 3 E\r\nR";
+
+        // When:
+        parserFor(mission, 1024).parse(listener);
+
+        // Then:
+        assertThat(listener.events).containsExactly("plateau 5 5", "rover 1 2 n", "LMM", "finished", "rover 3 3 E",
+                "R", "finished");
+    }
+
+    @Test
+    public void test_parse_splits_long_instruction_lines_into_chunks() throws IOException {
+        // Given:
+        String mission = "5 5\n1 2 N\nMMMMMMMLR\n";
+
+        // When:
+        parserFor(mission, 4).parse(listener);
+
+        // Then:
+        assertThat(listener.events).containsExactly("plateau 5 5", "rover 1 2 N", "MMMM", "MMML", "R", "finished");
+    }
+
+    @Test
+    public void test_parse_rover_without_instructions() throws IOException {
+        // Given:
+        String mission = "5 5\n1 2 N\n\n3 3 E";
+
+        // When:
+        parserFor(mission, 1024).parse(listener);
+
+        // Then:
+        assertThat(listener.events).containsExactly("plateau 5 5", "rover 1 2 N", "finished", "rover 3 3 E",
+                "finished");
+    }
+
+    @Test
+    public void test_parse_with_invalid_instruction() throws IOException {
+        // Given:
+        String mission = "5 5\n1 2 N\nLRZ\n";
+
+        // When:
+        try {
+            parserFor(mission, 1024).parse(listener);
+        } catch (IllegalArgumentException ex) {
+            // Then:
+            assertThat(ex.getMessage()).contains("Invalid instructions given in line 3");
+            return;
+        }
+
+        fail("Exception expected!");
+    }
+
+    @Test
+    public void test_parse_empty_input() throws IOException {
+        // When:
+        try {
+            parserFor("", 1024).parse(listener);
+        } catch (IllegalArgumentException ex) {
+            // Then:
+            assertThat(ex.getMessage()).contains("Invalid plateau size");
+            return;
+        }
+
+        fail("Exception expected!");
+    }
+
+    private static MissionFileParser parserFor(String mission, int chunkSize) {
+        return new MissionFileParser(new ByteArrayInputStream(mission.getBytes(StandardCharsets.US_ASCII)),
+                chunkSize);
+    }
+}
@@ -0,0 +1,135 @@
+package app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import testenv.TestHelper;
+
+public class MissionServerTest extends TestHelper {
+
+    private ExecutorService executor = Executors.newFixedThreadPool(2);
+    private MissionServer underTest;
+
+    @Before
+    public void startServer() throws Exception {
+        underTest = new MissionServer(0, executor, 2);
+        underTest.start();
+    }
+
+    @After
+    public void stopServer() throws Exception {
+        underTest.close();
+        executor.shutdown();
+    }
+
+    @Test
+    public void test_server_answers_missions_in_order() throws Exception {
+        // Given: several missions on one connection, the last one without
+        // terminating line
+        StringBuilder missions = new StringBuilder();
+        for (int i = 1; i <= 5; i++) {
+            missions.append("5 5\n1 2 N\nLMLMLMLMM\n3 3 E\nMMRMMRMRRM\n.\n");
+            missions.append(i).append(" ").append(i).append("\n0 0 N\n").append("MMMMM\n.\n");
+        }
+        missions.append("5 5\r\n2 2 S\r\nM");
+
+        // When:
+        List<String> response = send(missions.toString());
+
+        // Then:
+        List<String> expected = Lists.newArrayList();
+        for (int i = 1; i <= 5; i++) {
+            expected.add("1 3 N");
+            expected.add("5 1 E");
+            expected.add(MissionServer.END_OF_MISSION);
+            expected.add(i == 5 ? "0 5 N" : "Error occured while executing instruction M");
+            if (i < 5) {
+                expected.add("Current Position: 0 " + i + " N");
+                expected.add("model.exception.PlateauExceededException: Y-value " + (i + 1)
+                        + " exceeds the plateau. Movement abborted!");
+            }
+            expected.add(MissionServer.END_OF_MISSION);
+        }
+        expected.add("2 1 S");
+        expected.add(MissionServer.END_OF_MISSION);
+        assertThat(response).isEqualTo(expected);
+    }
+
+    @Test
+    public void test_server_reports_invalid_mission_and_continues() throws Exception {
+        // Given:
+        String missions = "5 5\n1 2 X\nM\n.\n3 3\n1 1 E\nM\n.\n";
+
+        // When:
+        List<String> response = send(missions);
+
+        // Then:
+        assertThat(response).hasSize(4);
+        assertThat(response.get(0)).startsWith("Invalid mission: ");
+        assertThat(response.subList(1, 4)).containsExactly(MissionServer.END_OF_MISSION, "2 1 E",
+                MissionServer.END_OF_MISSION);
+    }
+
+    @Test
+    public void test_server_survives_client_that_leaves_before_its_answer() throws Exception {
+        // Given: a mission that is only executed after its client reset the connection
+        CountDownLatch dispatched = new CountDownLatch(1);
+        CountDownLatch reset = new CountDownLatch(1);
+        underTest.close();
+        underTest = new MissionServer(0, task -> {
+            dispatched.countDown();
+            executor.execute(() -> {
+                Uninterruptibles.awaitUninterruptibly(reset);
+                task.run();
+            });
+        }, 2);
+        underTest.start();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), underTest.getPort())) {
+            socket.setSoLinger(true, 0);
+            socket.getOutputStream().write("5 5\n1 2 N\nM\n.\n".getBytes(StandardCharsets.US_ASCII));
+            assertThat(dispatched.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+        reset.countDown();
+
+        // When:
+        List<String> response = send("5 5\n3 3 E\nM\n.\n");
+
+        // Then:
+        assertThat(response).containsExactly("4 3 E", MissionServer.END_OF_MISSION);
+    }
+
+    private List<String> send(String missions) throws Exception {
+        List<String> lines = Lists.newArrayList();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), underTest.getPort())) {
+            OutputStream output = socket.getOutputStream();
+            output.write(missions.getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+            socket.shutdownOutput();
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
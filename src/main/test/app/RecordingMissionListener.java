@@ -0,0 +1,38 @@
+package app;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import constants.Instruction;
+
+/**
+ * Records everything a mission reader reports as readable events.
+ */
+class RecordingMissionListener implements MissionListener {
+    final List<String> events = Lists.newArrayList();
+
+    @Override
+    public void plateau(String plateauLine) {
+        events.add("plateau " + plateauLine);
+    }
+
+    @Override
+    public void rover(String deployLine) {
+        events.add("rover " + deployLine);
+    }
+
+    @Override
+    public void instructions(byte[] code, int length) {
+        StringBuilder instructions = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            instructions.append(Instruction.values()[code[i]]);
+        }
+        events.add(instructions.toString());
+    }
+
+    @Override
+    public void roverFinished() {
+        events.add("finished");
+    }
+}
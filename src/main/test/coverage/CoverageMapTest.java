@@ -0,0 +1,156 @@
+package coverage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import constants.Orientation;
+import engine.InstructionEngine;
+import engine.InstructionProgram;
+import engine.ProgramSummary;
+import model.FleetStore;
+import model.OccupancyIndex;
+import model.Plateau;
+import model.Rover;
+import testenv.TestHelper;
+
+public class CoverageMapTest extends TestHelper {
+
+    private CoverageMap underTest = new CoverageMap(true);
+
+    @Test
+    public void test_engine_records_every_visited_cell() throws Exception {
+        // Given:
+        FleetStore fleet = new FleetStore(4, new OccupancyIndex());
+        fleet.setCoverage(underTest);
+        Rover rover = new Rover(fleet, fleet.add(1L, 1, 1, Orientation.N));
+        InstructionEngine engine = new InstructionEngine(fleet, new Plateau(9, 9));
+
+        // When:
+        engine.execute(rover, ProgramSummary.summarize(InstructionProgram.compile("MMRMMRMMRMM")));
+
+        // Then: the rover drove a square and is back on its deploy cell
+        assertThat(underTest.getVisitedCount()).isEqualTo(8);
+        assertThat(underTest.getVisits(1, 1)).isEqualTo(1);
+        assertThat(underTest.getVisits(2, 3)).isEqualTo(1);
+        assertThat(underTest.isVisited(2, 2)).isFalse();
+        assertThat(underTest.bounds()).containsExactly(1, 1, 3, 3);
+    }
+
+    @Test
+    public void test_merge_adds_visits() {
+        // Given:
+        underTest.visited(5, 5);
+        CoverageMap other = new CoverageMap(true);
+        other.visited(5, 5);
+        other.visited(-70, 5);
+        CoverageMap bitmap = new CoverageMap();
+        bitmap.visited(5, 5);
+
+        // When:
+        underTest.merge(other);
+        underTest.merge(bitmap);
+
+        // Then:
+        assertThat(underTest.getVisitedCount()).isEqualTo(2);
+        assertThat(underTest.getVisits(5, 5)).isEqualTo(3);
+        assertThat(underTest.getVisits(-70, 5)).isEqualTo(1);
+    }
+
+    @Test
+    public void test_compressed_round_trip() throws Exception {
+        // Given:
+        underTest.visited(0, 0);
+        underTest.visited(0, 0);
+        underTest.visited(Integer.MAX_VALUE, Integer.MIN_VALUE);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When:
+        underTest.writeCompressed(output);
+        CoverageMap restored = CoverageMap.readCompressed(new ByteArrayInputStream(output.toByteArray()));
+
+        // Then:
+        assertThat(restored.isCounting()).isTrue();
+        assertThat(restored.getVisitedCount()).isEqualTo(2);
+        assertThat(restored.getVisits(0, 0)).isEqualTo(2);
+        assertThat(restored.getVisits(Integer.MAX_VALUE, Integer.MIN_VALUE)).isEqualTo(1);
+    }
+
+    @Test
+    public void test_writeCompressed_stops_at_first_failed_write() {
+        // Given: enough tiles to fill the stream buffers several times
+        Random random = new Random();
+        for (int i = 0; i < 5000; i++) {
+            underTest.visited(random.nextInt(1 << 20), random.nextInt(1 << 20));
+        }
+        int[] failedWrites = new int[1];
+        OutputStream failingOutput = new OutputStream() {
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                // accept the GZIP header only
+                if (len > 10) {
+                    failedWrites[0]++;
+                    throw new IOException("disk full");
+                }
+            }
+        };
+
+        // When:
+        try {
+            underTest.writeCompressed(failingOutput);
+        } catch (IOException ex) {
+            // Then:
+            assertThat(ex.getMessage()).isEqualTo("disk full");
+            assertThat(failedWrites[0]).isEqualTo(1);
+            return;
+        }
+
+        fail("Exception expected!");
+    }
+
+    @Test
+    public void test_writePgm_scales_visits() throws Exception {
+        // Given:
+        underTest.visited(0, 1);
+        underTest.visited(0, 1);
+        underTest.visited(1, 0);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When:
+        underTest.writePgm(output);
+
+        // Then: north at the top
+        byte[] image = output.toByteArray();
+        String header = "P5\n2 2\n255\n";
+        assertThat(new String(image, 0, header.length(), StandardCharsets.US_ASCII)).isEqualTo(header);
+        assertThat(Arrays.copyOfRange(image, header.length(), image.length))
+                .containsExactly((byte) 255, 0, 0, 127);
+    }
+
+    @Test
+    public void test_writePgm_too_large() throws Exception {
+        try {
+            // When:
+            underTest.writePgm(new ByteArrayOutputStream(), 0, 0, Integer.MAX_VALUE, 1);
+            fail("Exception expected!");
+        } catch (IllegalArgumentException ex) {
+            // Then:
+            assertThat(ex.getMessage()).contains("too large");
+        }
+    }
+}
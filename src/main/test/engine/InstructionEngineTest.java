@@ -0,0 +1,427 @@
+package engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+import constants.Orientation;
+import constants.PlateauSize;
+import model.FleetStore;
+import model.OccupancyIndex;
+import model.Plateau;
+import model.Rover;
+import model.TerrainMap;
+import model.exception.PlateauExceededException;
+import model.exception.PositionBlockedException;
+import testenv.TestHelper;
+
+public class InstructionEngineTest extends TestHelper {
+
+    private OccupancyIndex occupancyIndex = new OccupancyIndex();
+    private InstructionEngine underTest = new InstructionEngine(occupancyIndex);
+
+    //
+    // COMPILE
+    //
+    @Test
+    public void test_compile_ignores_case_and_whitespace() {
+        // When:
+        InstructionProgram program = InstructionProgram.compile(" Ml r\tM ");
+
+        // Then:
+        assertThat(program.length()).isEqualTo(4);
+        assertThat(program.instructionAt(0).toString()).isEqualTo("M");
+        assertThat(program.instructionAt(1).toString()).isEqualTo("L");
+        assertThat(program.instructionAt(2).toString()).isEqualTo("R");
+        assertThat(program.instructionAt(3).toString()).isEqualTo("M");
+    }
+
+    @Test
+    public void test_compile_with_invalid_instruction() {
+        // When:
+        try {
+            InstructionProgram.compile("LRZ");
+        } catch (IllegalArgumentException ex) {
+            // Then:
+            assertThat(ex.getMessage()).contains("Invalid instructions given");
+            return;
+        }
+
+        fail("Exception expected!");
+    }
+
+    //
+    // EXECUTE
+    //
+    @Test
+    public void test_execute_sample_missions() throws Exception {
+        // Given:
+        PlateauSize.setMaxXValue(5);
+        PlateauSize.setMaxYValue(5);
+        Rover rover1 = deployedRover(1, 2, Orientation.N);
+        Rover rover2 = deployedRover(3, 3, Orientation.E);
+
+        // When:
+        underTest.execute(rover1, InstructionProgram.compile("LMLMLMLMM"));
+        underTest.execute(rover2, InstructionProgram.compile("MMRMMRMRRM"));
+
+        // Then:
+        assertThat(positionOf(rover1)).isEqualTo("1 3 N");
+        assertThat(positionOf(rover2)).isEqualTo("5 1 E");
+    }
+
+    @Test
+    public void test_execute_raw_text_range() throws Exception {
+        // Given:
+        PlateauSize.setMaxXValue(5);
+        PlateauSize.setMaxYValue(5);
+        Rover rover = deployedRover(1, 2, Orientation.N);
+        ByteBuffer text = ByteBuffer.wrap("1 2 N\nLmLmLmLmM\r\n".getBytes(StandardCharsets.US_ASCII));
+
+        // When:
+        underTest.execute(rover, text, 6, 17);
+
+        // Then:
+        assertThat(positionOf(rover)).isEqualTo("1 3 N");
+    }
+
+    @Test
+    public void test_execute_stops_before_plateau_edge() throws Exception {
+        // Given:
+        PlateauSize.setMaxXValue(3);
+        PlateauSize.setMaxYValue(3);
+        Rover rover = deployedRover(1, 1, Orientation.W);
+
+        // When:
+        try {
+            underTest.execute(rover, InstructionProgram.compile("MMRR"));
+        } catch (PlateauExceededException ex) {
+            // Then:
+            assertThat(ex.getMessage()).isEqualTo("X-value -1 exceeds the plateau. Movement abborted!");
+            assertThat(positionOf(rover)).isEqualTo("0 1 W");
+            return;
+        }
+
+        fail("Exception expected!");
+    }
+
+    @Test
+    public void test_execute_stops_before_blocked_position() throws Exception {
+        // Given:
+        PlateauSize.setMaxXValue(9);
+        PlateauSize.setMaxYValue(9);
+        occupancyIndex.add(4, 6);
+        Rover rover = deployedRover(4, 2, Orientation.N);
+
+        // When:
+        try {
+            underTest.execute(rover, InstructionProgram.compile("MMMM"));
+        } catch (PositionBlockedException ex) {
+            // Then:
+            assertThat(ex.getMessage()).contains("(4 6) is blocked by another rover");
+            assertThat(positionOf(rover)).isEqualTo("4 5 N");
+            return;
+        }
+
+        fail("Exception expected!");
+    }
+
+    @Test
+    public void test_execute_keeps_occupancy_of_indexed_rover_in_sync() throws Exception {
+        // Given:
+        PlateauSize.setMaxXValue(9);
+        PlateauSize.setMaxYValue(9);
+        FleetStore fleet = new FleetStore(4, occupancyIndex);
+        Rover rover = new Rover(fleet, fleet.add(1L, 2, 2, Orientation.E));
+
+        // When: returns to its own start cell and moves on
+        underTest.execute(rover, InstructionProgram.compile("MLMLMLMM"));
+
+        // Then:
+        assertThat(positionOf(rover)).isEqualTo("2 1 S");
+        assertThat(occupancyIndex.isOccupied(2, 1)).isTrue();
+        assertThat(occupancyIndex.isOccupied(2, 2)).isFalse();
+        assertThat(occupancyIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void test_execute_with_result_reports_blocking_rover() {
+        // Given:
+        PlateauSize.setMaxXValue(9);
+        PlateauSize.setMaxYValue(9);
+        FleetStore fleet = new FleetStore(4, occupancyIndex);
+        fleet.add(7L, 4, 6, Orientation.S);
+        Rover rover = new Rover(fleet, fleet.add(1L, 4, 2, Orientation.N));
+        ExecutionResult result = new ExecutionResult();
+
+        // When:
+        boolean succeeded = new InstructionEngine(fleet).execute(rover, InstructionProgram.compile("LRMMMM"), result);
+
+        // Then:
+        assertThat(succeeded).isFalse();
+        assertThat(result.getStatus()).isEqualTo(ExecutionResult.POSITION_BLOCKED);
+        assertThat(result.getFailedStep()).isEqualTo(5);
+        assertThat(result.getFailedXValue()).isEqualTo(4);
+        assertThat(result.getFailedYValue()).isEqualTo(6);
+        assertThat(result.getBlockingRoverId()).isEqualTo(7L);
+        assertThat(result.getFailure().getMessage()).contains("(4 6) is blocked by another rover");
+        assertThat(positionOf(rover)).isEqualTo("4 5 N");
+    }
+
+    @Test
+    public void test_execute_with_result_reports_obstacle() {
+        // Given:
+        PlateauSize.setMaxXValue(9);
+        PlateauSize.setMaxYValue(9);
+        Plateau.global().getTerrain().block(6, 3);
+        Rover rover = deployedRover(2, 3, Orientation.E);
+        ExecutionResult result = new ExecutionResult();
+
+        // When:
+        boolean succeeded = underTest.execute(rover, InstructionProgram.compile("MMMM"), result);
+
+        // Then:
+        assertThat(succeeded).isFalse();
+        assertThat(result.getStatus()).isEqualTo(ExecutionResult.OBSTACLE_HIT);
+        assertThat(result.getFailedStep()).isEqualTo(3);
+        assertThat(result.getBlockingRoverId()).isEqualTo(ExecutionResult.UNKNOWN_ROVER);
+        assertThat(result.getFailure().getMessage()).contains("(6 3) is blocked by an obstacle");
+        assertThat(positionOf(rover)).isEqualTo("5 3 E");
+    }
+
+    @Test
+    public void test_execute_with_result_is_reset_by_next_run() {
+        // Given:
+        PlateauSize.setMaxXValue(3);
+        PlateauSize.setMaxYValue(3);
+        Rover rover = deployedRover(0, 3, Orientation.N);
+        ExecutionResult result = new ExecutionResult();
+        underTest.execute(rover, InstructionProgram.compile("M"), result);
+        assertThat(result.getStatus()).isEqualTo(ExecutionResult.Y_VALUE_EXCEEDED);
+
+        // When:
+        boolean succeeded = underTest.execute(rover, InstructionProgram.compile("RM"), result);
+
+        // Then:
+        assertThat(succeeded).isTrue();
+        assertThat(result.isSucceeded()).isTrue();
+        assertThat(result.getFailure()).isNull();
+        assertThat(result.getBlockingRoverId()).isEqualTo(ExecutionResult.UNKNOWN_ROVER);
+    }
+
+    @Test
+    public void test_execute_with_result_counts_steps_across_chunks() {
+        // Given:
+        PlateauSize.setMaxXValue(5);
+        PlateauSize.setMaxYValue(5);
+        Rover rover = deployedRover(1, 2, Orientation.N);
+        ByteBuffer text = ByteBuffer.wrap("LMLM LMLM".getBytes(StandardCharsets.US_ASCII));
+        ExecutionResult result = new ExecutionResult();
+
+        // When:
+        underTest.execute(rover, text, 0, text.limit(), result);
+        underTest.execute(rover, InstructionProgram.compile("MMMM"), result);
+
+        // Then:
+        assertThat(result.getStatus()).isEqualTo(ExecutionResult.Y_VALUE_EXCEEDED);
+        assertThat(result.getFailedStep()).isEqualTo(11L);
+        assertThat(result.getFailedYValue()).isEqualTo(6);
+        assertThat(positionOf(rover)).isEqualTo("1 5 N");
+    }
+
+    @Test
+    public void test_execute_matches_reference_simulation() {
+        Random random = new Random();
+        for (int run = 0; run < 200; run++) {
+            // Given:
+            int maxXValue = 1 + random.nextInt(10);
+            int maxYValue = 1 + random.nextInt(10);
+            PlateauSize.setMaxXValue(maxXValue);
+            PlateauSize.setMaxYValue(maxYValue);
+            occupancyIndex.clear();
+            boolean[][] blocked = new boolean[maxXValue + 1][maxYValue + 1];
+            for (int i = 0; i < 5; i++) {
+                int xValue = random.nextInt(maxXValue + 1);
+                int yValue = random.nextInt(maxYValue + 1);
+                blocked[xValue][yValue] = true;
+                occupancyIndex.add(xValue, yValue);
+            }
+            int xValue = random.nextInt(maxXValue + 1);
+            int yValue = random.nextInt(maxYValue + 1);
+            int orientation = random.nextInt(4);
+            StringBuilder input = new StringBuilder();
+            for (int i = 0; i < 30; i++) {
+                input.append("MMLR".charAt(random.nextInt(4)));
+            }
+            Rover rover = deployedRover(xValue, yValue, Orientation.values()[orientation]);
+
+            // reference: step by step
+            String expectedError = null;
+            for (int i = 0; i < input.length() && expectedError == null; i++) {
+                char instruction = input.charAt(i);
+                if (instruction == 'L') {
+                    orientation = (orientation + 3) % 4;
+                } else if (instruction == 'R') {
+                    orientation = (orientation + 1) % 4;
+                } else {
+                    int newXValue = xValue + new int[] { 0, 1, 0, -1 }[orientation];
+                    int newYValue = yValue + new int[] { 1, 0, -1, 0 }[orientation];
+                    if (newXValue < 0 || newXValue > maxXValue || newYValue < 0 || newYValue > maxYValue) {
+                        expectedError = "exceeds the plateau";
+                    } else if (blocked[newXValue][newYValue]) {
+                        expectedError = "is blocked by another rover";
+                    } else {
+                        xValue = newXValue;
+                        yValue = newYValue;
+                    }
+                }
+            }
+
+            // When:
+            String actualError = null;
+            try {
+                underTest.execute(rover, InstructionProgram.compile(input));
+            } catch (PlateauExceededException | PositionBlockedException ex) {
+                actualError = ex.getMessage();
+            }
+
+            // Then:
+            if (expectedError == null) {
+                assertThat(actualError).isNull();
+            } else {
+                assertThat(actualError).contains(expectedError);
+            }
+            assertThat(rover.getxValue()).isEqualTo(xValue);
+            assertThat(rover.getyValue()).isEqualTo(yValue);
+            assertThat(rover.getOrientation()).isEqualTo(Orientation.values()[orientation]);
+        }
+    }
+
+    //
+    // OPTIMIZE
+    //
+    @Test
+    public void test_optimize_folds_turns_and_collapses_moves() {
+        // When:
+        OptimizedProgram program = ProgramOptimizer.optimize(InstructionProgram.compile("LLLLMMMRLLLLMMLLL"));
+
+        // Then: MMM, R + MM, R
+        assertThat(program.segmentCount()).isEqualTo(3);
+        assertThat(program.sourceLength()).isEqualTo(17);
+    }
+
+    @Test
+    public void test_optimize_drops_neutral_turns() {
+        // When:
+        OptimizedProgram program = ProgramOptimizer.optimize(InstructionProgram.compile("RLLRLLRR"));
+
+        // Then:
+        assertThat(program.segmentCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void test_execute_optimized_stops_at_same_step_as_plain_program() {
+        Random random = new Random();
+        for (int run = 0; run < 500; run++) {
+            // Given:
+            PlateauSize.setMaxXValue(1 + random.nextInt(12));
+            PlateauSize.setMaxYValue(1 + random.nextInt(12));
+            occupancyIndex.clear();
+            for (int i = random.nextInt(6); i > 0; i--) {
+                occupancyIndex.add(random.nextInt(PlateauSize.maxXValue + 1),
+                        random.nextInt(PlateauSize.maxYValue + 1));
+            }
+            TerrainMap terrain = Plateau.global().getTerrain();
+            terrain.clear();
+            for (int i = random.nextInt(6); i > 0; i--) {
+                terrain.block(random.nextInt(PlateauSize.maxXValue + 1), random.nextInt(PlateauSize.maxYValue + 1));
+            }
+            int xValue = random.nextInt(PlateauSize.maxXValue + 1);
+            int yValue = random.nextInt(PlateauSize.maxYValue + 1);
+            Orientation orientation = anyOrientation();
+            StringBuilder input = new StringBuilder();
+            for (int i = 0; i < 40; i++) {
+                input.append("MMMMLR".charAt(random.nextInt(6)));
+            }
+            InstructionProgram program = InstructionProgram.compile(input);
+            Rover plainRover = deployedRover(xValue, yValue, orientation);
+            Rover optimizedRover = deployedRover(xValue, yValue, orientation);
+
+            // When:
+            String plainError = null;
+            try {
+                underTest.execute(plainRover, program);
+            } catch (PlateauExceededException | PositionBlockedException ex) {
+                plainError = ex.getMessage();
+            }
+            String optimizedError = null;
+            try {
+                underTest.execute(optimizedRover, ProgramOptimizer.optimize(program));
+            } catch (PlateauExceededException | PositionBlockedException ex) {
+                optimizedError = ex.getMessage();
+            }
+
+            ExecutionResult plainResult = new ExecutionResult();
+            underTest.execute(deployedRover(xValue, yValue, orientation), program, plainResult);
+            ExecutionResult optimizedResult = new ExecutionResult();
+            underTest.execute(deployedRover(xValue, yValue, orientation), ProgramOptimizer.optimize(program),
+                    optimizedResult);
+
+            // Then:
+            assertThat(optimizedError).isEqualTo(plainError);
+            assertThat(optimizedResult.getStatus()).isEqualTo(plainResult.getStatus());
+            assertThat(optimizedResult.getFailedStep()).isEqualTo(plainResult.getFailedStep());
+            assertThat(optimizedRover.getxValue()).isEqualTo(plainRover.getxValue());
+            assertThat(optimizedRover.getyValue()).isEqualTo(plainRover.getyValue());
+            assertThat(optimizedRover.getOrientation()).isEqualTo(plainRover.getOrientation());
+        }
+    }
+
+    @Test
+    public void test_execute_summarized_stops_at_same_step_as_plain_program() {
+        Random random = new Random();
+        for (int run = 0; run < 500; run++) {
+            // Given:
+            PlateauSize.setMaxXValue(1 + random.nextInt(40));
+            PlateauSize.setMaxYValue(1 + random.nextInt(40));
+            occupancyIndex.clear();
+            for (int i = random.nextInt(4); i > 0; i--) {
+                occupancyIndex.add(random.nextInt(PlateauSize.maxXValue + 1),
+                        random.nextInt(PlateauSize.maxYValue + 1));
+            }
+            TerrainMap terrain = Plateau.global().getTerrain();
+            terrain.clear();
+            for (int i = random.nextInt(4); i > 0; i--) {
+                terrain.block(random.nextInt(PlateauSize.maxXValue + 1), random.nextInt(PlateauSize.maxYValue + 1));
+            }
+            int xValue = random.nextInt(PlateauSize.maxXValue + 1);
+            int yValue = random.nextInt(PlateauSize.maxYValue + 1);
+            Orientation orientation = anyOrientation();
+            StringBuilder input = new StringBuilder();
+            for (int i = 0; i < 60; i++) {
+                input.append("MMLR".charAt(random.nextInt(4)));
+            }
+            InstructionProgram program = InstructionProgram.compile(input);
+            ProgramSummary summary = ProgramSummary.summarize(program, 1 + random.nextInt(16));
+            Rover plainRover = deployedRover(xValue, yValue, orientation);
+            Rover summarizedRover = deployedRover(xValue, yValue, orientation);
+
+            // When:
+            ExecutionResult plainResult = new ExecutionResult();
+            underTest.execute(plainRover, program, plainResult);
+            ExecutionResult summarizedResult = new ExecutionResult();
+            underTest.execute(summarizedRover, summary, summarizedResult);
+
+            // Then:
+            assertThat(summarizedResult.getStatus()).isEqualTo(plainResult.getStatus());
+            assertThat(summarizedResult.getFailedStep()).isEqualTo(plainResult.getFailedStep());
+            assertThat(summarizedResult.getExecutedSteps()).isEqualTo(plainResult.getExecutedSteps());
+            assertThat(positionOf(summarizedRover)).isEqualTo(positionOf(plainRover));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import constants.Orientation;
+import constants.PlateauSize;
+import model.FleetStore;
+import model.OccupancyIndex;
+import model.Rover;
+import testenv.TestHelper;
+
+public class TickSimulatorTest extends TestHelper {
+
+    private ForkJoinPool pool = new ForkJoinPool(4);
+    private TickSimulator underTest = new TickSimulator(pool);
+    private FleetStore fleet = new FleetStore(16, new OccupancyIndex());
+
+    @After
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void test_run_without_conflicts_matches_sequential_execution() {
+        // Given: rovers move vertically in their own columns
+        Random random = new Random();
+        PlateauSize.setMaxXValue(1000);
+        PlateauSize.setMaxYValue(30);
+        int roverCount = 50;
+        InstructionProgram[] programs = new InstructionProgram[roverCount];
+        Rover[] expectedRovers = new Rover[roverCount];
+        for (int i = 0; i < roverCount; i++) {
+            int yValue = random.nextInt(31);
+            Orientation orientation = random.nextBoolean() ? Orientation.N : Orientation.S;
+            fleet.add(i, i * 10, yValue, orientation);
+            StringBuilder input = new StringBuilder();
+            for (int k = random.nextInt(60); k > 0; k--) {
+                input.append(random.nextInt(4) == 0 ? "RR" : "M");
+            }
+            programs[i] = InstructionProgram.compile(input);
+            expectedRovers[i] = new Rover();
+            expectedRovers[i].setDeployPosition(i * 10, yValue, orientation);
+        }
+
+        // When:
+        SimulationResult result = underTest.run(fleet, programs);
+
+        // Then:
+        InstructionEngine engine = new InstructionEngine(new OccupancyIndex());
+        for (int i = 0; i < roverCount; i++) {
+            String expectedFailure = null;
+            try {
+                engine.execute(expectedRovers[i], programs[i]);
+            } catch (Exception ex) {
+                expectedFailure = ex.getMessage();
+            }
+            Exception failure = result.getFailure(i);
+            assertThat(failure == null ? null : failure.getMessage()).isEqualTo(expectedFailure);
+            assertThat(fleet.getxValue(i)).isEqualTo(expectedRovers[i].getxValue());
+            assertThat(fleet.getyValue(i)).isEqualTo(expectedRovers[i].getyValue());
+            assertThat(fleet.getOrientation(i)).isEqualTo(expectedRovers[i].getOrientation());
+        }
+        assertThat(result.getConflicts()).isEqualTo(0);
+    }
+
+    @Test
+    public void test_run_lowest_index_wins_conflicting_claim() {
+        // Given: both rovers want to enter (2 2) in the second tick
+        PlateauSize.setMaxXValue(5);
+        PlateauSize.setMaxYValue(5);
+        fleet.add(1L, 0, 2, Orientation.E);
+        fleet.add(2L, 4, 2, Orientation.W);
+        InstructionProgram[] programs = { InstructionProgram.compile("MMM"), InstructionProgram.compile("MMM") };
+
+        // When:
+        SimulationResult result = underTest.run(fleet, programs);
+
+        // Then:
+        assertThat(result.isSucceeded(0)).isFalse();
+        assertThat(result.isSucceeded(1)).isFalse();
+        assertThat(fleet.getxValue(0)).isEqualTo(2);
+        assertThat(fleet.getxValue(1)).isEqualTo(3);
+        assertThat(result.getFailedStep(0)).isEqualTo(2);
+        assertThat(result.getFailedStep(1)).isEqualTo(1);
+        assertThat(result.getFailure(1).getMessage()).contains("(2 2) is blocked by another rover");
+        assertThat(result.getFailure(0).getMessage()).contains("(3 2) is blocked by another rover");
+        assertThat(result.getConflicts()).isEqualTo(1);
+        assertThat(fleet.getOccupancyIndex().isOccupied(2, 2)).isTrue();
+        assertThat(fleet.getOccupancyIndex().isOccupied(3, 2)).isTrue();
+    }
+
+    @Test
+    public void test_run_cell_occupied_at_tick_start_stays_blocked() {
+        // Given: rover 2 leaves (1 1) in the same tick rover 1 wants to enter
+        PlateauSize.setMaxXValue(5);
+        PlateauSize.setMaxYValue(5);
+        fleet.add(1L, 0, 1, Orientation.E);
+        fleet.add(2L, 1, 1, Orientation.N);
+        InstructionProgram[] programs = { InstructionProgram.compile("M"), InstructionProgram.compile("M") };
+
+        // When:
+        SimulationResult result = underTest.run(fleet, programs);
+
+        // Then:
+        assertThat(result.getStatus(0)).isEqualTo(SimulationResult.POSITION_BLOCKED);
+        assertThat(result.isSucceeded(1)).isTrue();
+        assertThat(fleet.getxValue(0)).isEqualTo(0);
+        assertThat(fleet.getyValue(1)).isEqualTo(2);
+    }
+
+    @Test
+    public void test_run_rover_enters_cell_left_in_earlier_tick() {
+        // Given: executed one after the other, rover 2 would block rover 1 at (2 0)
+        PlateauSize.setMaxXValue(5);
+        PlateauSize.setMaxYValue(5);
+        fleet.add(1L, 0, 0, Orientation.E);
+        fleet.add(2L, 2, 0, Orientation.N);
+        InstructionProgram[] programs = { InstructionProgram.compile("MM"), InstructionProgram.compile("M") };
+
+        // When:
+        SimulationResult result = underTest.run(fleet, programs);
+
+        // Then: rover 2 leaves (2 0) in the first tick, rover 1 enters it in the second
+        assertThat(result.isSucceeded(0)).isTrue();
+        assertThat(result.isSucceeded(1)).isTrue();
+        assertThat(fleet.getxValue(0)).isEqualTo(2);
+        assertThat(fleet.getyValue(0)).isEqualTo(0);
+        assertThat(fleet.getxValue(1)).isEqualTo(2);
+        assertThat(fleet.getyValue(1)).isEqualTo(1);
+        assertThat(result.getConflicts()).isEqualTo(0);
+    }
+
+    @Test
+    public void test_run_stationary_rover_and_plateau_edge() {
+        // Given:
+        PlateauSize.setMaxXValue(5);
+        PlateauSize.setMaxYValue(5);
+        fleet.add(1L, 3, 3, Orientation.N);
+        fleet.add(2L, 3, 0, Orientation.N);
+        fleet.add(3L, 5, 5, Orientation.N);
+        InstructionProgram[] programs = { null, InstructionProgram.compile("MMMM"),
+                InstructionProgram.compile("LLM") };
+
+        // When:
+        SimulationResult result = underTest.run(fleet, programs);
+
+        // Then:
+        assertThat(result.isSucceeded(0)).isTrue();
+        assertThat(result.getFailure(1).getMessage()).contains("(3 3) is blocked by another rover");
+        assertThat(fleet.getyValue(1)).isEqualTo(2);
+        assertThat(result.isSucceeded(2)).isTrue();
+        assertThat(fleet.getyValue(2)).isEqualTo(4);
+        assertThat(fleet.getOrientation(2)).isEqualTo(Orientation.S);
+        assertThat(result.getTicks()).isEqualTo(3);
+    }
+}
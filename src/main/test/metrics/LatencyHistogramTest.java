@@ -0,0 +1,45 @@
+package metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import testenv.TestHelper;
+
+public class LatencyHistogramTest extends TestHelper {
+
+    private LatencyHistogram underTest = new LatencyHistogram("test");
+
+    @Test
+    public void test_bucket_bounds_cover_all_values() {
+        // Given:
+        long[] values = { 0, 7, 8, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE };
+
+        // When / Then: every value lies within 1/8 below the end of its bucket
+        for (long value : values) {
+            long highestValue = LatencyHistogram.highestValueOf(LatencyHistogram.bucketOf(value));
+            assertThat(highestValue).isGreaterThanOrEqualTo(value);
+            assertThat(highestValue - value).isLessThanOrEqualTo(value / LatencyHistogram.SUB_BUCKETS);
+        }
+    }
+
+    @Test
+    public void test_getValueAtPercentile_recorded_concurrently() {
+        // Given:
+        IntStream.rangeClosed(1, 1000).parallel().forEach(underTest::record);
+
+        // When:
+        long median = underTest.getValueAtPercentile(50);
+        long p99 = underTest.getValueAtPercentile(99);
+
+        // Then:
+        assertThat(underTest.getCount()).isEqualTo(1000);
+        assertThat(underTest.getTotal()).isEqualTo(500500);
+        assertThat(underTest.getMax()).isEqualTo(1000);
+        assertThat(median).isBetween(500L, 500L + 500 / LatencyHistogram.SUB_BUCKETS);
+        assertThat(p99).isBetween(990L, 1000L);
+        assertThat(underTest.getValueAtPercentile(100)).isEqualTo(1000);
+    }
+}
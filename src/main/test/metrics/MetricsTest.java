@@ -0,0 +1,101 @@
+package metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import constants.Orientation;
+import constants.PlateauSize;
+import engine.ExecutionResult;
+import engine.InstructionEngine;
+import engine.InstructionProgram;
+import model.OccupancyIndex;
+import model.Plateau;
+import model.Rover;
+import model.World;
+import testenv.TestHelper;
+
+public class MetricsTest extends TestHelper {
+
+    private InstructionEngine engine = new InstructionEngine(new OccupancyIndex());
+
+    @Test
+    public void test_recordRun_counts_steps_of_succeeded_run() {
+        // Given:
+        ExecutionResult result = run(0, 0, "MMRMM");
+        long steps = Metrics.EXECUTED_STEPS.sum();
+        long plateauExceeded = Metrics.PLATEAU_EXCEEDED.sum();
+        long positionBlocked = Metrics.POSITION_BLOCKED.sum();
+        long runs = Metrics.RUN_NANOS.getCount();
+
+        // When:
+        Metrics.recordRun(result, 1, System.nanoTime());
+
+        // Then: only the steps after the first one belong to the run
+        assertThat(Metrics.EXECUTED_STEPS.sum() - steps).isEqualTo(4);
+        assertThat(Metrics.PLATEAU_EXCEEDED.sum()).isEqualTo(plateauExceeded);
+        assertThat(Metrics.POSITION_BLOCKED.sum()).isEqualTo(positionBlocked);
+        assertThat(Metrics.RUN_NANOS.getCount() - runs).isEqualTo(1);
+    }
+
+    @Test
+    public void test_recordRun_counts_failed_moves_by_cause() {
+        // Given:
+        Plateau.global().getTerrain().block(0, 2);
+        ExecutionResult exceeded = run(4, 0, "RMM");
+        ExecutionResult obstacle = run(0, 0, "MM");
+        long plateauExceeded = Metrics.PLATEAU_EXCEEDED.sum();
+        long positionBlocked = Metrics.POSITION_BLOCKED.sum();
+
+        // When:
+        Metrics.recordRun(exceeded, 0, System.nanoTime());
+        Metrics.recordRun(obstacle, 0, System.nanoTime());
+
+        // Then:
+        assertThat(exceeded.getStatus()).isEqualTo(ExecutionResult.X_VALUE_EXCEEDED);
+        assertThat(obstacle.getStatus()).isEqualTo(ExecutionResult.OBSTACLE_HIT);
+        assertThat(Metrics.PLATEAU_EXCEEDED.sum() - plateauExceeded).isEqualTo(1);
+        assertThat(Metrics.POSITION_BLOCKED.sum() - positionBlocked).isEqualTo(1);
+    }
+
+    @Test
+    public void test_recordSimulation_counts_steps_and_failed_rovers() {
+        // Given:
+        long steps = Metrics.EXECUTED_STEPS.sum();
+        long plateauExceeded = Metrics.PLATEAU_EXCEEDED.sum();
+        long positionBlocked = Metrics.POSITION_BLOCKED.sum();
+        long simulations = Metrics.SIMULATION_NANOS.getCount();
+
+        // When:
+        Metrics.recordSimulation(120, 2, 3, System.nanoTime());
+
+        // Then:
+        assertThat(Metrics.EXECUTED_STEPS.sum() - steps).isEqualTo(120);
+        assertThat(Metrics.PLATEAU_EXCEEDED.sum() - plateauExceeded).isEqualTo(2);
+        assertThat(Metrics.POSITION_BLOCKED.sum() - positionBlocked).isEqualTo(3);
+        assertThat(Metrics.SIMULATION_NANOS.getCount() - simulations).isEqualTo(1);
+    }
+
+    @Test
+    public void test_dump_reports_active_rovers_of_default_world() {
+        // Given:
+        int activeRovers = World.getDefault().getFleet().getActiveCount();
+
+        // When:
+        String dump = Metrics.dump();
+
+        // Then:
+        assertThat(dump).contains("activeRovers=" + activeRovers + "\n");
+        assertThat(dump).contains("simulationNanos count=");
+    }
+
+    private ExecutionResult run(int xValue, int yValue, String instructions) {
+        PlateauSize.setMaxXValue(4);
+        PlateauSize.setMaxYValue(4);
+        Rover rover = new Rover();
+        rover.setDeployPosition(xValue, yValue, Orientation.N);
+        ExecutionResult result = new ExecutionResult();
+        engine.execute(rover, InstructionProgram.compile(instructions), result);
+        return result;
+    }
+}
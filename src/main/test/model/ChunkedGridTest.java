@@ -0,0 +1,139 @@
+package model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+import testenv.TestHelper;
+
+public class ChunkedGridTest extends TestHelper {
+
+    @Test
+    public void test_tile_is_released_when_its_last_cell_is_cleared() {
+        // Given:
+        ChunkedGrid underTest = new ChunkedGrid(ChunkedGrid.MIN_TILE_SHIFT);
+        underTest.set(0, 0);
+        underTest.set(7, 7);
+        underTest.set(8, 0);
+
+        // Then:
+        assertThat(underTest.getTileCount()).isEqualTo(2);
+        assertThat(underTest.tileKey(7, 7)).isEqualTo(underTest.tileKey(0, 0));
+
+        // When:
+        underTest.clear(0, 0);
+        underTest.clear(7, 7);
+
+        // Then:
+        assertThat(underTest.getTileCount()).isEqualTo(1);
+        assertThat(underTest.get(8, 0)).isTrue();
+        assertThat(underTest.getCardinality()).isEqualTo(1);
+    }
+
+    @Test
+    public void test_matches_set_of_cell_keys_for_every_tile_size() {
+        Random random = new Random();
+        for (int tileShift = ChunkedGrid.MIN_TILE_SHIFT; tileShift <= ChunkedGrid.MAX_TILE_SHIFT; tileShift++) {
+            // Given:
+            ChunkedGrid underTest = new ChunkedGrid(tileShift);
+            Set<Long> expected = Sets.newHashSet();
+
+            // When: cells around the origin, including negative coordinates
+            for (int i = 0; i < 20_000; i++) {
+                int xValue = random.nextInt(300) - 150;
+                int yValue = random.nextInt(300) - 150;
+                long cellKey = OccupancyIndex.cellKey(xValue, yValue);
+                if (random.nextInt(3) == 0) {
+                    assertThat(underTest.clear(xValue, yValue)).isEqualTo(expected.remove(cellKey));
+                } else {
+                    assertThat(underTest.set(xValue, yValue)).isEqualTo(expected.add(cellKey));
+                }
+            }
+
+            // Then:
+            assertThat(underTest.getCardinality()).isEqualTo(expected.size());
+            Set<Long> visited = Sets.newHashSet();
+            underTest.forEachSetCell(visited::add);
+            assertThat(visited).isEqualTo(expected);
+            for (int i = 0; i < 1000; i++) {
+                int minXValue = random.nextInt(340) - 170;
+                int minYValue = random.nextInt(340) - 170;
+                int maxXValue = minXValue + random.nextInt(20);
+                int maxYValue = minYValue + random.nextInt(20);
+                boolean anySet = expected.stream().anyMatch(cellKey -> {
+                    int xValue = OccupancyIndex.xValueOf(cellKey);
+                    int yValue = OccupancyIndex.yValueOf(cellKey);
+                    return xValue >= minXValue && xValue <= maxXValue && yValue >= minYValue && yValue <= maxYValue;
+                });
+                assertThat(underTest.isAnySet(minXValue, minYValue, maxXValue, maxYValue)).isEqualTo(anySet);
+            }
+        }
+    }
+
+    @Test
+    public void test_set_rectangle_matches_setting_its_cells() {
+        Random random = new Random();
+        for (int tileShift = ChunkedGrid.MIN_TILE_SHIFT; tileShift <= ChunkedGrid.MAX_TILE_SHIFT; tileShift++) {
+            // Given:
+            ChunkedGrid underTest = new ChunkedGrid(tileShift);
+            ChunkedGrid expected = new ChunkedGrid(tileShift);
+
+            // When: overlapping rectangles around the origin
+            for (int i = 0; i < 50; i++) {
+                int minXValue = random.nextInt(300) - 150;
+                int minYValue = random.nextInt(300) - 150;
+                int maxXValue = minXValue + random.nextInt(100);
+                int maxYValue = minYValue + random.nextInt(100);
+                underTest.set(minXValue, minYValue, maxXValue, maxYValue);
+                for (int yValue = minYValue; yValue <= maxYValue; yValue++) {
+                    for (int xValue = minXValue; xValue <= maxXValue; xValue++) {
+                        expected.set(xValue, yValue);
+                    }
+                }
+            }
+
+            // Then:
+            assertThat(underTest.getCardinality()).isEqualTo(expected.getCardinality());
+            assertThat(underTest.getTileCount()).isEqualTo(expected.getTileCount());
+            Set<Long> cells = Sets.newHashSet();
+            underTest.forEachSetCell(cells::add);
+            Set<Long> expectedCells = Sets.newHashSet();
+            expected.forEachSetCell(expectedCells::add);
+            assertThat(cells).isEqualTo(expectedCells);
+        }
+    }
+
+    @Test
+    public void test_sparse_cells_on_huge_plateau() {
+        // Given:
+        ChunkedGrid underTest = new ChunkedGrid(ChunkedGrid.MAX_TILE_SHIFT);
+
+        // When:
+        underTest.set(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        underTest.set(Integer.MIN_VALUE, 0);
+
+        // Then:
+        assertThat(underTest.getTileCount()).isEqualTo(2);
+        assertThat(underTest.isAnySet(0, 0, Integer.MAX_VALUE, Integer.MAX_VALUE)).isTrue();
+        assertThat(underTest.isAnySet(0, 0, Integer.MAX_VALUE - 1, Integer.MAX_VALUE)).isFalse();
+        assertThat(underTest.isAnySet(Integer.MIN_VALUE, Integer.MIN_VALUE, -1, -1)).isFalse();
+    }
+
+    @Test
+    public void test_invalid_tile_shift() {
+        try {
+            // When:
+            new ChunkedGrid(ChunkedGrid.MAX_TILE_SHIFT + 1);
+            fail("Exception expected!");
+        } catch (IllegalArgumentException ex) {
+            // Then:
+            assertThat(ex.getMessage()).contains("Invalid tile shift");
+        }
+    }
+}
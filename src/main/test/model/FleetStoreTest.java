@@ -0,0 +1,132 @@
+package model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import constants.Orientation;
+import testenv.TestHelper;
+
+public class FleetStoreTest extends TestHelper {
+
+    private OccupancyIndex occupancyIndex = new OccupancyIndex();
+    private FleetStore underTest = new FleetStore(1, occupancyIndex);
+
+    @Test
+    public void test_add_stores_state_in_new_slot() {
+        // Given:
+        int xValue = anyXCoordinate();
+        int yValue = anyYCoordinate();
+        Orientation orientation = anyOrientation();
+
+        // When:
+        int index = underTest.add(42L, xValue, yValue, orientation);
+
+        // Then:
+        assertThat(index).isEqualTo(0);
+        assertThat(underTest.getId(index)).isEqualTo(42L);
+        assertThat(underTest.getxValue(index)).isEqualTo(xValue);
+        assertThat(underTest.getyValue(index)).isEqualTo(yValue);
+        assertThat(underTest.getOrientation(index)).isEqualTo(orientation);
+        assertThat(underTest.isActive(index)).isTrue();
+        assertThat(occupancyIndex.isOccupied(xValue, yValue)).isTrue();
+    }
+
+    @Test
+    public void test_add_grows_beyond_initial_capacity() {
+        // Given:
+        int roverCount = 1000;
+
+        // When:
+        for (int i = 0; i < roverCount; i++) {
+            underTest.add(i, i, i + 1, Orientation.values()[i % 4]);
+        }
+
+        // Then:
+        assertThat(underTest.size()).isEqualTo(roverCount);
+        for (int i = 0; i < roverCount; i++) {
+            assertThat(underTest.getId(i)).isEqualTo(i);
+            assertThat(underTest.getxValue(i)).isEqualTo(i);
+            assertThat(underTest.getyValue(i)).isEqualTo(i + 1);
+            assertThat(underTest.getOrientation(i)).isEqualTo(Orientation.values()[i % 4]);
+        }
+        assertThat(occupancyIndex.size()).isEqualTo(roverCount);
+    }
+
+    @Test
+    public void test_setPosition_of_inactive_slot_leaves_occupancy_untouched() {
+        // Given:
+        int xValue = anyXCoordinate();
+        int yValue = anyYCoordinate();
+        int index = underTest.add(1L, xValue, yValue, anyOrientation());
+        underTest.deactivate(index);
+
+        // When:
+        underTest.setPosition(index, xValue, yValue + 1);
+
+        // Then:
+        assertThat(occupancyIndex.isOccupied(xValue, yValue)).isFalse();
+        assertThat(occupancyIndex.isOccupied(xValue, yValue + 1)).isFalse();
+        assertThat(underTest.getyValue(index)).isEqualTo(yValue + 1);
+    }
+
+    @Test
+    public void test_getOccupant_follows_moves_and_deactivation() {
+        // Given:
+        int index = underTest.add(3L, 1, 1, Orientation.N);
+
+        // When:
+        underTest.setPosition(index, 1, 2);
+
+        // Then:
+        assertThat(underTest.getOccupant(1, 1)).isEqualTo(FleetStore.NO_OCCUPANT);
+        assertThat(underTest.getOccupant(1, 2)).isEqualTo(index);
+        underTest.deactivate(index);
+        assertThat(underTest.getOccupant(1, 2)).isEqualTo(FleetStore.NO_OCCUPANT);
+    }
+
+    @Test
+    public void test_allocate_creates_slot_without_orientation() {
+        // When:
+        int index = underTest.allocate();
+
+        // Then:
+        assertThat(underTest.isActive(index)).isFalse();
+        assertThat(underTest.getOrientation(index)).isNull();
+        assertThat(underTest.getOrientationCode(index)).isEqualTo(FleetStore.NO_ORIENTATION);
+    }
+
+    @Test
+    public void test_rover_view_reflects_store() {
+        // Given:
+        int xValue = anyXCoordinate();
+        int yValue = anyYCoordinate();
+        int index = underTest.add(7L, xValue, yValue, Orientation.N);
+        Rover rover = new Rover(underTest, index);
+
+        // When:
+        rover.turnVehicleRight();
+
+        // Then:
+        assertThat(underTest.getOrientation(index)).isEqualTo(Orientation.E);
+        assertThat(rover.getxValue()).isEqualTo(xValue);
+        assertThat(rover.getyValue()).isEqualTo(yValue);
+    }
+
+    @Test
+    public void test_getActiveCount_follows_activation() {
+        // Given:
+        int first = underTest.add(1L, 1, 1, Orientation.N);
+        int second = underTest.add(2L, 2, 2, Orientation.N);
+        underTest.allocate();
+
+        // When:
+        underTest.retire(first);
+        underTest.deactivate(first);
+        underTest.activate(second);
+
+        // Then:
+        assertThat(underTest.size()).isEqualTo(3);
+        assertThat(underTest.getActiveCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,127 @@
+package model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+
+import testenv.TestHelper;
+
+public class OccupancyIndexTest extends TestHelper {
+
+    private OccupancyIndex underTest = new OccupancyIndex();
+
+    @Test
+    public void test_cellKey_round_trip() {
+        // Given:
+        int xValue = anyXCoordinate();
+        int yValue = anyYCoordinate();
+
+        // When:
+        long cellKey = OccupancyIndex.cellKey(xValue, yValue);
+
+        // Then:
+        assertThat(OccupancyIndex.xValueOf(cellKey)).isEqualTo(xValue);
+        assertThat(OccupancyIndex.yValueOf(cellKey)).isEqualTo(yValue);
+    }
+
+    @Test
+    public void test_add_and_remove_single_cell() {
+        // Given:
+        int xValue = anyXCoordinate();
+        int yValue = anyYCoordinate();
+
+        // When:
+        underTest.add(xValue, yValue);
+
+        // Then:
+        assertThat(underTest.isOccupied(xValue, yValue)).isTrue();
+        assertThat(underTest.isOccupied(xValue, yValue + 1)).isFalse();
+
+        // When:
+        underTest.remove(xValue, yValue);
+
+        // Then:
+        assertThat(underTest.isOccupied(xValue, yValue)).isFalse();
+        assertThat(underTest.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void test_cell_shared_by_two_rovers_stays_occupied_after_one_leaves() {
+        // Given:
+        int xValue = anyXCoordinate();
+        int yValue = anyYCoordinate();
+        underTest.add(xValue, yValue);
+        underTest.add(xValue, yValue);
+
+        // When:
+        underTest.move(xValue, yValue, xValue + 1, yValue);
+
+        // Then:
+        assertThat(underTest.isOccupied(xValue, yValue)).isTrue();
+        assertThat(underTest.isOccupied(xValue + 1, yValue)).isTrue();
+        assertThat(underTest.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void test_random_operations_match_reference_map() {
+        // Given:
+        Random random = new Random();
+        Map<Long, Integer> reference = Maps.newHashMap();
+
+        // When:
+        for (int i = 0; i < 20000; i++) {
+            int xValue = random.nextInt(64);
+            int yValue = random.nextInt(64);
+            long cellKey = OccupancyIndex.cellKey(xValue, yValue);
+            if (random.nextBoolean()) {
+                underTest.add(xValue, yValue);
+                reference.merge(cellKey, 1, Integer::sum);
+            } else {
+                underTest.remove(xValue, yValue);
+                reference.computeIfPresent(cellKey, (key, count) -> count == 1 ? null : count - 1);
+            }
+        }
+
+        // Then:
+        assertThat(underTest.size()).isEqualTo(reference.size());
+        for (int xValue = 0; xValue < 64; xValue++) {
+            for (int yValue = 0; yValue < 64; yValue++) {
+                assertThat(underTest.isOccupied(xValue, yValue))
+                        .isEqualTo(reference.containsKey(OccupancyIndex.cellKey(xValue, yValue)));
+            }
+        }
+    }
+
+    @Test
+    public void test_isAnyOccupied_matches_cell_lookups() {
+        // Given: a few rovers, some of them on negative coordinates
+        Random random = new Random();
+        for (int i = 0; i < 20; i++) {
+            underTest.add(random.nextInt(200) - 100, random.nextInt(200) - 100);
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            int minXValue = random.nextInt(240) - 120;
+            int minYValue = random.nextInt(240) - 120;
+            int maxXValue = minXValue + random.nextInt(i % 2 == 0 ? 10 : 150);
+            int maxYValue = minYValue + random.nextInt(i % 2 == 0 ? 10 : 150);
+            boolean expected = false;
+            for (int xValue = minXValue; xValue <= maxXValue; xValue++) {
+                for (int yValue = minYValue; yValue <= maxYValue; yValue++) {
+                    expected |= underTest.isOccupied(xValue, yValue);
+                }
+            }
+
+            // When:
+            boolean anyOccupied = underTest.isAnyOccupied(minXValue, minYValue, maxXValue, maxYValue);
+
+            // Then:
+            assertThat(anyOccupied).isEqualTo(expected);
+        }
+    }
+}
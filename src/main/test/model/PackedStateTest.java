@@ -0,0 +1,60 @@
+package model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import constants.Orientation;
+import constants.OrientationCode;
+import testenv.TestHelper;
+
+public class PackedStateTest extends TestHelper {
+
+    @Test
+    public void test_pack_keeps_largest_coordinates() {
+        // When:
+        long state = PackedState.pack(Integer.MAX_VALUE, Integer.MAX_VALUE, OrientationCode.W);
+
+        // Then:
+        assertThat(PackedState.xValueOf(state)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(PackedState.yValueOf(state)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(PackedState.orientationOf(state)).isEqualTo(OrientationCode.W);
+    }
+
+    @Test
+    public void test_move_and_turn_in_every_orientation() {
+        // Given:
+        int xValue = anyXCoordinate() + 1;
+        int yValue = anyYCoordinate() + 1;
+
+        for (Orientation orientation : Orientation.values()) {
+            long state = PackedState.pack(xValue, yValue, OrientationCode.of(orientation));
+
+            // When:
+            long moved = PackedState.move(state);
+            long turnedLeft = PackedState.turnLeft(state);
+            long turnedRight = PackedState.turnRight(state);
+
+            // Then:
+            int code = OrientationCode.of(orientation);
+            assertThat(PackedState.xValueOf(moved)).isEqualTo(xValue + OrientationCode.deltaX(code));
+            assertThat(PackedState.yValueOf(moved)).isEqualTo(yValue + OrientationCode.deltaY(code));
+            assertThat(PackedState.orientationOf(moved)).isEqualTo(code);
+            assertThat(turnedLeft).isEqualTo(PackedState.pack(xValue, yValue, OrientationCode.left(code)));
+            assertThat(turnedRight).isEqualTo(PackedState.pack(xValue, yValue, OrientationCode.right(code)));
+        }
+    }
+
+    @Test
+    public void test_pack_with_negative_coordinate() {
+        try {
+            // When:
+            PackedState.pack(-1, 0, OrientationCode.N);
+            fail("Exception expected!");
+        } catch (Exception ex) {
+            // Then:
+            assertThat(ex).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
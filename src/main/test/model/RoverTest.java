@@ -351,6 +351,91 @@ public class RoverTest extends TestHelper {
         fail("Exception expected!");
     }
 
+    @Test
+    public void test_checkIfPositionIsBlocked_by_obstacle() {
+        // Given:
+        int blockedXValue = anyXCoordinate();
+        int blockedYValue = anyYCoordinate();
+        Plateau.global().getTerrain().block(blockedXValue, blockedYValue);
+
+        // When:
+        try {
+            underTest.checkIfPositionIsBlocked(blockedXValue, blockedYValue);
+        } catch (PositionBlockedException ex) {
+
+            // Then:
+            assertThat(ex.getMessage()).contains("blocked by an obstacle");
+            return;
+        }
+
+        fail("Exception expected!");
+    }
+
+    @Test
+    public void test_checkIfPositionIsBlocked_after_registered_rover_moved_away()
+        throws PlateauExceededException, PositionBlockedException {
+        // Given:
+        int blockedXValue = anyXCoordinate();
+        int blockedYValue = anyYCoordinate();
+        Rover anotherRover = new Rover();
+        anotherRover.setDeployPosition(blockedXValue, blockedYValue, Orientation.N);
+        RoverRegistry.registerRover(1, anotherRover);
+
+        // When:
+        anotherRover.moveVehicle();
+
+        // Then: old position is free, new position is blocked
+        underTest.checkIfPositionIsBlocked(blockedXValue, blockedYValue);
+        try {
+            underTest.checkIfPositionIsBlocked(blockedXValue, blockedYValue + 1);
+        } catch (PositionBlockedException ex) {
+            assertThat(ex.getMessage()).contains("blocked by another rover");
+            return;
+        }
+
+        fail("Exception expected!");
+    }
+
+    @Test
+    public void test_checkIfPositionIsBlocked_after_registered_rover_was_replaced()
+        throws PositionBlockedException {
+        // Given:
+        int blockedXValue = anyXCoordinate();
+        int blockedYValue = anyYCoordinate();
+        Rover anotherRover = new Rover();
+        anotherRover.setDeployPosition(blockedXValue, blockedYValue, anyOrientation());
+        RoverRegistry.registerRover(1, anotherRover);
+
+        // When:
+        Rover replacingRover = new Rover();
+        replacingRover.setDeployPosition(blockedXValue, blockedYValue + 1, anyOrientation());
+        RoverRegistry.registerRover(1, replacingRover);
+
+        // Then: no exception
+        underTest.checkIfPositionIsBlocked(blockedXValue, blockedYValue);
+    }
+
+    @Test
+    public void test_registerRover_again_keeps_its_slot() {
+        // Given:
+        World world = new World();
+        int xValue = anyXCoordinate();
+        int yValue = anyYCoordinate();
+        underTest.setDeployPosition(xValue, yValue, anyOrientation());
+        world.registerRover(1, underTest);
+
+        // When:
+        for (long id = 1; id <= 100; id++) {
+            world.registerRover(id, underTest);
+        }
+
+        // Then:
+        assertThat(world.getFleet().size()).isEqualTo(1);
+        assertThat(world.getRoverCount()).isEqualTo(1);
+        assertThat(world.getFleet().getId(underTest.getFleetIndex())).isEqualTo(100L);
+        assertThat(world.isPositionOccupied(xValue, yValue)).isTrue();
+    }
+
     //
     // TURN VEHICLE LEFT
     //
@@ -0,0 +1,93 @@
+package model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import testenv.TestHelper;
+
+public class TerrainMapTest extends TestHelper {
+
+    private TerrainMap underTest = new TerrainMap();
+
+    @Test
+    public void test_block_and_unblock_single_cell() {
+        // Given:
+        int xValue = anyXCoordinate();
+        int yValue = anyYCoordinate();
+
+        // When:
+        underTest.block(xValue, yValue);
+
+        // Then:
+        assertThat(underTest.isBlocked(xValue, yValue)).isTrue();
+        assertThat(underTest.isBlocked(xValue + 1, yValue)).isFalse();
+        assertThat(underTest.isBlocked(xValue, yValue + 1)).isFalse();
+        assertThat(underTest.getBlockedCount()).isEqualTo(1);
+
+        // When:
+        underTest.unblock(xValue, yValue);
+
+        // Then:
+        assertThat(underTest.isBlocked(xValue, yValue)).isFalse();
+        assertThat(underTest.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void test_isAnyBlocked_across_chunk_borders() {
+        // Given: a rectangle spanning four chunks
+        underTest.block(60, 60, 70, 70);
+
+        // Then:
+        assertThat(underTest.getBlockedCount()).isEqualTo(121);
+        assertThat(underTest.isAnyBlocked(0, 0, 59, 1000)).isFalse();
+        assertThat(underTest.isAnyBlocked(71, 0, 1000, 1000)).isFalse();
+        assertThat(underTest.isAnyBlocked(0, 0, 60, 60)).isTrue();
+        assertThat(underTest.isAnyBlocked(70, 70, 1000, 1000)).isTrue();
+        assertThat(underTest.isAnyBlocked(0, 65, Integer.MAX_VALUE, 65)).isTrue();
+        assertThat(underTest.isAnyBlocked(Integer.MIN_VALUE, Integer.MIN_VALUE, 59, 59)).isFalse();
+    }
+
+    @Test
+    public void test_load_cells_and_rectangles() throws Exception {
+        // Given:
+        Path file = Files.createTempFile("terrain", ".txt");
+        Files.write(file, Arrays.asList("# rocks", "1 2", "", "  5 5 6 7  "));
+
+        try {
+            // When:
+            underTest.load(file);
+
+            // Then:
+            assertThat(underTest.getBlockedCount()).isEqualTo(7);
+            assertThat(underTest.isBlocked(1, 2)).isTrue();
+            assertThat(underTest.isBlocked(6, 7)).isTrue();
+            assertThat(underTest.isBlocked(4, 5)).isFalse();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void test_load_invalid_line() throws Exception {
+        // Given:
+        Path file = Files.createTempFile("terrain", ".txt");
+        Files.write(file, Arrays.asList("1 2 3"));
+
+        try {
+            // When:
+            underTest.load(file);
+            fail("Exception expected!");
+        } catch (IllegalArgumentException ex) {
+            // Then:
+            assertThat(ex.getMessage()).contains("Invalid terrain line");
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package output;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+
+import org.junit.Test;
+
+import constants.Orientation;
+import constants.PlateauSize;
+import engine.ExecutionResult;
+import engine.InstructionEngine;
+import engine.InstructionProgram;
+import model.OccupancyIndex;
+import model.Rover;
+import testenv.TestHelper;
+
+public class BinaryResultSinkTest extends TestHelper {
+
+    private ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private BinaryResultSink underTest = new BinaryResultSink(output);
+
+    @Test
+    public void test_roverFinished_writes_fixed_size_records() throws Exception {
+        // Given:
+        PlateauSize.setMaxXValue(5);
+        PlateauSize.setMaxYValue(5);
+        Rover rover = new Rover();
+        rover.setDeployPosition(1, 0, Orientation.W);
+        ExecutionResult result = new ExecutionResult();
+        new InstructionEngine(new OccupancyIndex()).execute(rover, InstructionProgram.compile("MRLM"), result);
+
+        // When:
+        underTest.roverFinished(1L, 3, 3, Orientation.E, new ExecutionResult());
+        underTest.roverFinished(2L, rover.getxValue(), rover.getyValue(), rover.getOrientation(), result);
+        underTest.close();
+
+        // Then:
+        assertThat(output.size()).isEqualTo(6 + 2 * BinaryResultSink.RECORD_SIZE);
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+        assertThat(input.readInt()).isEqualTo(BinaryResultSink.MAGIC);
+        assertThat(input.readShort()).isEqualTo(BinaryResultSink.VERSION);
+        assertThat(input.readLong()).isEqualTo(1L);
+        input.skipBytes(BinaryResultSink.RECORD_SIZE - 8);
+        assertThat(input.readLong()).isEqualTo(2L);
+        assertThat(input.readInt()).isEqualTo(0);
+        assertThat(input.readInt()).isEqualTo(0);
+        assertThat(input.readByte()).isEqualTo((byte) Orientation.W.ordinal());
+        assertThat(input.readByte()).isEqualTo(ExecutionResult.X_VALUE_EXCEEDED);
+        assertThat(input.readLong()).isEqualTo(3L);
+        assertThat(input.readInt()).isEqualTo(-1);
+        assertThat(input.readInt()).isEqualTo(0);
+        assertThat(input.readLong()).isEqualTo(ExecutionResult.UNKNOWN_ROVER);
+    }
+}
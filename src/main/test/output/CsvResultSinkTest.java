@@ -0,0 +1,45 @@
+package output;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import constants.Orientation;
+import constants.PlateauSize;
+import engine.ExecutionResult;
+import engine.InstructionEngine;
+import engine.InstructionProgram;
+import model.FleetStore;
+import model.OccupancyIndex;
+import model.Rover;
+import testenv.TestHelper;
+
+public class CsvResultSinkTest extends TestHelper {
+
+    private ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private CsvResultSink underTest = new CsvResultSink(output);
+
+    @Test
+    public void test_roverFinished_writes_header_and_records() throws Exception {
+        // Given:
+        PlateauSize.setMaxXValue(5);
+        PlateauSize.setMaxYValue(5);
+        FleetStore fleet = new FleetStore(2, new OccupancyIndex());
+        fleet.add(9L, 1, 4, Orientation.S);
+        Rover rover = new Rover(fleet, fleet.add(2L, 1, 1, Orientation.N));
+        ExecutionResult result = new ExecutionResult();
+        new InstructionEngine(fleet).execute(rover, InstructionProgram.compile("MMM"), result);
+
+        // When:
+        underTest.roverFinished(1L, 3, 3, Orientation.E, new ExecutionResult());
+        underTest.roverFinished(2L, rover.getxValue(), rover.getyValue(), rover.getOrientation(), result);
+        underTest.close();
+
+        // Then:
+        assertThat(new String(output.toByteArray(), StandardCharsets.US_ASCII)).isEqualTo(CsvResultSink.HEADER
+                + "\n1,3,3,E,SUCCEEDED,,,,\n2,1,3,N,POSITION_BLOCKED,2,1,4,9\n");
+    }
+}
@@ -0,0 +1,63 @@
+package output;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import constants.Orientation;
+import constants.PlateauSize;
+import engine.ExecutionResult;
+import engine.InstructionEngine;
+import engine.InstructionProgram;
+import model.OccupancyIndex;
+import model.Rover;
+import testenv.TestHelper;
+
+public class TextResultSinkTest extends TestHelper {
+
+    private ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private TextResultSink underTest = new TextResultSink(out, err);
+
+    @Test
+    public void test_roverFinished_writes_position_after_flush() throws Exception {
+        // Given:
+        ExecutionResult result = new ExecutionResult();
+
+        // When:
+        underTest.roverFinished(1L, 1, 3, Orientation.N, result);
+        underTest.roverFinished(2L, -12, 2147483647, Orientation.W, result);
+
+        // Then:
+        assertThat(out.size()).isEqualTo(0);
+        underTest.flush();
+        assertThat(new String(out.toByteArray(), StandardCharsets.US_ASCII))
+                .isEqualTo("1 3 N" + System.lineSeparator() + "-12 2147483647 W" + System.lineSeparator());
+        assertThat(err.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void test_roverFinished_writes_failure_to_error_stream() throws Exception {
+        // Given:
+        PlateauSize.setMaxXValue(5);
+        PlateauSize.setMaxYValue(5);
+        Rover rover = new Rover();
+        rover.setDeployPosition(5, 4, Orientation.E);
+        ExecutionResult result = new ExecutionResult();
+        new InstructionEngine(new OccupancyIndex()).execute(rover, InstructionProgram.compile("LMM"), result);
+
+        // When:
+        underTest.roverFinished(1L, rover.getxValue(), rover.getyValue(), rover.getOrientation(), result);
+        underTest.close();
+
+        // Then:
+        assertThat(out.size()).isEqualTo(0);
+        assertThat(new String(err.toByteArray(), StandardCharsets.US_ASCII))
+                .isEqualTo("Error occured while executing instruction M\nCurrent Position: 5 5 N\n"
+                        + "model.exception.PlateauExceededException: Y-value 6 exceeds the plateau."
+                        + " Movement abborted!" + System.lineSeparator());
+    }
+}
@@ -0,0 +1,114 @@
+package planner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import constants.Orientation;
+import engine.InstructionProgram;
+import engine.SimulationResult;
+import engine.TickSimulator;
+import model.FleetStore;
+import model.OccupancyIndex;
+import model.Plateau;
+import model.World;
+import model.exception.PathNotFoundException;
+import testenv.TestHelper;
+
+public class FleetPlannerTest extends TestHelper {
+
+    private ForkJoinPool pool = new ForkJoinPool(4);
+    private FleetPlanner underTest = new FleetPlanner(pool);
+
+    @After
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void test_plan_lets_rovers_pass_each_other() throws Exception {
+        // Given: two rovers swap their cells on a plateau of two rows
+        World world = new World(new Plateau(4, 1));
+        world.getFleet().add(1, 0, 0, Orientation.E);
+        world.getFleet().add(2, 4, 0, Orientation.W);
+        long[] targets = { FleetPlanner.target(4, 0, Orientation.E), FleetPlanner.target(0, 0, Orientation.W) };
+
+        // When:
+        InstructionProgram[] programs = underTest.plan(world, targets);
+        SimulationResult result = new TickSimulator(pool).run(world, programs);
+
+        // Then:
+        assertReachedTargets(world.getFleet(), targets, result);
+    }
+
+    @Test
+    public void test_plan_large_fleet_without_collisions() throws Exception {
+        // Given:
+        Random random = new Random();
+        World world = new World(new Plateau(29, 29));
+        int roverCount = 100;
+        long[] cells = new long[2 * roverCount];
+        int cellCount = 0;
+        OccupancyIndex used = new OccupancyIndex();
+        while (cellCount < cells.length) {
+            long cellKey = OccupancyIndex.cellKey(random.nextInt(30), random.nextInt(30));
+            if (!used.isOccupied(cellKey)) {
+                used.add(cellKey);
+                cells[cellCount++] = cellKey;
+            }
+        }
+        long[] targets = new long[roverCount];
+        for (int i = 0; i < roverCount; i++) {
+            world.getFleet().add(i, OccupancyIndex.xValueOf(cells[i]), OccupancyIndex.yValueOf(cells[i]),
+                    anyOrientation());
+            // some rovers stay where they are
+            targets[i] = i % 10 == 0 ? FleetPlanner.NO_TARGET
+                    : FleetPlanner.target(OccupancyIndex.xValueOf(cells[roverCount + i]),
+                            OccupancyIndex.yValueOf(cells[roverCount + i]), anyOrientation());
+        }
+
+        // When:
+        InstructionProgram[] programs = underTest.plan(world, targets);
+        SimulationResult result = new TickSimulator(pool).run(world, programs);
+
+        // Then:
+        assertReachedTargets(world.getFleet(), targets, result);
+    }
+
+    @Test
+    public void test_plan_to_enclosed_target() {
+        // Given:
+        World world = new World(new Plateau(4, 4));
+        world.getFleet().add(1, 0, 0, Orientation.N);
+        world.getFleet().add(2, 3, 4, Orientation.N);
+        world.getFleet().add(3, 4, 3, Orientation.N);
+        long[] targets = new long[3];
+        Arrays.fill(targets, FleetPlanner.NO_TARGET);
+        targets[0] = FleetPlanner.target(4, 4, Orientation.E);
+
+        try {
+            // When:
+            underTest.plan(world, targets);
+            fail("Exception expected!");
+        } catch (Exception ex) {
+            // Then:
+            assertThat(ex).isInstanceOf(PathNotFoundException.class);
+        }
+    }
+
+    private static void assertReachedTargets(FleetStore fleet, long[] targets, SimulationResult result) {
+        assertThat(result.getConflicts()).isZero();
+        for (int index = 0; index < targets.length; index++) {
+            assertThat(result.getFailure(index)).isNull();
+            if (targets[index] != FleetPlanner.NO_TARGET) {
+                assertThat(fleet.getPackedState(index)).as("rover %s", index).isEqualTo(targets[index]);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package planner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import constants.Instruction;
+import constants.Orientation;
+import engine.InstructionEngine;
+import engine.InstructionProgram;
+import model.Plateau;
+import model.Rover;
+import model.World;
+import model.exception.PathNotFoundException;
+import testenv.TestHelper;
+
+public class PathPlannerTest extends TestHelper {
+
+    private PathPlanner underTest = new PathPlanner();
+
+    @Test
+    public void test_plan_on_large_open_plateau_is_minimal() throws Exception {
+        // Given:
+        World world = new World(new Plateau(99_999, 99_999));
+        Rover rover = deployedRover(world, 1, 0, 0, Orientation.N);
+
+        // When:
+        List<Instruction> instructions = underTest.plan(rover, 99_999, 50_000, Orientation.S);
+
+        // Then:
+        assertThat(instructions).hasSize(99_999 + 50_000 + 2);
+        new InstructionEngine(world).execute(rover, InstructionProgram.compile(instructions));
+        assertThat(positionOf(rover)).isEqualTo("99999 50000 S");
+    }
+
+    @Test
+    public void test_plan_leads_around_other_rovers() throws Exception {
+        // Given:
+        World world = new World(new Plateau(4, 4));
+        Rover rover = deployedRover(world, 1, 0, 0, Orientation.N);
+        for (int yValue = 0; yValue < 4; yValue++) {
+            deployedRover(world, 2 + yValue, 1, yValue, Orientation.E);
+        }
+
+        // When:
+        List<Instruction> instructions = underTest.plan(rover, 2, 0, Orientation.S);
+
+        // Then:
+        assertThat(instructions).hasSize(12);
+        new InstructionEngine(world).execute(rover, InstructionProgram.compile(instructions));
+        assertThat(positionOf(rover)).isEqualTo("2 0 S");
+    }
+
+    @Test
+    public void test_plan_to_current_position_is_empty() throws Exception {
+        // Given:
+        World world = new World(new Plateau(4, 4));
+        Rover rover = deployedRover(world, 1, 2, 3, Orientation.W);
+
+        // When:
+        List<Instruction> instructions = underTest.plan(rover, 2, 3, Orientation.W);
+
+        // Then:
+        assertThat(instructions).isEmpty();
+    }
+
+    @Test
+    public void test_plan_to_enclosed_target() {
+        // Given:
+        World world = new World(new Plateau(4, 4));
+        Rover rover = deployedRover(world, 1, 0, 0, Orientation.N);
+        deployedRover(world, 2, 3, 4, Orientation.N);
+        deployedRover(world, 3, 4, 3, Orientation.N);
+
+        try {
+            // When:
+            underTest.plan(rover, 4, 4, Orientation.N);
+            fail("Exception expected!");
+        } catch (Exception ex) {
+            // Then:
+            assertThat(ex).isInstanceOf(PathNotFoundException.class);
+            assertThat(ex.getMessage()).contains("(4 4 N) can't be reached");
+        }
+    }
+
+    @Test
+    public void test_plan_exceeding_node_limit() {
+        // Given:
+        World world = new World(new Plateau(99_999, 99_999));
+        Rover rover = deployedRover(world, 1, 0, 0, Orientation.N);
+
+        try {
+            // When:
+            new PathPlanner(1000).plan(rover, 99_999, 99_999, Orientation.N);
+            fail("Exception expected!");
+        } catch (Exception ex) {
+            // Then:
+            assertThat(ex).isInstanceOf(PathNotFoundException.class);
+            assertThat(ex.getMessage()).contains("within 1000 explored states");
+        }
+    }
+}
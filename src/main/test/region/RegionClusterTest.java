@@ -0,0 +1,171 @@
+package region;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+
+import constants.Orientation;
+import constants.PlateauSize;
+import engine.InstructionEngine;
+import engine.InstructionProgram;
+import model.OccupancyIndex;
+import model.Plateau;
+import model.Rover;
+import model.exception.PositionBlockedException;
+import testenv.TestHelper;
+
+public class RegionClusterTest extends TestHelper {
+
+    private Map<Long, String> results = Maps.newHashMap();
+    private RoverResultListener listener = (id, xValue, yValue, orientation, failure) -> results.put(id,
+            xValue + " " + yValue + " " + orientation + (failure == null ? "" : " " + failure.getMessage()));
+
+    @Test
+    public void test_partitioning_assigns_each_cell_to_its_region() {
+        // Given:
+        RegionPartitioning partitioning = new RegionPartitioning(10, 7, 3, 2);
+
+        // Then:
+        assertThat(partitioning.getRegions()).hasSize(6);
+        for (int xValue = 0; xValue <= 10; xValue++) {
+            for (int yValue = 0; yValue <= 7; yValue++) {
+                int regionId = partitioning.regionOf(xValue, yValue);
+                assertThat(partitioning.getRegions().get(regionId).contains(xValue, yValue)).isTrue();
+            }
+        }
+    }
+
+    @Test
+    public void test_handoff_survives_wire_format() {
+        // Given:
+        RoverHandoff handoff = new RoverHandoff(42L, 3, 4, (byte) 2, new byte[] { 0, 1, 2, 0 }, 1);
+        ByteBuffer wire = ByteBuffer.allocate(handoff.encodedSize());
+
+        // When:
+        handoff.writeTo(wire);
+        wire.flip();
+        RoverHandoff received = RoverHandoff.readFrom(wire);
+
+        // Then:
+        assertThat(received.getId()).isEqualTo(42L);
+        assertThat(received.getxValue()).isEqualTo(3);
+        assertThat(received.getyValue()).isEqualTo(4);
+        assertThat(received.getOrientationCode()).isEqualTo((byte) 2);
+        assertThat(received.getProgramCounter()).isEqualTo(0);
+        assertThat(received.getCode()).containsExactly(1, 2, 0);
+    }
+
+    @Test
+    public void test_rover_crossing_regions_ends_like_single_plateau() throws Exception {
+        // Given:
+        PlateauSize.setMaxXValue(20);
+        PlateauSize.setMaxYValue(20);
+        RegionCluster cluster = new RegionCluster(new RegionPartitioning(4, 4), listener);
+        InstructionProgram program = InstructionProgram
+                .compile("MMMMMMMMMMRMMMMMMMMMMMMRMMMMLLMMMMMMMMMMMMMMMMMMMMMMMM");
+        Rover expectedRover = new Rover();
+        expectedRover.setDeployPosition(2, 3, Orientation.N);
+        String expectedFailure = "";
+        try {
+            new InstructionEngine(new OccupancyIndex()).execute(expectedRover, program);
+        } catch (Exception ex) {
+            expectedFailure = " " + ex.getMessage();
+        }
+
+        // When:
+        cluster.deploy(1L, 2, 3, Orientation.N, program);
+        cluster.run();
+
+        // Then:
+        assertThat(results.get(1L)).isEqualTo(expectedRover.getxValue() + " " + expectedRover.getyValue() + " "
+                + expectedRover.getOrientation() + expectedFailure);
+        for (RegionWorker worker : cluster.getWorkers()) {
+            assertThat(worker.isIdle()).isTrue();
+        }
+    }
+
+    @Test
+    public void test_rover_blocked_at_region_border() throws Exception {
+        // Given: rover 2 stands right behind the border between region 0 and 1
+        PlateauSize.setMaxXValue(9);
+        PlateauSize.setMaxYValue(9);
+        RegionCluster cluster = new RegionCluster(new RegionPartitioning(2, 1), listener);
+        cluster.deploy(2L, 5, 5, Orientation.N, InstructionProgram.compile(""));
+        cluster.deploy(1L, 2, 5, Orientation.E, InstructionProgram.compile("MMMMM"));
+
+        // When:
+        cluster.run();
+
+        // Then:
+        assertThat(results.get(1L))
+                .isEqualTo("4 5 E The positon (5 5) is blocked by another rover. Movement abborted!");
+        assertThat(results.get(2L)).isEqualTo("5 5 N");
+        assertThat(cluster.getWorkers().get(0).isOccupied(4, 5)).isTrue();
+        assertThat(cluster.getWorkers().get(1).isOccupied(5, 5)).isTrue();
+    }
+
+    @Test
+    public void test_worker_reports_invalid_op_code() {
+        // Given:
+        PlateauSize.setMaxXValue(9);
+        PlateauSize.setMaxYValue(9);
+        RegionPartitioning partitioning = new RegionPartitioning(1, 1);
+        RegionWorker worker = new RegionWorker(partitioning.getRegions().get(0), partitioning,
+                (regionId, handoff) -> false, listener);
+        worker.receive(new RoverHandoff(1L, 3, 3, (byte) 0, new byte[] { InstructionProgram.MOVE, 7 }, 0));
+
+        // When:
+        worker.processNext();
+
+        // Then: the rover stays where the invalid instruction stopped it
+        assertThat(results.get(1L)).isEqualTo("3 4 N Invalid instruction occured!");
+        assertThat(worker.isOccupied(3, 4)).isTrue();
+        assertThat(worker.isOccupied(3, 3)).isFalse();
+    }
+
+    @Test
+    public void test_deploy_on_blocked_cell() throws Exception {
+        // Given:
+        PlateauSize.setMaxXValue(9);
+        PlateauSize.setMaxYValue(9);
+        Plateau.global().getTerrain().block(7, 7);
+        RegionCluster cluster = new RegionCluster(new RegionPartitioning(2, 1), listener);
+        cluster.deploy(1L, 2, 2, Orientation.N, InstructionProgram.compile(""));
+
+        for (int[] cell : new int[][] { { 2, 2 }, { 7, 7 } }) {
+            // When:
+            try {
+                cluster.deploy(2L, cell[0], cell[1], Orientation.N, InstructionProgram.compile("M"));
+                fail("Exception expected!");
+            } catch (PositionBlockedException ex) {
+                // Then:
+                assertThat(ex.getMessage()).contains("(" + cell[0] + " " + cell[1] + ")");
+            }
+        }
+        cluster.run();
+        assertThat(results).containsOnlyKeys(1L);
+    }
+
+    @Test
+    public void test_rover_returning_to_region_reuses_its_slot() throws Exception {
+        // Given: the rover crosses the border between region 0 and 1 twice
+        PlateauSize.setMaxXValue(9);
+        PlateauSize.setMaxYValue(9);
+        RegionCluster cluster = new RegionCluster(new RegionPartitioning(2, 1), listener);
+        cluster.deploy(1L, 3, 5, Orientation.E, InstructionProgram.compile("MMMRRMMMM"));
+
+        // When:
+        cluster.run();
+
+        // Then:
+        assertThat(results.get(1L)).isEqualTo("2 5 W");
+        assertThat(cluster.getWorkers().get(0).isOccupied(2, 5)).isTrue();
+        assertThat(cluster.getWorkers().get(1).isOccupied(6, 5)).isFalse();
+    }
+}
@@ -0,0 +1,97 @@
+package snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import constants.Orientation;
+import model.FleetStore;
+import model.OccupancyIndex;
+import model.Plateau;
+import testenv.TestHelper;
+
+public class FleetSnapshotTest extends TestHelper {
+
+    private FleetStore fleet = new FleetStore(16, new OccupancyIndex());
+
+    @Test
+    public void test_read_restores_plateau_and_active_rovers() throws Exception {
+        // Given: more rovers than fit into one transfer block
+        Random random = new Random();
+        int roverCount = 100000;
+        for (int i = 0; i < roverCount; i++) {
+            fleet.add(random.nextLong(), random.nextInt(), random.nextInt(), anyOrientation());
+        }
+        fleet.deactivate(42);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long writtenRovers = FleetSnapshot.write(fleet, new Plateau(7, 9), 0, Channels.newChannel(output));
+
+        // When:
+        FleetSnapshot snapshot = FleetSnapshot
+                .read(Channels.newChannel(new ByteArrayInputStream(output.toByteArray())));
+        FleetStore restored = snapshot.getFleet();
+
+        // Then:
+        assertThat(writtenRovers).isEqualTo(roverCount - 1);
+        assertThat(output.size()).isEqualTo(FleetSnapshot.HEADER_SIZE + (roverCount - 1) * FleetSnapshot.RECORD_SIZE);
+        assertThat(snapshot.getPlateau().getMaxXValue()).isEqualTo(7);
+        assertThat(snapshot.getPlateau().getMaxYValue()).isEqualTo(9);
+        assertThat(restored.size()).isEqualTo(roverCount - 1);
+        for (int i = 0; i < restored.size(); i++) {
+            int original = i < 42 ? i : i + 1;
+            assertThat(restored.isActive(i)).isTrue();
+            assertThat(restored.getId(i)).isEqualTo(fleet.getId(original));
+            assertThat(restored.getxValue(i)).isEqualTo(fleet.getxValue(original));
+            assertThat(restored.getyValue(i)).isEqualTo(fleet.getyValue(original));
+            assertThat(restored.getOrientation(i)).isEqualTo(fleet.getOrientation(original));
+            assertThat(restored.getOccupancyIndex().isOccupied(restored.getxValue(i), restored.getyValue(i)))
+                    .isTrue();
+        }
+    }
+
+    @Test
+    public void test_read_truncated_snapshot() throws Exception {
+        // Given:
+        fleet.add(1L, 1, 2, Orientation.N);
+        fleet.add(2L, 3, 4, Orientation.S);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        FleetSnapshot.write(fleet, 0, Channels.newChannel(output));
+        byte[] truncated = Arrays.copyOf(output.toByteArray(), output.size() - 1);
+
+        // When:
+        try {
+            FleetSnapshot.read(Channels.newChannel(new ByteArrayInputStream(truncated)));
+        } catch (EOFException ex) {
+            // Then:
+            assertThat(ex.getMessage()).contains("truncated");
+            return;
+        }
+
+        fail("Exception expected!");
+    }
+
+    @Test
+    public void test_read_without_snapshot_header() throws Exception {
+        // Given:
+        byte[] input = new byte[FleetSnapshot.HEADER_SIZE];
+
+        // When:
+        try {
+            FleetSnapshot.read(Channels.newChannel(new ByteArrayInputStream(input)));
+        } catch (IllegalArgumentException ex) {
+            // Then:
+            assertThat(ex.getMessage()).contains("isn't a fleet snapshot");
+            return;
+        }
+
+        fail("Exception expected!");
+    }
+}
@@ -0,0 +1,240 @@
+package snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import constants.Orientation;
+import constants.PlateauSize;
+import engine.ExecutionResult;
+import engine.InstructionEngine;
+import engine.InstructionProgram;
+import engine.ProgramOptimizer;
+import engine.TickSimulator;
+import model.FleetStore;
+import model.OccupancyIndex;
+import model.Plateau;
+import model.Rover;
+import testenv.TestHelper;
+
+public class MoveJournalTest extends TestHelper {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private FleetStore fleet = new FleetStore(16, new OccupancyIndex());
+
+    @Test
+    public void test_replay_after_checkpoint_restores_fleet() throws Exception {
+        // Given:
+        PlateauSize.setMaxXValue(20);
+        PlateauSize.setMaxYValue(20);
+        Path snapshotFile = temporaryFolder.getRoot().toPath().resolve("fleet.snapshot");
+        Path journalFile = temporaryFolder.getRoot().toPath().resolve("fleet.journal");
+        MoveJournal journal = new MoveJournal(journalFile, 0);
+        fleet.setJournal(journal);
+        Random random = new Random();
+        for (int i = 0; i < 20; i++) {
+            fleet.add(i, i, random.nextInt(21), anyOrientation());
+        }
+        executeRandomPrograms(random);
+        journal.checkpoint(fleet, Plateau.global(), snapshotFile);
+        fleet.retire(3);
+        fleet.add(3L, 3, 3, Orientation.W);
+        fleet.add(99L, 20, 20, Orientation.S);
+        executeRandomPrograms(random);
+        journal.close();
+
+        // When:
+        FleetSnapshot snapshot;
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            snapshot = FleetSnapshot.read(channel);
+        }
+        long lastTick;
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            lastTick = MoveJournal.replay(channel, snapshot.getFleet(), snapshot.getJournalTick());
+        }
+
+        // Then:
+        assertThat(lastTick).isEqualTo(journal.getLastTick());
+        assertThat(positionsOf(snapshot.getFleet())).isEqualTo(positionsOf(fleet));
+    }
+
+    @Test
+    public void test_replay_restores_fleet_after_tick_simulation() throws Exception {
+        // Given: rovers whose paths cross, so some of them are blocked
+        PlateauSize.setMaxXValue(6);
+        PlateauSize.setMaxYValue(6);
+        Path journalFile = temporaryFolder.getRoot().toPath().resolve("fleet.journal");
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try (MoveJournal journal = new MoveJournal(journalFile, 0)) {
+            fleet.setJournal(journal);
+            fleet.add(1L, 0, 3, Orientation.E);
+            fleet.add(2L, 3, 0, Orientation.N);
+            fleet.add(3L, 6, 6, Orientation.S);
+            InstructionProgram[] programs = { InstructionProgram.compile("MMMMMLM"),
+                    InstructionProgram.compile("MMMMRMM"), InstructionProgram.compile("MMMMMMMM") };
+
+            // When:
+            new TickSimulator(pool).run(fleet, programs);
+        } finally {
+            pool.shutdown();
+        }
+        FleetStore recovered = new FleetStore(16, new OccupancyIndex());
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            MoveJournal.replay(channel, recovered, 0);
+        }
+
+        // Then:
+        assertThat(positionsOf(fleet)).isNotEqualTo("1:0 3 E;2:3 0 N;3:6 6 S;");
+        assertThat(positionsOf(recovered)).isEqualTo(positionsOf(fleet));
+    }
+
+    @Test
+    public void test_replay_ignores_incomplete_last_record() throws Exception {
+        // Given:
+        Path journalFile = temporaryFolder.getRoot().toPath().resolve("fleet.journal");
+        try (MoveJournal journal = new MoveJournal(journalFile, 0)) {
+            fleet.setJournal(journal);
+            int index = fleet.add(1L, 2, 2, Orientation.N);
+            journal.executed(1L, InstructionProgram.TURN_RIGHT);
+            journal.executed(1L, InstructionProgram.MOVE);
+            fleet.setOrientationCode(index, (byte) Orientation.E.ordinal());
+        }
+        File file = journalFile.toFile();
+        try (RandomAccessFile torn = new RandomAccessFile(file, "rw")) {
+            torn.setLength(file.length() - 1);
+        }
+        FleetStore recovered = new FleetStore(1, new OccupancyIndex());
+
+        // When:
+        long lastTick;
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            lastTick = MoveJournal.replay(channel, recovered, 0);
+        }
+
+        // Then:
+        assertThat(lastTick).isEqualTo(2L);
+        assertThat(positionsOf(recovered)).isEqualTo("1:2 2 E;");
+    }
+
+    @Test
+    public void test_replay_moves_redeployed_rover() throws Exception {
+        // Given:
+        Path journalFile = temporaryFolder.getRoot().toPath().resolve("fleet.journal");
+        try (MoveJournal journal = new MoveJournal(journalFile, 0)) {
+            fleet.setJournal(journal);
+            Rover rover = new Rover(fleet, fleet.add(1L, 2, 2, Orientation.N));
+            rover.setDeployPosition(5, 6, Orientation.W);
+        }
+        FleetStore recovered = new FleetStore(1, new OccupancyIndex());
+
+        // When:
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            MoveJournal.replay(channel, recovered, 0);
+        }
+
+        // Then:
+        assertThat(positionsOf(recovered)).isEqualTo("1:5 6 W;");
+        assertThat(recovered.size()).isEqualTo(1);
+        assertThat(recovered.getOccupancyIndex().isOccupied(2, 2)).isFalse();
+    }
+
+    @Test
+    public void test_replay_with_invalid_orientation() throws Exception {
+        // Given:
+        Path journalFile = temporaryFolder.getRoot().toPath().resolve("fleet.journal");
+        try (MoveJournal journal = new MoveJournal(journalFile, 0)) {
+            journal.deployed(1L, 2, 2, (byte) 7);
+        }
+
+        // When:
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            MoveJournal.replay(channel, fleet, 0);
+        } catch (IllegalArgumentException ex) {
+            // Then:
+            assertThat(ex.getMessage()).contains("Invalid orientation at tick 1: 7");
+            return;
+        }
+
+        fail("Exception expected!");
+    }
+
+    @Test
+    public void test_journal_failure_is_suppressed_by_failure_of_run() throws Exception {
+        // Given: a journal that can't be written
+        PlateauSize.setMaxXValue(5);
+        PlateauSize.setMaxYValue(5);
+        Path journalFile = temporaryFolder.getRoot().toPath().resolve("fleet.journal");
+        try (MoveJournal journal = new MoveJournal(journalFile, 0) {
+
+            @Override
+            public synchronized void executed(long roverId, ByteBuffer text, int from, int to) {
+                throw new UncheckedIOException(new IOException("disk full"));
+            }
+        }) {
+            fleet.setJournal(journal);
+            Rover rover = new Rover(fleet, fleet.add(1L, 2, 2, Orientation.N));
+            ByteBuffer text = ByteBuffer.wrap("MX".getBytes(StandardCharsets.US_ASCII));
+
+            // When:
+            try {
+                new InstructionEngine(fleet).execute(rover, text, 0, 2, new ExecutionResult());
+            } catch (IllegalArgumentException ex) {
+                // Then:
+                assertThat(ex.getMessage()).contains("Invalid instructions given: X");
+                assertThat(ex.getSuppressed()).hasSize(1);
+                assertThat(ex.getSuppressed()[0]).hasMessageContaining("disk full");
+                return;
+            }
+        }
+
+        fail("Exception expected!");
+    }
+
+    private void executeRandomPrograms(Random random) {
+        InstructionEngine engine = new InstructionEngine(fleet);
+        ExecutionResult result = new ExecutionResult();
+        for (int index = 0; index < fleet.size(); index++) {
+            if (!fleet.isActive(index)) {
+                continue;
+            }
+            StringBuilder input = new StringBuilder();
+            for (int i = 0; i < 30; i++) {
+                input.append("MMLR".charAt(random.nextInt(4)));
+            }
+            InstructionProgram program = InstructionProgram.compile(input);
+            if (random.nextBoolean()) {
+                engine.execute(new Rover(fleet, index), program, result);
+            } else {
+                engine.execute(new Rover(fleet, index), ProgramOptimizer.optimize(program), result);
+            }
+        }
+    }
+
+    private static String positionsOf(FleetStore fleet) {
+        StringBuilder positions = new StringBuilder();
+        for (int index = 0; index < fleet.size(); index++) {
+            if (fleet.isActive(index)) {
+                positions.append(fleet.getId(index)).append(':').append(fleet.getxValue(index)).append(' ')
+                        .append(fleet.getyValue(index)).append(' ').append(fleet.getOrientation(index)).append(';');
+            }
+        }
+        return positions.toString();
+    }
+}
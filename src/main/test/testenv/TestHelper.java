@@ -9,6 +9,9 @@ import org.junit.Before;
 import constants.Instruction;
 import constants.Orientation;
 import constants.PlateauSize;
+import model.Plateau;
+import model.Rover;
+import model.World;
 
 public class TestHelper {
 
@@ -16,6 +19,7 @@ public class TestHelper {
     public void setupPlateau() {
         PlateauSize.setMaxXValue(anyInt());
         PlateauSize.setMaxYValue(anyInt());
+        Plateau.global().getTerrain().clear();
     }
 
     private static int anyInt() {
@@ -40,4 +44,21 @@ public class TestHelper {
         return enumValuesAsList.get(new Random().nextInt(enumValuesAsList.size()));
     }
 
-}
\ No newline at end of file
+    protected static Rover deployedRover(int xValue, int yValue, Orientation orientation) {
+        Rover rover = new Rover();
+        rover.setDeployPosition(xValue, yValue, orientation);
+        return rover;
+    }
+
+    protected static Rover deployedRover(World world, long id, int xValue, int yValue, Orientation orientation) {
+        Rover rover = new Rover(world);
+        rover.setDeployPosition(xValue, yValue, orientation);
+        world.registerRover(id, rover);
+        return rover;
+    }
+
+    protected static String positionOf(Rover rover) {
+        return rover.getxValue() + " " + rover.getyValue() + " " + rover.getOrientation();
+    }
+
+}